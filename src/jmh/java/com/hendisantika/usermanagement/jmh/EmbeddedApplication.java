@@ -0,0 +1,61 @@
+package com.hendisantika.usermanagement.jmh;
+
+import com.hendisantika.usermanagement.UserManagementApplication;
+import com.hendisantika.usermanagement.entity.User;
+import com.hendisantika.usermanagement.repository.UserRepository;
+import com.hendisantika.usermanagement.service.RoleRegistry;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * The application started without a web server on an in-memory H2 database, seeded with {@link #USERS} users
+ * named {@code user0..} so that benchmarks run the real beans against a real (embedded) database.
+ */
+public final class EmbeddedApplication {
+
+    public static final int USERS = 1_000;
+    public static final String PASSWORD = "secret123";
+
+    private EmbeddedApplication() {
+    }
+
+    public static ConfigurableApplicationContext start() {
+        // Command-line arguments, so that they win over application.properties.
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(UserManagementApplication.class)
+                .web(WebApplicationType.NONE)
+                .run("--spring.datasource.url=jdbc:h2:mem:jmh;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+                        "--spring.datasource.username=sa",
+                        "--spring.datasource.password=",
+                        "--spring.jpa.hibernate.ddl-auto=create-drop",
+                        "--spring.jpa.show-sql=false",
+                        "--spring.main.banner-mode=off",
+                        "--logging.level.root=WARN",
+                        "--password-hashing.bcrypt.strength=10");
+        seed(context);
+        return context;
+    }
+
+    private static void seed(ConfigurableApplicationContext context) {
+        UserRepository userRepository = context.getBean(UserRepository.class);
+        RoleRegistry roleRegistry = context.getBean(RoleRegistry.class);
+        String hash = context.getBean(PasswordEncoder.class).encode(PASSWORD);
+        List<User> users = new ArrayList<>(USERS);
+        for (int i = 0; i < USERS; i++) {
+            User user = new User();
+            user.setFirstName("First");
+            user.setLastName("Last");
+            user.setEmail("user" + i + "@example.com");
+            user.setUsername("user" + i);
+            user.setPassword(hash);
+            user.setRoles(Set.of(roleRegistry.findByName("USER"), roleRegistry.findByName("ADMIN")));
+            users.add(user);
+        }
+        userRepository.saveAll(users);
+    }
+}
@@ -0,0 +1,59 @@
+package com.hendisantika.usermanagement.service;
+
+import com.hendisantika.usermanagement.entity.Role;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Authority set built from a user's roles on every login, alone and wrapped in the {@link UserDetails} handed
+ * to the authentication provider.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AuthorityBenchmark {
+
+    @Param({"1", "3", "10"})
+    private int roleCount;
+
+    private List<Role> roles;
+
+    @Setup
+    public void setUp() {
+        roles = new ArrayList<>(roleCount);
+        for (int i = 0; i < roleCount; i++) {
+            roles.add(new Role((long) i, "ROLE" + i, "ROLE " + i));
+        }
+    }
+
+    @Benchmark
+    public Set<GrantedAuthority> authorities() {
+        return UserDetailsServiceImpl.authorities(roles);
+    }
+
+    // Spring's User copies the authorities once more, into a sorted set.
+    @Benchmark
+    public UserDetails userDetails() {
+        return new User("user0", "{bcrypt}hash", UserDetailsServiceImpl.authorities(roles));
+    }
+}
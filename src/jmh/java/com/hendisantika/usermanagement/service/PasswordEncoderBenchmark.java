@@ -0,0 +1,51 @@
+package com.hendisantika.usermanagement.service;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * BCrypt encode and match per cost factor: the numbers behind {@code password-hashing.bcrypt.*} and the
+ * startup calibration of {@link BCryptCostCalibrator}. Each extra unit of cost doubles the time.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 3)
+@Fork(1)
+public class PasswordEncoderBenchmark {
+
+    @Param({"4", "8", "10", "12"})
+    private int strength;
+
+    private BCryptPasswordEncoder encoder;
+    private String hash;
+
+    @Setup
+    public void setUp() {
+        encoder = new BCryptPasswordEncoder(strength);
+        hash = encoder.encode("secret123");
+    }
+
+    @Benchmark
+    public String encode() {
+        return encoder.encode("secret123");
+    }
+
+    @Benchmark
+    public boolean matches() {
+        return encoder.matches("secret123", hash);
+    }
+}
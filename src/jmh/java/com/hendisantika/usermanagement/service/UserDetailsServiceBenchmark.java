@@ -0,0 +1,52 @@
+package com.hendisantika.usermanagement.service;
+
+import com.hendisantika.usermanagement.jmh.EmbeddedApplication;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Login lookup: {@link UserDetailsServiceImpl#loadUserByUsername} through its transactional proxy against H2,
+ * a user with two roles loaded in one query.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class UserDetailsServiceBenchmark {
+
+    private ConfigurableApplicationContext context;
+    private UserDetailsServiceImpl userDetailsService;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        context = EmbeddedApplication.start();
+        userDetailsService = context.getBean(UserDetailsServiceImpl.class);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public UserDetails loadUserByUsername() {
+        next = (next + 1) % EmbeddedApplication.USERS;
+        return userDetailsService.loadUserByUsername("user" + next);
+    }
+}
@@ -0,0 +1,80 @@
+package com.hendisantika.usermanagement.service;
+
+import com.hendisantika.usermanagement.dto.UserPage;
+import com.hendisantika.usermanagement.entity.User;
+import com.hendisantika.usermanagement.jmh.EmbeddedApplication;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Edit path of {@link UserService}: the field copy of {@code mapUser} alone, and a full {@code updateUser}
+ * (load, constraint-checked save, cache eviction and in-memory index maintenance) against H2.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class UserServiceBenchmark {
+
+    private ConfigurableApplicationContext context;
+    private UserService userService;
+    private User form;
+    private User target;
+    private long firstId;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        context = EmbeddedApplication.start();
+        userService = context.getBean(UserService.class);
+        firstId = userService.getUserPage(UserPage.SortKey.ID, null, null, 1)
+                .getUsers().get(0).getId();
+        RoleRegistry roleRegistry = context.getBean(RoleRegistry.class);
+        form = new User();
+        form.setFirstName("Edited");
+        form.setLastName("Name");
+        form.setEmail("edited@example.com");
+        form.setUsername("edited");
+        form.setRoles(Set.of(roleRegistry.findByName("USER")));
+        target = new User();
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public User mapUser() {
+        userService.mapUser(form, target);
+        return target;
+    }
+
+    @Benchmark
+    public User updateUser() throws Exception {
+        next = (next + 1) % EmbeddedApplication.USERS;
+        User user = new User();
+        user.setId(firstId + next);
+        user.setFirstName(next % 2 == 0 ? "Even" : "Odd");
+        user.setLastName("Last");
+        user.setEmail("user" + next + "@example.com");
+        user.setUsername("user" + next);
+        user.setRoles(form.getRoles());
+        return userService.updateUser(user);
+    }
+}
@@ -0,0 +1,106 @@
+package com.hendisantika.usermanagement.config;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Lets at most {@code maxConcurrency} threads hold a connection at once; the others park on a fair semaphore.
+ * <p>
+ * With one virtual thread per request, thousands of requests can reach the pool together. Parking them here
+ * is cheap, serves them in arrival order and keeps the pool's own hand-off down to {@code maxConcurrency}
+ * contenders. A thread still waiting after {@code timeoutMillis} fails like a pool timeout would.
+ */
+public class ConnectionLimitingDataSource extends DelegatingDataSource {
+
+    private final Semaphore permits;
+    private final long timeoutMillis;
+
+    public ConnectionLimitingDataSource(DataSource target, int maxConcurrency, long timeoutMillis) {
+        super(target);
+        this.permits = new Semaphore(maxConcurrency, true);
+        this.timeoutMillis = timeoutMillis;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        acquire();
+        try {
+            return limited(super.getConnection());
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        acquire();
+        try {
+            return limited(super.getConnection(username, password));
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    public int getWaitingThreads() {
+        return permits.getQueueLength();
+    }
+
+    public int getAvailablePermits() {
+        return permits.availablePermits();
+    }
+
+    private void acquire() throws SQLException {
+        try {
+            if (!permits.tryAcquire(timeoutMillis, TimeUnit.MILLISECONDS)) {
+                throw new SQLTransientConnectionException(
+                        "No connection available within " + timeoutMillis + " ms, " + permits.getQueueLength() + " waiting");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLTransientConnectionException("Interrupted while waiting for a connection", e);
+        }
+    }
+
+    // The permit goes back with the first close(); closing twice must not release it twice.
+    private Connection limited(Connection connection) {
+        AtomicBoolean closed = new AtomicBoolean();
+        InvocationHandler handler = (proxy, method, args) -> switch (method.getName()) {
+            case "equals" -> proxy == args[0];
+            case "hashCode" -> System.identityHashCode(proxy);
+            case "close" -> {
+                try {
+                    connection.close();
+                } finally {
+                    if (closed.compareAndSet(false, true)) {
+                        permits.release();
+                    }
+                }
+                yield null;
+            }
+            default -> invoke(connection, method, args);
+        };
+        return (Connection) Proxy.newProxyInstance(ConnectionLimitingDataSource.class.getClassLoader(),
+                new Class<?>[]{Connection.class}, handler);
+    }
+
+    private static Object invoke(Connection connection, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(connection, args);
+        } catch (InvocationTargetException e) {
+            throw e.getTargetException();
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package com.hendisantika.usermanagement.config;
+
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.QueryStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * {@code /actuator/hibernate}: the session factory's {@link Statistics} since startup or the last reset, with
+ * the HQL queries that took the most time in total. Needs {@code hibernate.generate_statistics=true}.
+ */
+@Component
+@RequiredArgsConstructor
+@Endpoint(id = "hibernate")
+public class HibernateStatisticsEndpoint {
+
+    private static final int TOP_QUERIES = 20;
+
+    private final EntityManagerFactory entityManagerFactory;
+
+    @ReadOperation
+    public Map<String, Object> statistics() {
+        Statistics statistics = sessionFactoryStatistics();
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("enabled", statistics.isStatisticsEnabled());
+        body.put("since", statistics.getStart());
+        body.put("sessionsOpened", statistics.getSessionOpenCount());
+        body.put("transactions", statistics.getTransactionCount());
+        body.put("preparedStatements", statistics.getPrepareStatementCount());
+        body.put("flushes", statistics.getFlushCount());
+        body.put("optimisticFailures", statistics.getOptimisticFailureCount());
+
+        Map<String, Object> entities = new LinkedHashMap<>();
+        entities.put("loads", statistics.getEntityLoadCount());
+        entities.put("fetches", statistics.getEntityFetchCount());
+        entities.put("inserts", statistics.getEntityInsertCount());
+        entities.put("updates", statistics.getEntityUpdateCount());
+        entities.put("deletes", statistics.getEntityDeleteCount());
+        entities.put("collectionLoads", statistics.getCollectionLoadCount());
+        entities.put("collectionFetches", statistics.getCollectionFetchCount());
+        body.put("entities", entities);
+
+        Map<String, Object> caches = new LinkedHashMap<>();
+        caches.put("secondLevelHits", statistics.getSecondLevelCacheHitCount());
+        caches.put("secondLevelMisses", statistics.getSecondLevelCacheMissCount());
+        caches.put("secondLevelPuts", statistics.getSecondLevelCachePutCount());
+        caches.put("queryHits", statistics.getQueryCacheHitCount());
+        caches.put("queryMisses", statistics.getQueryCacheMissCount());
+        caches.put("queryPuts", statistics.getQueryCachePutCount());
+        body.put("caches", caches);
+
+        Map<String, Object> queries = new LinkedHashMap<>();
+        queries.put("executions", statistics.getQueryExecutionCount());
+        queries.put("maxTimeMs", statistics.getQueryExecutionMaxTime());
+        queries.put("slowest", statistics.getQueryExecutionMaxTimeQueryString());
+        queries.put("top", topQueries(statistics));
+        body.put("queries", queries);
+        return body;
+    }
+
+    @DeleteOperation
+    public void reset() {
+        sessionFactoryStatistics().clear();
+    }
+
+    private List<Map<String, Object>> topQueries(Statistics statistics) {
+        return Arrays.stream(statistics.getQueries())
+                .map(query -> Map.entry(query, statistics.getQueryStatistics(query)))
+                .sorted(Comparator.comparingLong((Map.Entry<String, QueryStatistics> e) ->
+                        e.getValue().getExecutionTotalTime()).reversed())
+                .limit(TOP_QUERIES)
+                .map(e -> describe(e.getKey(), e.getValue()))
+                .toList();
+    }
+
+    private static Map<String, Object> describe(String query, QueryStatistics stats) {
+        Map<String, Object> entry = new LinkedHashMap<>();
+        entry.put("query", query);
+        entry.put("executions", stats.getExecutionCount());
+        entry.put("rows", stats.getExecutionRowCount());
+        entry.put("totalTimeMs", stats.getExecutionTotalTime());
+        entry.put("avgTimeMs", stats.getExecutionAvgTime());
+        entry.put("maxTimeMs", stats.getExecutionMaxTime());
+        entry.put("cacheHits", stats.getCacheHitCount());
+        return entry;
+    }
+
+    private Statistics sessionFactoryStatistics() {
+        return entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+}
@@ -0,0 +1,67 @@
+package com.hendisantika.usermanagement.config;
+
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.dialect.Dialect;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.id.enhanced.DatabaseStructure;
+import org.hibernate.id.enhanced.SequenceStyleGenerator;
+import org.hibernate.persister.entity.AbstractEntityPersister;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Moves every entity id sequence past the ids already in its table, at startup and before anything inserts.
+ * <p>
+ * Users and roles had identity ids before they moved to pooled sequences. On a database created back then,
+ * {@code ddl-auto=update} adds {@code users_seq} and {@code role_seq} starting at 1, and the first inserts would
+ * hit existing keys. The pooled optimizer hands out the {@code incrementSize} ids up to the value it reads, so a
+ * sequence has to return at least {@code max(id) + incrementSize}. A sequence already past that is left alone,
+ * which makes this a no-op after the first start.
+ * <p>
+ * On databases without sequences (MySQL), Hibernate keeps the next value in a one-row {@code next_val} table,
+ * which is raised the same way.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class IdSequenceAlignment implements InitializingBean {
+
+    private final EntityManagerFactory entityManagerFactory;
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public void afterPropertiesSet() {
+        SessionFactoryImplementor sessionFactory = entityManagerFactory.unwrap(SessionFactoryImplementor.class);
+        Dialect dialect = sessionFactory.getJdbcServices().getDialect();
+        sessionFactory.getMappingMetamodel().forEachEntityDescriptor(entity -> {
+            if (entity.getGenerator() instanceof SequenceStyleGenerator generator
+                    && entity instanceof AbstractEntityPersister persister) {
+                align(dialect, generator.getDatabaseStructure(), persister.getTableName(),
+                        persister.getIdentifierColumnNames()[0]);
+            }
+        });
+    }
+
+    private void align(Dialect dialect, DatabaseStructure structure, String table, String idColumn) {
+        Long maxId = jdbcTemplate.queryForObject("select max(" + idColumn + ") from " + table, Long.class);
+        if (maxId == null) {
+            return;
+        }
+        long floor = maxId + structure.getIncrementSize();
+        String name = structure.getPhysicalName().render();
+        if (structure.isPhysicalSequence()) {
+            Long next = jdbcTemplate.queryForObject(dialect.getSequenceSupport().getSequenceNextValString(name),
+                    Long.class);
+            if (next != null && next < floor) {
+                jdbcTemplate.execute("alter sequence " + name + " restart with " + floor);
+                log.info("Moved sequence {} from {} to {}, past max({}.{}) = {}", name, next, floor, table, idColumn,
+                        maxId);
+            }
+        } else if (jdbcTemplate.update("update " + name + " set next_val = ? where next_val < ?", floor, floor) > 0) {
+            log.info("Moved sequence table {} to {}, past max({}.{}) = {}", name, floor, table, idColumn, maxId);
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package com.hendisantika.usermanagement.config;
+
+import com.hendisantika.usermanagement.exception.PasswordHashingRejectedException;
+import com.hendisantika.usermanagement.service.LoginThrottle;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.web.authentication.www.BasicAuthenticationConverter;
+import org.springframework.security.web.util.matcher.AntPathRequestMatcher;
+import org.springframework.security.web.util.matcher.RequestMatcher;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.function.Function;
+
+/**
+ * Turns away login attempts that {@link LoginThrottle} refuses with 429 and {@code Retry-After}. Sits ahead of
+ * the filter checking the credentials, so a refused attempt never reaches {@code PasswordEncoder.matches}.
+ * An attempt let through is counted before it goes on, and settled once the rest of the chain has run: logged
+ * in when the security context holds an authenticated user, not checked at all when the hashing pool refused it.
+ * <p>
+ * One instance per way of logging in: {@link #formLogin} for the login form post, {@link #httpBasic} for
+ * requests carrying Basic credentials. Requests that are not login attempts pass through untouched.
+ */
+public class LoginThrottleFilter extends OncePerRequestFilter {
+
+    private final LoginThrottle loginThrottle;
+    // The username attempted by the request, or null when it is not a login attempt.
+    private final Function<HttpServletRequest, String> attemptedUsername;
+
+    private LoginThrottleFilter(LoginThrottle loginThrottle, Function<HttpServletRequest, String> attemptedUsername) {
+        this.loginThrottle = loginThrottle;
+        this.attemptedUsername = attemptedUsername;
+    }
+
+    public static LoginThrottleFilter formLogin(LoginThrottle loginThrottle, String loginProcessingUrl,
+                                                String usernameParameter) {
+        RequestMatcher loginPost = AntPathRequestMatcher.antMatcher(HttpMethod.POST, loginProcessingUrl);
+        return new LoginThrottleFilter(loginThrottle, request ->
+                loginPost.matches(request) ? String.valueOf(request.getParameter(usernameParameter)) : null);
+    }
+
+    public static LoginThrottleFilter httpBasic(LoginThrottle loginThrottle) {
+        BasicAuthenticationConverter converter = new BasicAuthenticationConverter();
+        return new LoginThrottleFilter(loginThrottle, request -> {
+            try {
+                UsernamePasswordAuthenticationToken credentials = converter.convert(request);
+                return credentials != null ? credentials.getName() : null;
+            } catch (RuntimeException e) {
+                // Malformed header: BasicAuthenticationFilter rejects it without hashing anything.
+                return null;
+            }
+        });
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        String username = attemptedUsername.apply(request);
+        if (username == null) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+        String ip = request.getRemoteAddr();
+        if (loginThrottle.tryAcquire(username, ip)) {
+            try {
+                filterChain.doFilter(request, response);
+            } catch (PasswordHashingRejectedException e) {
+                loginThrottle.release(username, ip);
+                throw e;
+            }
+            if (isAuthenticated()) {
+                loginThrottle.succeeded(username, ip);
+            } else if (response.getStatus() == HttpStatus.SERVICE_UNAVAILABLE.value()) {
+                // Already turned into a 503 by PasswordHashingRejectedFilter
+                loginThrottle.release(username, ip);
+            }
+            return;
+        }
+        // Written directly, like PasswordHashingRejectedFilter: an error dispatch would bounce to the login page.
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(loginThrottle.getRetryAfterSeconds()));
+        response.setContentType(MediaType.TEXT_PLAIN_VALUE);
+        response.getWriter().write("Too many failed logins, try again later.");
+    }
+
+    private static boolean isAuthenticated() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        return authentication != null && authentication.isAuthenticated()
+                && !(authentication instanceof AnonymousAuthenticationToken);
+    }
+}
@@ -0,0 +1,47 @@
+package com.hendisantika.usermanagement.config;
+
+import com.hendisantika.usermanagement.service.BCryptCostCalibrator;
+import com.hendisantika.usermanagement.service.BoundedPasswordEncoder;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.time.Duration;
+import java.util.Map;
+
+@Slf4j
+@Configuration
+public class PasswordEncoderConfig {
+
+    private static final String BCRYPT_ID = "bcrypt";
+
+    @Bean
+    public PasswordEncoder passwordEncoder(@Value("${password-hashing.pool-size:0}") int poolSize,
+                                           @Value("${password-hashing.queue-capacity:64}") int queueCapacity,
+                                           @Value("${password-hashing.retry-after-seconds:1}") long retryAfterSeconds,
+                                           @Value("${password-hashing.bcrypt.strength:0}") int strength,
+                                           @Value("${password-hashing.bcrypt.target-latency:250ms}") Duration targetLatency,
+                                           @Value("${password-hashing.bcrypt.min-strength:10}") int minStrength,
+                                           @Value("${password-hashing.bcrypt.max-strength:16}") int maxStrength,
+                                           MeterRegistry meterRegistry) {
+        int cost = strength > 0
+                ? strength
+                : new BCryptCostCalibrator().calibrate(targetLatency, minStrength, maxStrength);
+        log.info("BCrypt cost {} ({})", cost, strength > 0 ? "configured" : "calibrated for " + targetLatency);
+        Gauge.builder("password.hash.bcrypt.cost", () -> cost).register(meterRegistry);
+
+        // New hashes are stored as {bcrypt}$2a$<cost>$...; legacy unprefixed hashes still match and, like hashes
+        // of a lower cost, report upgradeEncoding() so they are rewritten on the next successful login.
+        BCryptPasswordEncoder bcrypt = new BCryptPasswordEncoder(cost);
+        DelegatingPasswordEncoder delegating = new DelegatingPasswordEncoder(BCRYPT_ID, Map.of(BCRYPT_ID, bcrypt));
+        delegating.setDefaultPasswordEncoderForMatches(bcrypt);
+
+        return new BoundedPasswordEncoder(delegating, poolSize, queueCapacity, retryAfterSeconds, meterRegistry);
+    }
+}
@@ -0,0 +1,36 @@
+package com.hendisantika.usermanagement.config;
+
+import com.hendisantika.usermanagement.exception.PasswordHashingRejectedException;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Form login calls {@code PasswordEncoder.matches} inside the security filter chain, out of reach of
+ * {@code @ControllerAdvice}. This filter answers 503 with {@code Retry-After} when that hash is refused.
+ */
+public class PasswordHashingRejectedFilter extends OncePerRequestFilter {
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        try {
+            filterChain.doFilter(request, response);
+        } catch (PasswordHashingRejectedException e) {
+            if (response.isCommitted()) {
+                throw e;
+            }
+            // Written directly: an error dispatch would go back through the chain and bounce to the login page.
+            response.setStatus(HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+            response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSeconds()));
+            response.setContentType(MediaType.TEXT_PLAIN_VALUE);
+            response.getWriter().write(e.getMessage());
+        }
+    }
+}
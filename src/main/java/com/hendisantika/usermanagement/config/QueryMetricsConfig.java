@@ -0,0 +1,43 @@
+package com.hendisantika.usermanagement.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+/**
+ * Puts a {@link QueryTimingDataSource} in front of the application data source. Replaces
+ * {@code spring.jpa.show-sql}, which printed every statement to stdout without saying which ones were slow.
+ */
+@Slf4j
+@Configuration
+public class QueryMetricsConfig {
+
+    @Bean
+    public static BeanPostProcessor queryTimingDataSourcePostProcessor(Environment environment,
+                                                                        ObjectProvider<MeterRegistry> meterRegistry) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (!(bean instanceof DataSource dataSource) || bean instanceof QueryTimingDataSource) {
+                    return bean;
+                }
+                MeterRegistry registry = meterRegistry.getIfAvailable();
+                if (registry == null) {
+                    return bean;
+                }
+                Duration slowThreshold = environment.getProperty("jdbc.slow-query-threshold", Duration.class,
+                        Duration.ofMillis(200));
+                int maxShapes = environment.getProperty("jdbc.query-shapes.max", Integer.class, 500);
+                log.info("Timing queries on {}, logging those over {}", beanName, slowThreshold);
+                return new QueryTimingDataSource(dataSource, registry, slowThreshold, maxShapes);
+            }
+        };
+    }
+}
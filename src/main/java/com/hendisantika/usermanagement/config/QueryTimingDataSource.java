@@ -0,0 +1,184 @@
+package com.hendisantika.usermanagement.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.repository.Repository;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Pattern;
+
+/**
+ * Times every statement executed through this data source into a {@code jdbc.query} timer per query shape, and
+ * logs the ones slower than {@code slowThreshold} with their bind-parameter count and the repository method
+ * that issued them.
+ * <p>
+ * The shape is the SQL with whitespace collapsed, and {@code IN} lists and multi-row {@code VALUES} of any
+ * length folded into one, so batch fetches of 3 and of 50 ids share a timer, as do inserts of 3 and of 50 rows.
+ * Past {@code maxShapes} distinct shapes, further ones are recorded under {@code other} to keep the number of
+ * meters bounded.
+ */
+@Slf4j
+public class QueryTimingDataSource extends DelegatingDataSource {
+
+    static final String TIMER_NAME = "jdbc.query";
+    static final String OTHER_SHAPE = "other";
+
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+    private static final Pattern IN_LIST =
+            Pattern.compile("\\bin\\s*\\(\\s*\\?(\\s*,\\s*\\?)*\\s*\\)", Pattern.CASE_INSENSITIVE);
+    private static final Pattern VALUES_ROWS = Pattern.compile(
+            "\\bvalues\\s*(\\(\\s*\\?(?:\\s*,\\s*\\?)*\\s*\\))(?:\\s*,\\s*\\1)+", Pattern.CASE_INSENSITIVE);
+
+    private final MeterRegistry meterRegistry;
+    private final long slowThresholdNanos;
+    private final int maxShapes;
+    private final Map<String, Timer> timers = new ConcurrentHashMap<>();
+
+    public QueryTimingDataSource(DataSource target, MeterRegistry meterRegistry, Duration slowThreshold, int maxShapes) {
+        super(target);
+        this.meterRegistry = meterRegistry;
+        this.slowThresholdNanos = slowThreshold.toNanos();
+        this.maxShapes = maxShapes;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return timed(super.getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return timed(super.getConnection(username, password));
+    }
+
+    private Connection timed(Connection connection) {
+        InvocationHandler handler = (proxy, method, args) -> switch (method.getName()) {
+            case "equals" -> proxy == args[0];
+            case "hashCode" -> System.identityHashCode(proxy);
+            case "prepareStatement", "prepareCall" -> {
+                Statement statement = (Statement) invoke(connection, method, args);
+                yield timed(statement, method.getReturnType(), (String) args[0]);
+            }
+            case "createStatement" -> timed((Statement) invoke(connection, method, args), Statement.class, null);
+            default -> invoke(connection, method, args);
+        };
+        return (Connection) Proxy.newProxyInstance(QueryTimingDataSource.class.getClassLoader(),
+                new Class<?>[]{Connection.class}, handler);
+    }
+
+    // A prepared statement carries its SQL from prepareStatement(); a plain one receives it with each execute.
+    private Statement timed(Statement statement, Class<?> type, String preparedSql) {
+        AtomicInteger batched = new AtomicInteger();
+        InvocationHandler handler = (proxy, method, args) -> {
+            String name = method.getName();
+            if (name.equals("addBatch")) {
+                batched.incrementAndGet();
+            } else if (name.equals("clearBatch")) {
+                batched.set(0);
+            } else if (name.startsWith("execute")) {
+                String sql = preparedSql != null ? preparedSql : args != null && args.length > 0 ? (String) args[0] : null;
+                int executions = name.endsWith("Batch") ? Math.max(1, batched.getAndSet(0)) : 1;
+                long start = System.nanoTime();
+                try {
+                    return invoke(statement, method, args);
+                } finally {
+                    record(sql, executions, System.nanoTime() - start);
+                }
+            }
+            return switch (name) {
+                case "equals" -> proxy == args[0];
+                case "hashCode" -> System.identityHashCode(proxy);
+                default -> invoke(statement, method, args);
+            };
+        };
+        Class<?> iface = type == CallableStatement.class ? CallableStatement.class
+                : type == PreparedStatement.class ? PreparedStatement.class : Statement.class;
+        return (Statement) Proxy.newProxyInstance(QueryTimingDataSource.class.getClassLoader(),
+                new Class<?>[]{iface}, handler);
+    }
+
+    private void record(String sql, int executions, long nanos) {
+        if (sql == null) {
+            return;
+        }
+        String shape = shape(sql);
+        Timer timer = timers.get(shape);
+        if (timer == null) {
+            timer = timers.size() < maxShapes ? timers.computeIfAbsent(shape, this::register)
+                    : timers.computeIfAbsent(OTHER_SHAPE, this::register);
+        }
+        timer.record(Duration.ofNanos(nanos));
+        if (nanos >= slowThresholdNanos) {
+            log.warn("Slow query ({} ms, {} bind parameters) from {}: {}", nanos / 1_000_000,
+                    bindParameters(sql) * executions, callingRepositoryMethod(), shape);
+        }
+    }
+
+    private Timer register(String shape) {
+        return Timer.builder(TIMER_NAME).tag("shape", shape)
+                .description("JDBC statement execution time by query shape")
+                .register(meterRegistry);
+    }
+
+    static String shape(String sql) {
+        String collapsed = WHITESPACE.matcher(sql.trim()).replaceAll(" ");
+        String rows = VALUES_ROWS.matcher(collapsed).replaceAll("values $1, ...");
+        return IN_LIST.matcher(rows).replaceAll("in (?...)");
+    }
+
+    // Placeholders outside quoted literals.
+    static int bindParameters(String sql) {
+        int count = 0;
+        boolean quoted = false;
+        for (int i = 0; i < sql.length(); i++) {
+            char c = sql.charAt(i);
+            if (c == '\'') {
+                quoted = !quoted;
+            } else if (c == '?' && !quoted) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * The repository method on the current stack, found as the JDK proxy frame Spring Data puts in front of
+     * every repository. Only walked for slow queries, so the fast path pays nothing for it.
+     */
+    static String callingRepositoryMethod() {
+        return StackWalker.getInstance(StackWalker.Option.RETAIN_CLASS_REFERENCE).walk(frames -> frames
+                .filter(frame -> Proxy.isProxyClass(frame.getDeclaringClass())
+                        && Repository.class.isAssignableFrom(frame.getDeclaringClass()))
+                .findFirst()
+                .map(frame -> Arrays.stream(frame.getDeclaringClass().getInterfaces())
+                        .filter(Repository.class::isAssignableFrom)
+                        .findFirst()
+                        .map(Class::getSimpleName)
+                        .orElse("?") + "." + frame.getMethodName())
+                .orElse("unknown"));
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getTargetException();
+        }
+    }
+}
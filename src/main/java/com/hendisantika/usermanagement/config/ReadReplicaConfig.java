@@ -0,0 +1,101 @@
+package com.hendisantika.usermanagement.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Read replicas, enabled by listing their URLs in {@code replica.datasource.urls}. They share the primary's
+ * driver and credentials unless {@code replica.datasource.username}/{@code password} say otherwise.
+ * <p>
+ * The application data source becomes a {@link ReplicaRoutingDataSource} behind a
+ * {@link LazyConnectionDataSourceProxy}. The routing post-processor runs before the unordered ones wrapping the
+ * data source for query timing and connection limiting, so those apply to replica connections as well.
+ */
+@Slf4j
+@Configuration
+@ConditionalOnProperty(prefix = "replica.datasource", name = "urls")
+public class ReadReplicaConfig {
+
+    @Bean
+    public ReplicaDataSources replicaDataSources(DataSourceProperties primary, Environment environment,
+                                                 ObjectProvider<MeterRegistry> meterRegistry) {
+        String[] urls = environment.getRequiredProperty("replica.datasource.urls", String[].class);
+        int poolSize = environment.getProperty("replica.datasource.maximum-pool-size", Integer.class, 10);
+        List<DataSource> dataSources = new ArrayList<>();
+        for (int i = 0; i < urls.length; i++) {
+            HikariDataSource replica = primary.initializeDataSourceBuilder()
+                    .type(HikariDataSource.class)
+                    .url(urls[i].trim())
+                    .username(environment.getProperty("replica.datasource.username", primary.determineUsername()))
+                    .password(environment.getProperty("replica.datasource.password", primary.determinePassword()))
+                    .build();
+            replica.setPoolName("replica-" + i);
+            replica.setMaximumPoolSize(poolSize);
+            replica.setReadOnly(true);
+            meterRegistry.ifAvailable(replica::setMetricRegistry);
+            dataSources.add(replica);
+        }
+        log.info("Routing read-only transactions to {} replica(s)", dataSources.size());
+        return new ReplicaDataSources(dataSources,
+                environment.getRequiredProperty("replica.lag-query"),
+                environment.getProperty("replica.max-lag", Duration.class, Duration.ofSeconds(5)),
+                environment.getProperty("replica.lag-check-interval", Duration.class, Duration.ofSeconds(2)));
+    }
+
+    @Bean
+    public static BeanPostProcessor replicaRoutingDataSourcePostProcessor(Environment environment,
+                                                                           ObjectProvider<ReplicaDataSources> replicas) {
+        return new OrderedBeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (!(bean instanceof DataSource dataSource) || bean instanceof LazyConnectionDataSourceProxy
+                        || bean instanceof ReplicaRoutingDataSource) {
+                    return bean;
+                }
+                Duration window = environment.getProperty("replica.read-your-writes-window", Duration.class,
+                        Duration.ofSeconds(10));
+                return new LazyConnectionDataSourceProxy(
+                        new ReplicaRoutingDataSource(dataSource, replicas.getObject(), window));
+            }
+        };
+    }
+
+    @Bean
+    public MeterBinder replicaLagMetrics(ReplicaDataSources replicas) {
+        return registry -> {
+            for (int i = 0; i < replicas.size(); i++) {
+                int index = i;
+                Gauge.builder("jdbc.replica.lag", replicas, r -> r.getLagSeconds(index))
+                        .tag("replica", String.valueOf(index))
+                        .baseUnit("seconds")
+                        .description("Replication lag measured by the last check, +Inf when it failed")
+                        .register(registry);
+            }
+        };
+    }
+
+    private interface OrderedBeanPostProcessor extends BeanPostProcessor, Ordered {
+
+        @Override
+        default int getOrder() {
+            return Ordered.HIGHEST_PRECEDENCE;
+        }
+    }
+}
@@ -0,0 +1,125 @@
+package com.hendisantika.usermanagement.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * The read replicas behind {@link ReplicaRoutingDataSource}, with how far each one lags behind the primary.
+ * <p>
+ * Every {@code checkInterval} the {@code lagQuery} runs on each replica and must return the lag in seconds. A
+ * replica lagging more than {@code maxLag}, or whose check failed, is skipped until a later check finds it
+ * caught up; a replica not checked yet is skipped too. With no usable replica, reads fall back to the primary.
+ */
+@Slf4j
+public class ReplicaDataSources implements DisposableBean {
+
+    private final List<Replica> replicas;
+    private final String lagQuery;
+    private final double maxLagSeconds;
+    private final AtomicInteger next = new AtomicInteger();
+    private final ScheduledExecutorService scheduler;
+
+    public ReplicaDataSources(List<DataSource> dataSources, String lagQuery, Duration maxLag, Duration checkInterval) {
+        this.replicas = dataSources.stream().map(Replica::new).toList();
+        this.lagQuery = lagQuery;
+        this.maxLagSeconds = maxLag.toMillis() / 1000.0;
+        if (checkInterval.isZero()) {
+            this.scheduler = null;
+        } else {
+            this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "replica-lag-check");
+                thread.setDaemon(true);
+                return thread;
+            });
+            scheduler.scheduleWithFixedDelay(this::checkLag, 0, checkInterval.toMillis(), TimeUnit.MILLISECONDS);
+        }
+    }
+
+    public int size() {
+        return replicas.size();
+    }
+
+    public DataSource get(int index) {
+        return replicas.get(index).dataSource;
+    }
+
+    /**
+     * Lag measured by the last check, infinite when that check failed or has not run yet.
+     */
+    public double getLagSeconds(int index) {
+        return replicas.get(index).lagSeconds;
+    }
+
+    /**
+     * The next replica within the lag limit, round robin, or -1 when none is.
+     */
+    public int pick() {
+        int size = replicas.size();
+        int start = Math.floorMod(next.getAndIncrement(), size);
+        for (int i = 0; i < size; i++) {
+            int index = (start + i) % size;
+            if (replicas.get(index).lagSeconds <= maxLagSeconds) {
+                return index;
+            }
+        }
+        return -1;
+    }
+
+    public void checkLag() {
+        for (int i = 0; i < replicas.size(); i++) {
+            Replica replica = replicas.get(i);
+            double previous = replica.lagSeconds;
+            try (Connection connection = replica.dataSource.getConnection();
+                 Statement statement = connection.createStatement();
+                 ResultSet resultSet = statement.executeQuery(lagQuery)) {
+                replica.lagSeconds = resultSet.next() ? resultSet.getDouble(1) : Double.POSITIVE_INFINITY;
+            } catch (SQLException | RuntimeException e) {
+                replica.lagSeconds = Double.POSITIVE_INFINITY;
+                if (previous != Double.POSITIVE_INFINITY) {
+                    log.warn("Replica {} lag check failed, reading from the primary instead", i, e);
+                }
+                continue;
+            }
+            boolean wasUsable = previous <= maxLagSeconds;
+            boolean usable = replica.lagSeconds <= maxLagSeconds;
+            if (wasUsable != usable) {
+                log.info("Replica {} is {} ({} s behind)", i, usable ? "back in use" : "lagging, skipped",
+                        replica.lagSeconds);
+            }
+        }
+    }
+
+    @Override
+    public void destroy() throws Exception {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+        for (Replica replica : replicas) {
+            if (replica.dataSource instanceof AutoCloseable closeable) {
+                closeable.close();
+            }
+        }
+    }
+
+    private static final class Replica {
+
+        private final DataSource dataSource;
+        private volatile double lagSeconds = Double.POSITIVE_INFINITY;
+
+        private Replica(DataSource dataSource) {
+            this.dataSource = dataSource;
+        }
+    }
+}
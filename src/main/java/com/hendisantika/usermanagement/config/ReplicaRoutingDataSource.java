@@ -0,0 +1,85 @@
+package com.hendisantika.usermanagement.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.servlet.http.HttpSession;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Sends read-only transactions to a replica and everything else to the primary.
+ * <p>
+ * The decision is made when the transaction first needs a connection, so this data source must be used behind
+ * a {@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy}: the JPA transaction manager
+ * asks for the connection before it publishes the transaction's read-only flag.
+ * <p>
+ * Read-your-writes: once a caller (the logged-in user, or the HTTP session of an anonymous one) has started a
+ * read-write transaction, its reads stay on the primary for {@code readYourWritesWindow}, so a page rendered
+ * right after an update never shows the replica's older copy. Work outside a transaction also goes to the
+ * primary.
+ */
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource {
+
+    static final String PRIMARY = "primary";
+
+    private final ReplicaDataSources replicas;
+    private final Cache<String, Boolean> recentWriters;
+
+    public ReplicaRoutingDataSource(DataSource primary, ReplicaDataSources replicas, Duration readYourWritesWindow) {
+        this.replicas = replicas;
+        this.recentWriters = Caffeine.newBuilder()
+                .expireAfterWrite(readYourWritesWindow)
+                .maximumSize(100_000)
+                .build();
+        Map<Object, Object> targets = new HashMap<>();
+        targets.put(PRIMARY, primary);
+        for (int i = 0; i < replicas.size(); i++) {
+            targets.put(i, replicas.get(i));
+        }
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(primary);
+        setLenientFallback(false);
+        afterPropertiesSet();
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!TransactionSynchronizationManager.isActualTransactionActive()) {
+            return PRIMARY;
+        }
+        String caller = caller();
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            if (caller != null) {
+                recentWriters.put(caller, Boolean.TRUE);
+            }
+            return PRIMARY;
+        }
+        if (caller != null && recentWriters.getIfPresent(caller) != null) {
+            return PRIMARY;
+        }
+        int replica = replicas.pick();
+        return replica < 0 ? PRIMARY : replica;
+    }
+
+    private static String caller() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.isAuthenticated()
+                && !(authentication instanceof AnonymousAuthenticationToken)) {
+            return "user:" + authentication.getName();
+        }
+        // getSession(false): routing a read must not open a session.
+        HttpSession session = RequestContextHolder.getRequestAttributes() instanceof ServletRequestAttributes request
+                ? request.getRequest().getSession(false) : null;
+        return session != null ? "session:" + session.getId() : null;
+    }
+}
@@ -0,0 +1,52 @@
+package com.hendisantika.usermanagement.config;
+
+import com.hendisantika.usermanagement.entity.Role;
+import com.hendisantika.usermanagement.service.RoleRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Seeds the default roles once at startup, before the web server accepts requests.
+ * <p>
+ * Idempotent: only missing roles are inserted, and the unique constraint on {@code Role.name} turns a race
+ * between instances starting together into a harmless duplicate-key error.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class RoleBootstrap implements SmartInitializingSingleton {
+
+    private final RoleRegistry roleRegistry;
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        seed();
+    }
+
+    public void seed() {
+        for (Role role : defaultRoles()) {
+            if (roleRegistry.findByName(role.getName()) != null) {
+                continue;
+            }
+            try {
+                roleRegistry.saveAll(List.of(role));
+                log.info("Seeded role {}", role.getName());
+            } catch (DataIntegrityViolationException e) {
+                log.info("Role {} already seeded by another instance", role.getName());
+                roleRegistry.refresh();
+            }
+        }
+    }
+
+    private List<Role> defaultRoles() {
+        return List.of(
+                new Role(null, "SUPER ADMIN", "ROLE SUPER ADMIN"),
+                new Role(null, "ADMIN", "ROLE ADMIN"),
+                new Role(null, "USER", "ROLE USER"));
+    }
+}
@@ -0,0 +1,75 @@
+package com.hendisantika.usermanagement.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+
+/**
+ * Extra guards for {@code spring.threads.virtual.enabled=true}, where Spring Boot serves Tomcat requests and
+ * runs the application task executor (async MVC, streamed exports) on virtual threads.
+ * <p>
+ * Request concurrency is then no longer capped by Tomcat's thread pool, so the shared resources behind it need
+ * their own limits: the connection pool is fronted by a {@link ConnectionLimitingDataSource}, and BCrypt
+ * already runs on the bounded pool of {@link com.hendisantika.usermanagement.service.BoundedPasswordEncoder}.
+ */
+@Slf4j
+@Configuration
+@ConditionalOnThreading(Threading.VIRTUAL)
+public class VirtualThreadConfig {
+
+    @Bean
+    public static BeanPostProcessor connectionLimitingDataSourcePostProcessor(Environment environment) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (!(bean instanceof DataSource dataSource) || bean instanceof ConnectionLimitingDataSource) {
+                    return bean;
+                }
+                // 0 follows the pool: as many permits as connections, and the pool's own connection timeout.
+                int maxConcurrency = environment.getProperty("jdbc.max-concurrency", Integer.class, 0);
+                long timeoutMillis = environment.getProperty("jdbc.acquire-timeout-ms", Long.class, 0L);
+                // Earlier post-processors may already have wrapped the pool (query timing, replica routing).
+                HikariDataSource hikari = hikari(dataSource);
+                if (hikari != null) {
+                    maxConcurrency = maxConcurrency > 0 ? maxConcurrency : hikari.getMaximumPoolSize();
+                    timeoutMillis = timeoutMillis > 0 ? timeoutMillis : hikari.getConnectionTimeout();
+                }
+                maxConcurrency = maxConcurrency > 0 ? maxConcurrency : 10;
+                timeoutMillis = timeoutMillis > 0 ? timeoutMillis : 30_000;
+                log.info("Limiting {} to {} concurrent connections", beanName, maxConcurrency);
+                return new ConnectionLimitingDataSource(dataSource, maxConcurrency, timeoutMillis);
+            }
+        };
+    }
+
+    @Bean
+    public MeterBinder connectionLimitMetrics(DataSource dataSource) throws SQLException {
+        ConnectionLimitingDataSource limited = dataSource.unwrap(ConnectionLimitingDataSource.class);
+        return registry -> {
+            Gauge.builder("jdbc.connections.limit.waiting", limited, ConnectionLimitingDataSource::getWaitingThreads)
+                    .description("Threads parked waiting for a connection permit")
+                    .register(registry);
+            Gauge.builder("jdbc.connections.limit.available", limited, ConnectionLimitingDataSource::getAvailablePermits)
+                    .description("Connection permits currently free")
+                    .register(registry);
+        };
+    }
+
+    private static HikariDataSource hikari(DataSource dataSource) {
+        try {
+            return dataSource.isWrapperFor(HikariDataSource.class) ? dataSource.unwrap(HikariDataSource.class) : null;
+        } catch (SQLException e) {
+            return null;
+        }
+    }
+}
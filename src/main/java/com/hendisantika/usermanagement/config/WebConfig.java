@@ -0,0 +1,23 @@
+package com.hendisantika.usermanagement.config;
+
+import com.hendisantika.usermanagement.entity.Role;
+import com.hendisantika.usermanagement.service.RoleRegistry;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.format.FormatterRegistry;
+import org.springframework.util.StringUtils;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+@Configuration
+@RequiredArgsConstructor
+public class WebConfig implements WebMvcConfigurer {
+
+    private final RoleRegistry roleRegistry;
+
+    @Override
+    public void addFormatters(FormatterRegistry registry) {
+        // Resolve the role ids posted by the user forms from memory rather than one findById per selected role.
+        registry.addConverter(String.class, Role.class,
+                source -> StringUtils.hasText(source) ? roleRegistry.findById(Long.valueOf(source.trim())) : null);
+    }
+}
@@ -1,16 +1,39 @@
 package com.hendisantika.usermanagement.config;
 
+import com.hendisantika.usermanagement.service.LoginThrottle;
+import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.autoconfigure.security.servlet.EndpointRequest;
+import org.springframework.boot.actuate.health.HealthEndpoint;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.annotation.web.configurers.AbstractHttpConfigurer;
+import org.springframework.security.core.userdetails.UserCache;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.web.AuthenticationEntryPoint;
 import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.access.AccessDeniedHandler;
+import org.springframework.security.web.access.AccessDeniedHandlerImpl;
+import org.springframework.security.web.access.RequestMatcherDelegatingAccessDeniedHandler;
+import org.springframework.security.web.authentication.DelegatingAuthenticationEntryPoint;
+import org.springframework.security.web.authentication.LoginUrlAuthenticationEntryPoint;
+import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
+import org.springframework.security.web.authentication.www.BasicAuthenticationFilter;
 import org.springframework.security.web.util.matcher.AntPathRequestMatcher;
+import org.springframework.security.web.util.matcher.RequestMatcher;
+
+import java.io.IOException;
+import java.util.LinkedHashMap;
 
 @Configuration
 @EnableWebSecurity
@@ -20,33 +43,92 @@ public class WebSecurityConfig {
     private static final String[] PUBLIC_LINK = new String[]{
             "/include/**", "/css/**", "/icons/**", "/img/**", "/js/**", "/layer/**", "/static/**"
     };
+    private static final String LOGIN_URL = "/login";
+    private static final String USERNAME_PARAMETER = "username";
+    private static final String API_URL = "/api/**";
+    // Granted authorities are the role descriptions ("ROLE ADMIN"); "ROLE_ADMIN" is what the views check.
+    private static final String[] ADMIN_AUTHORITIES = new String[]{
+            "ROLE_ADMIN", "ROLE ADMIN", "ROLE SUPER ADMIN"
+    };
 
     private final PasswordEncoder bCryptPasswordEncoder;
     private final UserDetailsService userDetailsService;
+    private final UserCache userCache;
+    private final UserDetailsPasswordService userDetailsPasswordService;
+    private final LoginThrottle loginThrottle;
 
     @Bean
     public DaoAuthenticationProvider authenticationProvider() {
         DaoAuthenticationProvider auth = new DaoAuthenticationProvider();
         auth.setUserDetailsService(userDetailsService);
         auth.setPasswordEncoder(bCryptPasswordEncoder);
+        auth.setUserCache(userCache);
+        // Rehashes legacy or lower-cost hashes on successful login.
+        auth.setUserDetailsPasswordService(userDetailsPasswordService);
         return auth;
     }
 
+    /**
+     * Actuator endpoints also accept HTTP Basic, for scrapers that cannot go through the login form. An
+     * existing login session is still honoured, and Basic credentials are checked on every request instead of
+     * opening a session. They count towards the same login throttle as the form, so a guess cannot dodge it by
+     * switching to Basic.
+     * <p>
+     * Anyone logged in may read {@code health}; every other endpoint exposes internals (metrics, query
+     * statistics, which can also be reset) and is for administrators only.
+     */
     @Bean
+    @Order(1)
+    public SecurityFilterChain actuatorFilterChain(HttpSecurity http) throws Exception {
+        http
+                .securityMatcher(EndpointRequest.toAnyEndpoint())
+                .csrf(AbstractHttpConfigurer::disable)
+                .addFilterBefore(LoginThrottleFilter.httpBasic(loginThrottle), BasicAuthenticationFilter.class)
+                .authorizeHttpRequests(authorize -> authorize
+                        .requestMatchers(EndpointRequest.to(HealthEndpoint.class)).authenticated()
+                        .anyRequest().hasAnyAuthority(ADMIN_AUTHORITIES)
+                )
+                // Status only, for the same reason as the entry point below.
+                .exceptionHandling(exceptions -> exceptions.accessDeniedHandler((request, response, e) ->
+                        response.setStatus(HttpStatus.FORBIDDEN.value())))
+                .httpBasic(basic -> basic.authenticationEntryPoint((request, response, e) -> {
+                    // Not sendError(): the error dispatch would go through the form login chain and redirect.
+                    response.setHeader(HttpHeaders.WWW_AUTHENTICATE, "Basic realm=\"actuator\"");
+                    response.setStatus(HttpStatus.UNAUTHORIZED.value());
+                }));
+
+        return http.build();
+    }
+
+    @Bean
+    @Order(2)
     public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
         http
                 .csrf(AbstractHttpConfigurer::disable)
+                // Throttled logins are refused first, before any password is hashed.
+                .addFilterBefore(LoginThrottleFilter.formLogin(loginThrottle, LOGIN_URL, USERNAME_PARAMETER),
+                        UsernamePasswordAuthenticationFilter.class)
+                .addFilterBefore(new PasswordHashingRejectedFilter(), UsernamePasswordAuthenticationFilter.class)
                 .authorizeHttpRequests(authorize -> authorize
                         .requestMatchers(PUBLIC_LINK).permitAll()
-                        .requestMatchers("/", "/index", "/signup", "/login").permitAll()
+                        .requestMatchers("/", "/index", "/signup", "/signup/username-available", LOGIN_URL).permitAll()
+                        // Any user may read the API; creating, changing (roles too) or deleting users is admin-only
+                        .requestMatchers(HttpMethod.GET, API_URL).authenticated()
+                        .requestMatchers(API_URL).hasAnyAuthority(ADMIN_AUTHORITIES)
+                        // A full dump of the users is for admins only, and so is a bulk import, which sets roles
+                        .requestMatchers("/users/export.csv", "/users/export.ndjson").hasAnyAuthority(ADMIN_AUTHORITIES)
+                        .requestMatchers("/users/import").hasAnyAuthority(ADMIN_AUTHORITIES)
                         .anyRequest().authenticated()
                 )
+                .exceptionHandling(exceptions -> exceptions
+                        .authenticationEntryPoint(entryPoint())
+                        .accessDeniedHandler(accessDeniedHandler()))
                 .formLogin(form -> form
-                        .loginPage("/login")
-                        .loginProcessingUrl("/login")
+                        .loginPage(LOGIN_URL)
+                        .loginProcessingUrl(LOGIN_URL)
                         .defaultSuccessUrl("/userForm", true)
                         .failureUrl("/login?error=true")
-                        .usernameParameter("username")
+                        .usernameParameter(USERNAME_PARAMETER)
                         .passwordParameter("password")
                         .permitAll()
                 )
@@ -58,4 +140,27 @@ public class WebSecurityConfig {
 
         return http.build();
     }
+
+    // API clients get a 401 they can act on instead of a redirect to the login page meant for browsers.
+    private static AuthenticationEntryPoint entryPoint() {
+        LinkedHashMap<RequestMatcher, AuthenticationEntryPoint> entryPoints = new LinkedHashMap<>();
+        entryPoints.put(AntPathRequestMatcher.antMatcher(API_URL),
+                (request, response, e) -> writeJson(response, HttpStatus.UNAUTHORIZED, "Authentication required"));
+        DelegatingAuthenticationEntryPoint entryPoint = new DelegatingAuthenticationEntryPoint(entryPoints);
+        entryPoint.setDefaultEntryPoint(new LoginUrlAuthenticationEntryPoint(LOGIN_URL));
+        return entryPoint;
+    }
+
+    private static AccessDeniedHandler accessDeniedHandler() {
+        LinkedHashMap<RequestMatcher, AccessDeniedHandler> handlers = new LinkedHashMap<>();
+        handlers.put(AntPathRequestMatcher.antMatcher(API_URL),
+                (request, response, e) -> writeJson(response, HttpStatus.FORBIDDEN, "Access denied"));
+        return new RequestMatcherDelegatingAccessDeniedHandler(handlers, new AccessDeniedHandlerImpl());
+    }
+
+    private static void writeJson(HttpServletResponse response, HttpStatus status, String message) throws IOException {
+        response.setStatus(status.value());
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.getWriter().write("{\"message\":\"" + message + "\"}");
+    }
 }
\ No newline at end of file
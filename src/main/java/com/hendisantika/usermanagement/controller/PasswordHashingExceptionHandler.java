@@ -0,0 +1,25 @@
+package com.hendisantika.usermanagement.controller;
+
+import com.hendisantika.usermanagement.exception.PasswordHashingRejectedException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+
+/**
+ * Turns a saturated password hashing pool into 503 Service Unavailable for MVC handlers.
+ */
+@ControllerAdvice
+@Slf4j
+public class PasswordHashingExceptionHandler {
+
+    @ExceptionHandler(PasswordHashingRejectedException.class)
+    public ResponseEntity<String> handleRejected(PasswordHashingRejectedException e) {
+        log.warn("Password hashing pool saturated, rejecting request");
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSeconds()))
+                .body(e.getMessage());
+    }
+}
@@ -0,0 +1,192 @@
+package com.hendisantika.usermanagement.controller;
+
+import com.hendisantika.usermanagement.dto.UserPage;
+import com.hendisantika.usermanagement.dto.UserRequest;
+import com.hendisantika.usermanagement.dto.UserResource;
+import com.hendisantika.usermanagement.dto.UserSummary;
+import com.hendisantika.usermanagement.entity.Role;
+import com.hendisantika.usermanagement.entity.User;
+import com.hendisantika.usermanagement.exception.CustomFieldValidationException;
+import com.hendisantika.usermanagement.exception.UsernameOrIdNotFound;
+import com.hendisantika.usermanagement.service.RoleRegistry;
+import com.hendisantika.usermanagement.service.UserService;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.util.DigestUtils;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * JSON resource over users for other services.
+ * <p>
+ * Every user carries a strong ETag built from its version column. A GET with a matching {@code If-None-Match}
+ * is answered 304 after reading only that column; PUT and DELETE with an {@code If-Match} that no longer
+ * matches are refused with 412, so a client never overwrites a change it has not seen.
+ */
+@RestController
+@Slf4j
+@RequiredArgsConstructor
+@RequestMapping("/api/users")
+public class UserApiController {
+
+    private final UserService userService;
+
+    private final RoleRegistry roleRegistry;
+
+    @GetMapping
+    public ResponseEntity<UserPage> listUsers(
+            @RequestParam(name = "sort", defaultValue = "ID") UserPage.SortKey sort,
+            @RequestParam(name = "after", required = false) String after,
+            @RequestParam(name = "before", required = false) String before,
+            @RequestParam(name = "size", defaultValue = "" + UserService.DEFAULT_PAGE_SIZE) int size) {
+        UserPage page = userService.getUserPage(sort, after, before, size);
+        // The MVC return value handler answers 304 itself when If-None-Match matches this tag.
+        return ResponseEntity.ok().eTag(pageTag(page)).body(page);
+    }
+
+    @GetMapping("/{id}")
+    public ResponseEntity<UserResource> getUser(@PathVariable Long id, WebRequest request) throws UsernameOrIdNotFound {
+        if (request.getHeader(HttpHeaders.IF_NONE_MATCH) != null
+                && request.checkNotModified(etag(userService.getUserVersion(id)))) {
+            return null;
+        }
+        User user = userService.getUserWithRolesById(id);
+        return ResponseEntity.ok().eTag(etag(user.getVersion())).body(toResource(user));
+    }
+
+    @PostMapping
+    public ResponseEntity<UserResource> createUser(@Valid @RequestBody UserRequest body) throws Exception {
+        if (body.getPassword() == null || body.getPassword().isBlank()) {
+            throw new CustomFieldValidationException("Password is required", "password");
+        }
+        User user = toUser(body);
+        user.setPassword(body.getPassword());
+        user.setConfirmPassword(body.getPassword());
+        User created = userService.createUser(user);
+        log.info("Created user {} through the API", created.getId());
+        return ResponseEntity.created(URI.create("/api/users/" + created.getId()))
+                .eTag(etag(created.getVersion()))
+                .body(toResource(created));
+    }
+
+    @PutMapping("/{id}")
+    public ResponseEntity<UserResource> updateUser(@PathVariable Long id, @Valid @RequestBody UserRequest body,
+                                                   @RequestHeader(name = HttpHeaders.IF_MATCH, required = false)
+                                                   String ifMatch) throws Exception {
+        User user = toUser(body);
+        user.setId(id);
+        User updated = userService.updateUser(user, expectedVersions(ifMatch));
+        return ResponseEntity.ok().eTag(etag(updated.getVersion())).body(toResource(updated));
+    }
+
+    @DeleteMapping("/{id}")
+    public ResponseEntity<Void> deleteUser(@PathVariable Long id,
+                                           @RequestHeader(name = HttpHeaders.IF_MATCH, required = false)
+                                           String ifMatch) throws UsernameOrIdNotFound {
+        userService.deleteUser(id, expectedVersions(ifMatch));
+        return ResponseEntity.noContent().build();
+    }
+
+    @ExceptionHandler(UsernameOrIdNotFound.class)
+    public ResponseEntity<Map<String, String>> handleNotFound(UsernameOrIdNotFound e) {
+        return ResponseEntity.status(HttpStatus.NOT_FOUND).body(Map.of("message", e.getMessage()));
+    }
+
+    @ExceptionHandler(ObjectOptimisticLockingFailureException.class)
+    public ResponseEntity<Map<String, String>> handleStale(ObjectOptimisticLockingFailureException e) {
+        return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED)
+                .body(Map.of("message", "User was modified since it was read"));
+    }
+
+    @ExceptionHandler(CustomFieldValidationException.class)
+    public ResponseEntity<Map<String, String>> handleInvalid(CustomFieldValidationException e) {
+        HttpStatus status = "username".equals(e.getFieldName()) ? HttpStatus.CONFLICT : HttpStatus.BAD_REQUEST;
+        return ResponseEntity.status(status).body(Map.of("field", e.getFieldName(), "message", e.getMessage()));
+    }
+
+    private User toUser(UserRequest body) throws CustomFieldValidationException {
+        Set<Role> roles = new HashSet<>();
+        for (String name : body.getRoles()) {
+            Role role = roleRegistry.findByName(name);
+            if (role == null) {
+                throw new CustomFieldValidationException("Unknown role " + name, "roles");
+            }
+            roles.add(role);
+        }
+        User user = new User();
+        user.setFirstName(body.getFirstName());
+        user.setLastName(body.getLastName());
+        user.setEmail(body.getEmail());
+        user.setUsername(body.getUsername());
+        user.setRoles(roles);
+        return user;
+    }
+
+    private static UserResource toResource(User user) {
+        List<String> roles = user.getRoles() == null ? List.of()
+                : user.getRoles().stream().map(Role::getName).sorted(Comparator.naturalOrder()).toList();
+        return new UserResource(user.getId(), user.getFirstName(), user.getLastName(), user.getUsername(),
+                user.getEmail(), roles, user.getCreatedOn(), user.getLastModifiedOn(), user.getVersion());
+    }
+
+    static String etag(Long version) {
+        return "\"" + version + "\"";
+    }
+
+    /**
+     * The versions named by an If-Match header, any of which may be current; null when any version will do (no
+     * header or {@code *}). Only strong tags are compared, as RFC 9110 requires for If-Match, so a header naming
+     * none of ours yields an empty set that always fails.
+     */
+    static Set<Long> expectedVersions(String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank() || ifMatch.trim().equals("*")) {
+            return null;
+        }
+        Set<Long> versions = new HashSet<>();
+        for (String tag : ifMatch.split(",")) {
+            String value = tag.trim();
+            if (value.length() > 2 && value.startsWith("\"") && value.endsWith("\"")) {
+                try {
+                    versions.add(Long.valueOf(value.substring(1, value.length() - 1)));
+                } catch (NumberFormatException ignored) {
+                    // Not one of our tags.
+                }
+            }
+        }
+        return versions;
+    }
+
+    // A page changes when any of its rows is modified or the set of rows or cursors changes.
+    private static String pageTag(UserPage page) {
+        StringBuilder key = new StringBuilder().append(page.getSortKey()).append('|').append(page.getSize()).append('|')
+                .append(page.getPreviousCursor()).append('|').append(page.getNextCursor());
+        for (UserSummary user : page.getUsers()) {
+            key.append('|').append(user.getId()).append('@').append(Objects.toString(user.getLastModifiedOn()));
+        }
+        return "\"" + DigestUtils.md5DigestAsHex(key.toString().getBytes(StandardCharsets.UTF_8)) + "\"";
+    }
+}
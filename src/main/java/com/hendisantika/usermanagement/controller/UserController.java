@@ -1,12 +1,15 @@
 package com.hendisantika.usermanagement.controller;
 
 import com.hendisantika.usermanagement.dto.ChangePasswordForm;
+import com.hendisantika.usermanagement.dto.UserPage;
 import com.hendisantika.usermanagement.entity.Role;
 import com.hendisantika.usermanagement.entity.User;
 import com.hendisantika.usermanagement.exception.CustomFieldValidationException;
+import com.hendisantika.usermanagement.exception.PasswordHashingRejectedException;
 import com.hendisantika.usermanagement.exception.UsernameOrIdNotFound;
-import com.hendisantika.usermanagement.repository.RoleRepository;
+import com.hendisantika.usermanagement.service.RoleRegistry;
 import com.hendisantika.usermanagement.service.UserService;
+import io.micrometer.core.annotation.Timed;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -15,7 +18,6 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.ui.ModelMap;
-import org.springframework.util.CollectionUtils;
 import org.springframework.validation.BindingResult;
 import org.springframework.validation.Errors;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -23,14 +25,13 @@ import org.springframework.web.bind.annotation.ModelAttribute;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestParam;
 
-import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
-import static java.util.Arrays.asList;
-
 /**
  * Created by IntelliJ IDEA.
  * Project : user-management
@@ -38,6 +39,7 @@ import static java.util.Arrays.asList;
 @Controller
 @Slf4j
 @RequiredArgsConstructor
+@Timed("user.controller")
 public class UserController {
 
     private final String TAB_FORM = "formTab";
@@ -45,7 +47,7 @@ public class UserController {
 
     private final UserService userService;
 
-    private final RoleRepository roleRepository;
+    private final RoleRegistry roleRegistry;
 
     @GetMapping({"/", "/login"})
     public String index() {
@@ -54,32 +56,8 @@ public class UserController {
 
     @GetMapping("/signup")
     public String signup(Model model) {
-        Role userRole;
-        List<Role> roles = new ArrayList<>();
-        List<Role> userRoleList = (List<Role>) roleRepository.findAll();
-        if (CollectionUtils.isEmpty(userRoleList)) {
-            Role role1 = new Role();
-            role1.setId(1L);
-            role1.setName("SUPER ADMIN");
-            role1.setDescription("ROLE SUPER ADMIN");
-
-            Role role2 = new Role();
-            role2.setId(2L);
-            role2.setName("ADMIN");
-            role2.setDescription("ROLE ADMIN");
-
-            Role role3 = new Role();
-            role3.setId(3L);
-            role3.setName("USER");
-            role3.setDescription("ROLE USER");
-            roleRepository.save(role1);
-            roleRepository.save(role2);
-            roleRepository.save(role3);
-//            userRole = roleRepository.findByName("USER");
-//            roles = asList(userRole);
-        }
-        userRole = roleRepository.findByName("USER");
-        roles = Collections.singletonList(userRole);
+        Role userRole = roleRegistry.findByName("USER");
+        List<Role> roles = Collections.singletonList(userRole);
         log.info("User Role List {}", userRole);
         log.info("Accessing signup page");
         model.addAttribute("signup", true);
@@ -90,7 +68,7 @@ public class UserController {
 
     @PostMapping("/signup")
     public String signupAction(@Valid @ModelAttribute("userForm") User user, BindingResult result, ModelMap model) {
-        Role userRole = roleRepository.findByName("USER");
+        Role userRole = roleRegistry.findByName("USER");
         List<Role> roles = Collections.singletonList(userRole);
         log.info("Creating user");
         model.addAttribute("userForm", user);
@@ -104,6 +82,8 @@ public class UserController {
                 userService.createUser(user);
             } catch (CustomFieldValidationException cfve) {
                 result.rejectValue(cfve.getFieldName(), null, cfve.getMessage());
+            } catch (PasswordHashingRejectedException phre) {
+                throw phre;
             } catch (Exception e) {
                 model.addAttribute("formErrorMessage", e.getMessage());
             }
@@ -111,16 +91,31 @@ public class UserController {
         return index();
     }
 
+    @GetMapping("/signup/username-available")
+    public ResponseEntity<Map<String, Boolean>> usernameAvailable(@RequestParam String username) {
+        return ResponseEntity.ok(Map.of("available", userService.isUsernameAvailable(username)));
+    }
+
     private void baseAttributeForUserForm(Model model, User user, String activeTab) {
+        baseAttributeForUserForm(model, user, activeTab,
+                userService.getUserPage(UserPage.SortKey.ID, null, null, UserService.DEFAULT_PAGE_SIZE));
+    }
+
+    private void baseAttributeForUserForm(Model model, User user, String activeTab, UserPage userPage) {
         model.addAttribute("userForm", user);
-        model.addAttribute("userList", userService.getAllUsers());
-        model.addAttribute("roles", roleRepository.findAll());
+        model.addAttribute("userPage", userPage);
+        model.addAttribute("userList", userPage.getUsers());
+        model.addAttribute("roles", roleRegistry.getRoles());
         model.addAttribute(activeTab, "active");
     }
 
     @GetMapping("/userForm")
-    public String userForm(Model model) {
-        baseAttributeForUserForm(model, new User(), TAB_LIST);
+    public String userForm(Model model,
+                           @RequestParam(name = "sort", defaultValue = "ID") UserPage.SortKey sort,
+                           @RequestParam(name = "after", required = false) String after,
+                           @RequestParam(name = "before", required = false) String before,
+                           @RequestParam(name = "size", defaultValue = "" + UserService.DEFAULT_PAGE_SIZE) int size) {
+        baseAttributeForUserForm(model, new User(), TAB_LIST, userService.getUserPage(sort, after, before, size));
         return "user-form/user-view";
     }
 
@@ -137,6 +132,8 @@ public class UserController {
             } catch (CustomFieldValidationException cfve) {
                 result.rejectValue(cfve.getFieldName(), null, cfve.getMessage());
                 baseAttributeForUserForm(model, user, TAB_FORM);
+            } catch (PasswordHashingRejectedException phre) {
+                throw phre;
             } catch (Exception e) {
                 model.addAttribute("formErrorMessage", e.getMessage());
                 baseAttributeForUserForm(model, user, TAB_FORM);
@@ -149,7 +146,7 @@ public class UserController {
 
     @GetMapping("/editUser/{id}")
     public String getEditUserForm(Model model, @PathVariable(name = "id") Long id) throws Exception {
-        User userToEdit = userService.getUserById(id);
+        User userToEdit = userService.getUserWithRolesById(id);
         log.info("Show  user-edit page.");
         baseAttributeForUserForm(model, userToEdit, TAB_FORM);
         model.addAttribute("editMode", "true");
@@ -194,7 +191,8 @@ public class UserController {
         } catch (UsernameOrIdNotFound uoin) {
             model.addAttribute("listErrorMessage", uoin.getMessage());
         }
-        return userForm(model);
+        baseAttributeForUserForm(model, new User(), TAB_LIST);
+        return "user-form/user-view";
     }
 
 
@@ -210,6 +208,8 @@ public class UserController {
             }
             userService.changePassword(form);
             log.info("Change password successfully.");
+        } catch (PasswordHashingRejectedException phre) {
+            throw phre;
         } catch (Exception e) {
             return ResponseEntity.badRequest().body(e.getMessage());
         }
@@ -0,0 +1,71 @@
+package com.hendisantika.usermanagement.controller;
+
+import com.hendisantika.usermanagement.service.UserExportService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Controller;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Full user exports for compliance. The body is written from a database cursor on an async thread, so
+ * neither the rows nor the response are ever held in memory as a whole.
+ */
+@Controller
+@Slf4j
+@RequiredArgsConstructor
+public class UserExportController {
+
+    static final MediaType TEXT_CSV = new MediaType("text", "csv", StandardCharsets.UTF_8);
+    static final MediaType APPLICATION_NDJSON = MediaType.parseMediaType("application/x-ndjson");
+
+    private final UserExportService userExportService;
+
+    @GetMapping("/users/export.csv")
+    public ResponseEntity<StreamingResponseBody> exportCsv(@RequestParam(defaultValue = "false") boolean gzip) {
+        return export("users.csv", TEXT_CSV, gzip, userExportService::exportCsv);
+    }
+
+    @GetMapping("/users/export.ndjson")
+    public ResponseEntity<StreamingResponseBody> exportNdjson(@RequestParam(defaultValue = "false") boolean gzip) {
+        return export("users.ndjson", APPLICATION_NDJSON, gzip, userExportService::exportNdjson);
+    }
+
+    private ResponseEntity<StreamingResponseBody> export(String filename, MediaType mediaType, boolean gzip,
+                                                         Exporter exporter) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(mediaType);
+        headers.setContentDisposition(ContentDisposition.attachment().filename(filename).build());
+        if (gzip) {
+            headers.set(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        StreamingResponseBody body = out -> {
+            long started = System.nanoTime();
+            long rows;
+            if (gzip) {
+                GZIPOutputStream compressed = new GZIPOutputStream(out, 64 * 1024);
+                rows = exporter.export(compressed);
+                compressed.finish();
+            } else {
+                rows = exporter.export(out);
+            }
+            log.info("Exported {} users to {} in {} ms", rows, filename, (System.nanoTime() - started) / 1_000_000);
+        };
+        return ResponseEntity.ok().headers(headers).body(body);
+    }
+
+    @FunctionalInterface
+    private interface Exporter {
+        long export(OutputStream out) throws IOException;
+    }
+}
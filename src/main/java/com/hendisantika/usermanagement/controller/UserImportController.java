@@ -0,0 +1,50 @@
+package com.hendisantika.usermanagement.controller;
+
+import com.hendisantika.usermanagement.dto.UserImportReport;
+import com.hendisantika.usermanagement.service.UserImportService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Controller;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Locale;
+
+/**
+ * Bulk onboarding: creates every valid user of an uploaded CSV or NDJSON file and reports the rejected rows.
+ */
+@Controller
+@Slf4j
+@RequiredArgsConstructor
+public class UserImportController {
+
+    private final UserImportService userImportService;
+
+    @PostMapping("/users/import")
+    public ResponseEntity<UserImportReport> importUsers(@RequestParam("file") MultipartFile file) throws IOException {
+        UserImportService.Format format = formatOf(file);
+        if (format == null) {
+            return ResponseEntity.badRequest().build();
+        }
+        log.info("Importing users from {} ({} bytes)", file.getOriginalFilename(), file.getSize());
+        try (InputStream in = file.getInputStream()) {
+            return ResponseEntity.ok(userImportService.importUsers(in, format));
+        }
+    }
+
+    private UserImportService.Format formatOf(MultipartFile file) {
+        String name = file.getOriginalFilename() == null ? "" : file.getOriginalFilename().toLowerCase(Locale.ROOT);
+        String type = file.getContentType() == null ? "" : file.getContentType();
+        if (name.endsWith(".csv") || type.startsWith("text/csv")) {
+            return UserImportService.Format.CSV;
+        }
+        if (name.endsWith(".ndjson") || name.endsWith(".jsonl") || type.startsWith("application/x-ndjson")) {
+            return UserImportService.Format.NDJSON;
+        }
+        return null;
+    }
+}
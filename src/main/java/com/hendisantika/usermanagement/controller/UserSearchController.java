@@ -0,0 +1,47 @@
+package com.hendisantika.usermanagement.controller;
+
+import com.hendisantika.usermanagement.dto.UserSummary;
+import com.hendisantika.usermanagement.service.UserSearchIndex;
+import com.hendisantika.usermanagement.service.UserSuggestIndex;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Controller;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * User lookups answered from the in-memory {@link UserSearchIndex} and {@link UserSuggestIndex}.
+ */
+@Controller
+@RequiredArgsConstructor
+public class UserSearchController {
+
+    public static final int DEFAULT_LIMIT = 20;
+
+    private static final Duration SUGGEST_MAX_AGE = Duration.ofSeconds(30);
+
+    private final UserSearchIndex userSearchIndex;
+
+    private final UserSuggestIndex userSuggestIndex;
+
+    @GetMapping("/users/search")
+    public ResponseEntity<List<UserSummary>> search(@RequestParam("q") String query,
+                                                    @RequestParam(defaultValue = "" + DEFAULT_LIMIT) int limit) {
+        return ResponseEntity.ok(userSearchIndex.search(query, limit));
+    }
+
+    /**
+     * Typeahead for usernames and emails. Browsers may reuse an answer for a short while, so retyping or
+     * backspacing over a prefix does not send the same request again.
+     */
+    @GetMapping("/users/suggest")
+    public ResponseEntity<List<String>> suggest(@RequestParam String prefix) {
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.maxAge(SUGGEST_MAX_AGE).cachePrivate())
+                .body(userSuggestIndex.suggest(prefix, UserSuggestIndex.MAX_SUGGESTIONS));
+    }
+}
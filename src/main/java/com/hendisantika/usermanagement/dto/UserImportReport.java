@@ -0,0 +1,37 @@
+package com.hendisantika.usermanagement.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.Value;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Outcome of a bulk import: how many rows were read and created, and why each rejected row was skipped.
+ * Row numbers are 1-based and exclude the CSV header line.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class UserImportReport {
+
+    @Value
+    public static class RowError {
+
+        int row;
+
+        String field;
+
+        String message;
+    }
+
+    private int rows;
+
+    private int imported;
+
+    private long elapsedMillis;
+
+    private List<RowError> errors = new ArrayList<>();
+}
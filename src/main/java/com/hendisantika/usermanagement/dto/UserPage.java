@@ -0,0 +1,33 @@
+package com.hendisantika.usermanagement.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * One keyset page of users, plus the opaque cursors that address its neighbours.
+ * A {@code null} cursor means there is no page in that direction.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class UserPage {
+
+    public enum SortKey {
+        ID,
+        CREATED_ON
+    }
+
+    private List<UserSummary> users;
+
+    private SortKey sortKey;
+
+    // Rows per page actually used, once the requested size has been clamped.
+    private int size;
+
+    private String previousCursor;
+
+    private String nextCursor;
+}
@@ -0,0 +1,39 @@
+package com.hendisantika.usermanagement.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Body of a REST create or update. The password is only read on create; an update replaces every other field,
+ * roles included.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class UserRequest {
+
+    @NotBlank
+    @Size(min = 2, max = 15, message = "Size rules are not followed")
+    private String firstName;
+
+    @NotBlank
+    @Size(min = 2, max = 15, message = "Size rules are not followed")
+    private String lastName;
+
+    @NotBlank
+    private String email;
+
+    @NotBlank
+    private String username;
+
+    private String password;
+
+    @NotEmpty
+    private List<String> roles;
+}
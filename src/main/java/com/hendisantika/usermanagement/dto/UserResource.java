@@ -0,0 +1,31 @@
+package com.hendisantika.usermanagement.dto;
+
+import lombok.Value;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * A user as served by the REST API: no password hash, roles by name.
+ */
+@Value
+public class UserResource {
+
+    Long id;
+
+    String firstName;
+
+    String lastName;
+
+    String username;
+
+    String email;
+
+    List<String> roles;
+
+    LocalDateTime createdOn;
+
+    LocalDateTime lastModifiedOn;
+
+    Long version;
+}
@@ -0,0 +1,29 @@
+package com.hendisantika.usermanagement.dto;
+
+import lombok.Value;
+
+import java.time.LocalDateTime;
+
+/**
+ * Read-only row of the user table view.
+ * <p>
+ * Selected through a constructor expression, so no managed {@code User}, password hash or roles
+ * collection is ever loaded to render, export or search the list.
+ */
+@Value
+public class UserSummary {
+
+    Long id;
+
+    String firstName;
+
+    String lastName;
+
+    String username;
+
+    String email;
+
+    LocalDateTime createdOn;
+
+    LocalDateTime lastModifiedOn;
+}
@@ -0,0 +1,56 @@
+package com.hendisantika.usermanagement.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+
+/**
+ * One mutation of a user: who did what to which user, and when. Rows are written in multi-row inserts by
+ * {@link com.hendisantika.usermanagement.service.AuditTrail}, not through JPA; the mapping declares the table.
+ */
+@Entity
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Table(name = "audit_events", indexes = @Index(name = "idx_audit_events_user_id", columnList = "user_id, occurred_on"))
+public class AuditEvent implements Serializable {
+
+    private static final long serialVersionUID = 4217310925638517602L;
+
+    public enum Action {
+        CREATE, UPDATE, DELETE, CHANGE_PASSWORD
+    }
+
+    // Identity, so the batched inserts can leave the id to the database.
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private LocalDateTime occurredOn;
+
+    @Column(nullable = false)
+    private String actor;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private Action action;
+
+    @Column
+    private Long userId;
+
+    @Column
+    private String username;
+}
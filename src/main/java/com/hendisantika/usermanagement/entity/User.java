@@ -7,7 +7,10 @@ import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
-import org.hibernate.annotations.GenericGenerator;
+import lombok.ToString;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.ColumnDefault;
 import org.springframework.data.annotation.CreatedDate;
 import org.springframework.data.annotation.LastModifiedDate;
 import org.springframework.data.jpa.domain.support.AuditingEntityListener;
@@ -24,16 +27,20 @@ import java.util.Set;
 @Data
 @AllArgsConstructor
 @NoArgsConstructor
-@EqualsAndHashCode
+@EqualsAndHashCode(exclude = "roles")
+@ToString(exclude = {"password", "confirmPassword", "roles"})
 @EntityListeners(AuditingEntityListener.class)
-@Table(name = "users")  // Change the table name here
+@Table(name = "users",  // Change the table name here
+        indexes = @Index(name = "idx_users_created_on_id", columnList = "created_on, id"),
+        uniqueConstraints = @UniqueConstraint(name = "uk_users_username", columnNames = "username"))
 public class User implements Serializable {
 
     private static final long serialVersionUID = 1671417246199538663L;
 
+    // Pooled sequence: one nextval per 50 ids, and unlike identity columns it lets Hibernate batch inserts.
     @Id
-    @GeneratedValue(strategy = GenerationType.AUTO, generator = "native")
-    @GenericGenerator(name = "native", strategy = "native")
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "users_seq")
+    @SequenceGenerator(name = "users_seq", sequenceName = "users_seq", allocationSize = 50)
     private Long id;
 
     @Column
@@ -50,7 +57,7 @@ public class User implements Serializable {
     @NotBlank
     private String email;
 
-    @Column
+    @Column(nullable = false)
     @NotBlank
     private String username;
 
@@ -61,8 +68,10 @@ public class User implements Serializable {
     @Transient
     private String confirmPassword;
 
+    // Cached as role ids per user; the roles themselves then come from the "role" region.
     @Size(min = 1)
     @ManyToMany(fetch = FetchType.LAZY)
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "user-roles")
     @JoinTable(name = "user_roles",
             joinColumns = @JoinColumn(name = "user_id"),
             inverseJoinColumns = @JoinColumn(name = "role_id"))
@@ -73,4 +82,10 @@ public class User implements Serializable {
 
     @LastModifiedDate
     private LocalDateTime lastModifiedOn;
+
+    // Bumped by every update; the REST API serves it as the ETag and checks it on conditional writes.
+    @Version
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private Long version;
 }
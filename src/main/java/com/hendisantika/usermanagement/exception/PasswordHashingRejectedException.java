@@ -0,0 +1,20 @@
+package com.hendisantika.usermanagement.exception;
+
+/**
+ * Thrown when the password hashing pool is saturated and a hash request is refused rather than queued.
+ * Surfaces as HTTP 503 with a {@code Retry-After} header.
+ */
+public class PasswordHashingRejectedException extends RuntimeException {
+    private static final long serialVersionUID = -2870347190312776804L;
+
+    private final long retryAfterSeconds;
+
+    public PasswordHashingRejectedException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public long getRetryAfterSeconds() {
+        return this.retryAfterSeconds;
+    }
+}
@@ -1,6 +1,9 @@
 package com.hendisantika.usermanagement.repository;
 
 import com.hendisantika.usermanagement.entity.Role;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.CrudRepository;
 import org.springframework.stereotype.Repository;
 
@@ -11,5 +14,10 @@ import org.springframework.stereotype.Repository;
 @Repository
 public interface RoleRepository extends CrudRepository<Role, Long> {
 
+    // Results are kept in the "role-by-name" query cache region and invalidated by any write to the role table.
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = "role-by-name")
+    })
     Role findByName(String role);
-}
\ No newline at end of file
+}
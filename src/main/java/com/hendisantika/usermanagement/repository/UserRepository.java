@@ -1,10 +1,23 @@
 package com.hendisantika.usermanagement.repository;
 
+import com.hendisantika.usermanagement.dto.UserSummary;
 import com.hendisantika.usermanagement.entity.User;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.EntityGraph;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 /**
  * Created by IntelliJ IDEA.
@@ -14,4 +27,81 @@ import java.util.Optional;
 public interface UserRepository extends CrudRepository<User, Long> {
 
     Optional<User> findByUsername(String username);
-}
\ No newline at end of file
+
+    /**
+     * Only the write paths load a user by id. Read-write, so the user and the version checked against it come
+     * from the primary rather than a lagging replica.
+     */
+    @Override
+    @Transactional
+    Optional<User> findById(Long id);
+
+    boolean existsByUsername(String username);
+
+    @Query("select u.version from User u where u.id = :id")
+    Optional<Long> findVersionById(@Param("id") Long id);
+
+    @Query("select u.username from User u where u.username in :usernames")
+    List<String> findUsernamesIn(@Param("usernames") Collection<String> usernames);
+
+    /**
+     * Every username, read through a server-side cursor. Must be consumed inside a transaction and closed.
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("select u.username from User u")
+    Stream<String> streamAllUsernames();
+
+    // Role-loading variants: roles come back in the same round trip instead of one lazy query per user.
+
+    @EntityGraph(attributePaths = "roles")
+    Optional<User> findWithRolesByUsername(String username);
+
+    @EntityGraph(attributePaths = "roles")
+    Optional<User> findWithRolesById(Long id);
+
+    // Keyset pagination over UserSummary projections: every page is an index range scan (no OFFSET) and
+    // selects only the listed columns, leaving the persistence context empty.
+
+    String SUMMARY = "select new com.hendisantika.usermanagement.dto.UserSummary(" +
+            "u.id, u.firstName, u.lastName, u.username, u.email, u.createdOn, u.lastModifiedOn) from User u ";
+
+    @Query(SUMMARY + "order by u.id asc")
+    List<UserSummary> findSummariesOrderById(Limit limit);
+
+    @Query(SUMMARY + "where u.id > :id order by u.id asc")
+    List<UserSummary> findSummariesAfterId(@Param("id") Long id, Limit limit);
+
+    @Query(SUMMARY + "where u.id < :id order by u.id desc")
+    List<UserSummary> findSummariesBeforeId(@Param("id") Long id, Limit limit);
+
+    /**
+     * Every user as a projection, read through a server-side cursor for exports. Nothing is attached to the
+     * persistence context, so memory stays flat however many rows are read. Must be consumed inside a
+     * transaction and closed.
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query(SUMMARY + "order by u.id asc")
+    Stream<UserSummary> streamSummaries();
+
+    // On (createdOn, id), id breaks ties between rows created in the same instant. Rows without a createdOn
+    // (created before auditing) come last, by id, whatever the database's default null ordering.
+
+    @Query(SUMMARY + "order by u.createdOn asc nulls last, u.id asc")
+    List<UserSummary> findSummariesOrderByCreatedOn(Limit limit);
+
+    @Query(SUMMARY + "where u.createdOn > :createdOn or (u.createdOn = :createdOn and u.id > :id) " +
+            "or u.createdOn is null order by u.createdOn asc nulls last, u.id asc")
+    List<UserSummary> findSummariesAfterCreatedOn(@Param("createdOn") LocalDateTime createdOn, @Param("id") Long id,
+                                                  Limit limit);
+
+    @Query(SUMMARY + "where u.createdOn < :createdOn or (u.createdOn = :createdOn and u.id < :id) " +
+            "order by u.createdOn desc, u.id desc")
+    List<UserSummary> findSummariesBeforeCreatedOn(@Param("createdOn") LocalDateTime createdOn, @Param("id") Long id,
+                                                   Limit limit);
+
+    @Query(SUMMARY + "where u.createdOn is null and u.id > :id order by u.id asc")
+    List<UserSummary> findSummariesAfterUndated(@Param("id") Long id, Limit limit);
+
+    @Query(SUMMARY + "where u.createdOn is not null or u.id < :id order by u.createdOn desc nulls first, u.id desc")
+    List<UserSummary> findSummariesBeforeUndated(@Param("id") Long id, Limit limit);
+}
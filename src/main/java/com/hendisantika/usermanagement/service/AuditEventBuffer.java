@@ -0,0 +1,116 @@
+package com.hendisantika.usermanagement.service;
+
+import com.hendisantika.usermanagement.entity.AuditEvent;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Bounded lock-free ring buffer of audit events, after Vyukov's bounded MPMC queue: any thread may offer or
+ * poll, and neither side ever blocks or allocates.
+ * <p>
+ * Each slot carries a sequence number telling whose turn it is. A producer claims the slot at {@code tail} with
+ * one CAS when the slot's sequence equals the position, then publishes the event by advancing the sequence; a
+ * consumer does the mirror image at {@code head}. A full buffer makes {@link #offer} return false instead of
+ * waiting, leaving the overflow policy to the caller.
+ */
+public class AuditEventBuffer {
+
+    private final int mask;
+    private final AtomicLongArray sequences;
+    private final AtomicReferenceArray<AuditEvent> events;
+    private final AtomicLong tail = new AtomicLong();
+    private final AtomicLong head = new AtomicLong();
+
+    /**
+     * @param capacity rounded up to a power of two, at least 2
+     */
+    public AuditEventBuffer(int capacity) {
+        int size = capacity <= 2 ? 2 : Integer.highestOneBit(capacity - 1) << 1;
+        this.mask = size - 1;
+        this.sequences = new AtomicLongArray(size);
+        this.events = new AtomicReferenceArray<>(size);
+        for (int i = 0; i < size; i++) {
+            sequences.set(i, i);
+        }
+    }
+
+    public int capacity() {
+        return mask + 1;
+    }
+
+    /**
+     * Approximate while producers and consumers are running.
+     */
+    public int size() {
+        long size = tail.get() - head.get();
+        return (int) Math.max(0, Math.min(size, capacity()));
+    }
+
+    /**
+     * @return false when the buffer is full
+     */
+    public boolean offer(AuditEvent event) {
+        long position = tail.get();
+        while (true) {
+            int index = (int) position & mask;
+            long difference = sequences.get(index) - position;
+            if (difference == 0) {
+                if (tail.compareAndSet(position, position + 1)) {
+                    events.set(index, event);
+                    sequences.set(index, position + 1);
+                    return true;
+                }
+                position = tail.get();
+            } else if (difference < 0) {
+                // The slot still holds the event from one lap ago.
+                return false;
+            } else {
+                // Another producer claimed this position first.
+                position = tail.get();
+            }
+        }
+    }
+
+    /**
+     * @return the oldest event, or null when the buffer is empty
+     */
+    public AuditEvent poll() {
+        long position = head.get();
+        while (true) {
+            int index = (int) position & mask;
+            long difference = sequences.get(index) - (position + 1);
+            if (difference == 0) {
+                if (head.compareAndSet(position, position + 1)) {
+                    AuditEvent event = events.get(index);
+                    events.set(index, null);
+                    // Hands the slot to the producer one lap ahead.
+                    sequences.set(index, position + mask + 1);
+                    return event;
+                }
+                position = head.get();
+            } else if (difference < 0) {
+                return null;
+            } else {
+                position = head.get();
+            }
+        }
+    }
+
+    /**
+     * Moves up to {@code max} events into {@code batch}, oldest first.
+     *
+     * @return the number of events moved
+     */
+    public int drainTo(List<AuditEvent> batch, int max) {
+        int drained = 0;
+        AuditEvent event;
+        while (drained < max && (event = poll()) != null) {
+            batch.add(event);
+            drained++;
+        }
+        return drained;
+    }
+}
@@ -0,0 +1,243 @@
+package com.hendisantika.usermanagement.service;
+
+import com.hendisantika.usermanagement.entity.AuditEvent;
+import com.hendisantika.usermanagement.entity.User;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Audit trail of user mutations, written off the request thread.
+ * <p>
+ * {@link #publish} only stamps the event and offers it to an {@link AuditEventBuffer}; a single background
+ * writer drains the buffer into {@code audit_events}, up to {@code batchSize} rows per multi-row INSERT. The
+ * writer sleeps for {@code flushInterval} whenever it finds less than a full batch, and is woken early once a
+ * full batch is waiting.
+ * <p>
+ * When the buffer is full the {@link OverflowPolicy} decides which event is lost; every loss is counted under
+ * {@code audit.events{result=dropped}}. A failed INSERT is logged and its rows counted as {@code failed}, not
+ * retried, so a database outage cannot back up into the request threads.
+ */
+@Slf4j
+@Component
+public class AuditTrail implements SmartLifecycle {
+
+    public enum OverflowPolicy {
+        /** Lose the event being published. */
+        DROP_NEWEST,
+        /** Make room by discarding the oldest waiting event. */
+        DROP_OLDEST,
+        /** Wait up to {@code audit.block-timeout} for room, then lose the event being published. */
+        BLOCK
+    }
+
+    static final String EVENTS_COUNTER = "audit.events";
+    static final String ANONYMOUS = "anonymous";
+
+    private static final String INSERT = "insert into audit_events (occurred_on, actor, action, user_id, username) values ";
+    private static final String ROW = "(?, ?, ?, ?, ?)";
+    private static final long BLOCK_PAUSE_NANOS = 100_000;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final AuditEventBuffer buffer;
+    private final int batchSize;
+    private final long flushIntervalNanos;
+    private final OverflowPolicy overflowPolicy;
+    private final long blockTimeoutNanos;
+    private final String fullBatchSql;
+
+    private final Counter published;
+    private final Counter dropped;
+    private final Counter written;
+    private final Counter failed;
+    private final Timer lag;
+    private final DistributionSummary batchSizes;
+
+    private volatile boolean running;
+    private volatile Thread writer;
+
+    public AuditTrail(JdbcTemplate jdbcTemplate,
+                      MeterRegistry meterRegistry,
+                      @Value("${audit.buffer-capacity:8192}") int bufferCapacity,
+                      @Value("${audit.batch-size:500}") int batchSize,
+                      @Value("${audit.flush-interval:200ms}") Duration flushInterval,
+                      @Value("${audit.overflow-policy:DROP_NEWEST}") OverflowPolicy overflowPolicy,
+                      @Value("${audit.block-timeout:50ms}") Duration blockTimeout) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.buffer = new AuditEventBuffer(bufferCapacity);
+        this.batchSize = batchSize;
+        this.flushIntervalNanos = flushInterval.toNanos();
+        this.overflowPolicy = overflowPolicy;
+        this.blockTimeoutNanos = blockTimeout.toNanos();
+        this.fullBatchSql = insertSql(batchSize);
+
+        this.published = eventsCounter(meterRegistry, "published");
+        this.dropped = eventsCounter(meterRegistry, "dropped");
+        this.written = eventsCounter(meterRegistry, "written");
+        this.failed = eventsCounter(meterRegistry, "failed");
+        this.lag = Timer.builder("audit.lag")
+                .description("Time from publishing an audit event to its row being inserted")
+                .register(meterRegistry);
+        this.batchSizes = DistributionSummary.builder("audit.batch.size")
+                .description("Rows per audit INSERT")
+                .register(meterRegistry);
+        Gauge.builder("audit.buffer.size", buffer, AuditEventBuffer::size)
+                .description("Audit events waiting for the writer")
+                .register(meterRegistry);
+        Gauge.builder("audit.buffer.capacity", buffer, AuditEventBuffer::capacity)
+                .register(meterRegistry);
+    }
+
+    private static Counter eventsCounter(MeterRegistry meterRegistry, String result) {
+        return Counter.builder(EVENTS_COUNTER).tag("result", result)
+                .description("Audit events by outcome")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Records that the current user applied {@code action} to {@code user}. Never blocks unless the overflow
+     * policy is {@link OverflowPolicy#BLOCK}, and never touches the database.
+     */
+    public void publish(AuditEvent.Action action, User user) {
+        AuditEvent event = new AuditEvent(null, LocalDateTime.now(), actor(), action, user.getId(),
+                user.getUsername());
+        published.increment();
+        if (!buffer.offer(event)) {
+            overflow(event);
+        }
+        if (buffer.size() >= batchSize) {
+            LockSupport.unpark(writer);
+        }
+    }
+
+    private void overflow(AuditEvent event) {
+        switch (overflowPolicy) {
+            case DROP_NEWEST -> dropped.increment();
+            case DROP_OLDEST -> {
+                while (!buffer.offer(event)) {
+                    if (buffer.poll() != null) {
+                        dropped.increment();
+                    }
+                }
+            }
+            case BLOCK -> {
+                long deadline = System.nanoTime() + blockTimeoutNanos;
+                do {
+                    LockSupport.unpark(writer);
+                    LockSupport.parkNanos(this, BLOCK_PAUSE_NANOS);
+                    if (buffer.offer(event)) {
+                        return;
+                    }
+                } while (System.nanoTime() - deadline < 0);
+                dropped.increment();
+            }
+        }
+    }
+
+    private static String actor() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || !authentication.isAuthenticated()
+                || authentication instanceof AnonymousAuthenticationToken) {
+            return ANONYMOUS;
+        }
+        return authentication.getName();
+    }
+
+    private void drain() {
+        List<AuditEvent> batch = new ArrayList<>(batchSize);
+        // Once stopped, keeps going without sleeping until everything published so far is written.
+        while (running || buffer.size() > 0) {
+            int drained = buffer.drainTo(batch, batchSize);
+            if (drained > 0) {
+                write(batch);
+                batch.clear();
+            }
+            if (drained < batchSize && running) {
+                LockSupport.parkNanos(this, flushIntervalNanos);
+            }
+        }
+    }
+
+    private void write(List<AuditEvent> batch) {
+        try {
+            String sql = batch.size() == batchSize ? fullBatchSql : insertSql(batch.size());
+            jdbcTemplate.update(sql, statement -> {
+                int parameter = 1;
+                for (AuditEvent event : batch) {
+                    statement.setTimestamp(parameter++, Timestamp.valueOf(event.getOccurredOn()));
+                    statement.setString(parameter++, event.getActor());
+                    statement.setString(parameter++, event.getAction().name());
+                    statement.setObject(parameter++, event.getUserId());
+                    statement.setString(parameter++, event.getUsername());
+                }
+            });
+        } catch (RuntimeException e) {
+            failed.increment(batch.size());
+            log.warn("Could not write {} audit events, dropping them", batch.size(), e);
+            return;
+        }
+        written.increment(batch.size());
+        batchSizes.record(batch.size());
+        LocalDateTime now = LocalDateTime.now();
+        for (AuditEvent event : batch) {
+            lag.record(Duration.between(event.getOccurredOn(), now));
+        }
+    }
+
+    private static String insertSql(int rows) {
+        StringBuilder sql = new StringBuilder(INSERT.length() + rows * (ROW.length() + 2)).append(INSERT);
+        for (int i = 0; i < rows; i++) {
+            sql.append(i == 0 ? "" : ", ").append(ROW);
+        }
+        return sql.toString();
+    }
+
+    @Override
+    public void start() {
+        running = true;
+        writer = Thread.ofPlatform().name("audit-writer").daemon().start(this::drain);
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        Thread thread = writer;
+        LockSupport.unpark(thread);
+        try {
+            thread.join(Duration.ofSeconds(10));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (buffer.size() > 0) {
+            log.warn("Shut down with {} audit events still unwritten", buffer.size());
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    // Below the web server's phases: stops only once requests, and so new events, have stopped coming in.
+    @Override
+    public int getPhase() {
+        return SmartLifecycle.DEFAULT_PHASE - 4096;
+    }
+}
@@ -0,0 +1,49 @@
+package com.hendisantika.usermanagement.service;
+
+import org.springframework.security.crypto.bcrypt.BCrypt;
+
+import java.time.Duration;
+import java.util.function.IntToLongFunction;
+
+/**
+ * Picks the highest BCrypt cost whose hash time on this node stays within a latency budget.
+ * <p>
+ * Each cost step doubles the work, so a single measurement at the floor cost is enough to extrapolate.
+ * The result is clamped to [minStrength, maxStrength]; a node slower than the budget at the floor still gets the floor.
+ */
+public class BCryptCostCalibrator {
+
+    private static final int SAMPLES = 3;
+
+    private final IntToLongFunction hashNanos;
+
+    public BCryptCostCalibrator() {
+        this(BCryptCostCalibrator::measure);
+    }
+
+    public BCryptCostCalibrator(IntToLongFunction hashNanos) {
+        this.hashNanos = hashNanos;
+    }
+
+    public int calibrate(Duration budget, int minStrength, int maxStrength) {
+        long best = Long.MAX_VALUE;
+        hashNanos.applyAsLong(minStrength); // warm-up, JIT and class loading
+        for (int i = 0; i < SAMPLES; i++) {
+            best = Math.min(best, hashNanos.applyAsLong(minStrength));
+        }
+        int strength = minStrength;
+        long estimate = Math.max(best, 1);
+        while (strength < maxStrength && estimate * 2 <= budget.toNanos()) {
+            estimate *= 2;
+            strength++;
+        }
+        return strength;
+    }
+
+    private static long measure(int strength) {
+        String salt = BCrypt.gensalt(strength);
+        long start = System.nanoTime();
+        BCrypt.hashpw("calibration-password", salt);
+        return System.nanoTime() - start;
+    }
+}
@@ -0,0 +1,105 @@
+package com.hendisantika.usermanagement.service;
+
+import com.hendisantika.usermanagement.exception.PasswordHashingRejectedException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs a CPU-heavy {@link PasswordEncoder} (BCrypt) on a dedicated pool sized to the CPU count.
+ * <p>
+ * Callers still wait for their hash, but at most {@code poolSize} hashes burn CPU at once and at most
+ * {@code queueCapacity} wait for a core. Anything beyond that is refused immediately with a
+ * {@link PasswordHashingRejectedException} so a signup or login spike cannot starve every other request.
+ */
+public class BoundedPasswordEncoder implements PasswordEncoder, DisposableBean {
+
+    public static final String POOL_NAME = "passwordHashing";
+
+    private final PasswordEncoder delegate;
+    private final ThreadPoolExecutor executor;
+    private final long retryAfterSeconds;
+    private final Timer encodeTimer;
+    private final Timer matchesTimer;
+
+    public BoundedPasswordEncoder(PasswordEncoder delegate, int poolSize, int queueCapacity, long retryAfterSeconds,
+                                  MeterRegistry meterRegistry) {
+        int threads = poolSize > 0 ? poolSize : Runtime.getRuntime().availableProcessors();
+        AtomicInteger counter = new AtomicInteger();
+        this.delegate = delegate;
+        this.retryAfterSeconds = retryAfterSeconds;
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "password-hashing-" + counter.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+        // Exports pool size, active threads and queue depth (executor.queued / executor.queue.remaining).
+        ExecutorServiceMetrics.monitor(meterRegistry, executor, POOL_NAME);
+        this.encodeTimer = Timer.builder("password.hash").tag("operation", "encode")
+                .description("Time spent computing a password hash, excluding queueing")
+                .register(meterRegistry);
+        this.matchesTimer = Timer.builder("password.hash").tag("operation", "matches")
+                .description("Time spent computing a password hash, excluding queueing")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return submit(() -> encodeTimer.recordCallable(() -> delegate.encode(rawPassword)));
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return submit(() -> matchesTimer.recordCallable(() -> delegate.matches(rawPassword, encodedPassword)));
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        return delegate.upgradeEncoding(encodedPassword);
+    }
+
+    public int getQueueDepth() {
+        return executor.getQueue().size();
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdownNow();
+    }
+
+    private <T> T submit(Callable<T> task) {
+        Future<T> future;
+        try {
+            future = executor.submit(task);
+        } catch (RejectedExecutionException e) {
+            throw new PasswordHashingRejectedException("Server busy, please retry shortly.", retryAfterSeconds);
+        }
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for password hash", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException("Password hashing failed", cause);
+        }
+    }
+}
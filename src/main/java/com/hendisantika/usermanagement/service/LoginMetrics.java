@@ -0,0 +1,44 @@
+package com.hendisantika.usermanagement.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.context.event.EventListener;
+import org.springframework.security.authentication.event.AbstractAuthenticationFailureEvent;
+import org.springframework.security.authentication.event.AuthenticationSuccessEvent;
+import org.springframework.stereotype.Component;
+
+/**
+ * Counts logins by outcome. {@link UserDetailsServiceImpl} only loads the user, and cached logins skip it
+ * entirely, so the outcome is taken from the events the authentication manager publishes after checking the
+ * password.
+ */
+@Component
+public class LoginMetrics {
+
+    private static final String LOGIN_COUNTER = "user.login";
+
+    private final MeterRegistry meterRegistry;
+    private final Counter successCounter;
+
+    public LoginMetrics(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+        this.successCounter = Counter.builder(LOGIN_COUNTER).tag("result", "success").tag("reason", "none")
+                .description("Login attempts by outcome")
+                .register(meterRegistry);
+    }
+
+    @EventListener
+    public void onSuccess(AuthenticationSuccessEvent event) {
+        successCounter.increment();
+    }
+
+    // The reason is the exception type: BadCredentials (also unknown users), Locked, Disabled, ...
+    @EventListener
+    public void onFailure(AbstractAuthenticationFailureEvent event) {
+        Counter.builder(LOGIN_COUNTER).tag("result", "failure")
+                .tag("reason", event.getException().getClass().getSimpleName())
+                .description("Login attempts by outcome")
+                .register(meterRegistry)
+                .increment();
+    }
+}
@@ -0,0 +1,109 @@
+package com.hendisantika.usermanagement.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Locale;
+
+/**
+ * Failed logins per username and per client IP over a sliding window. Once either count reaches its limit,
+ * {@link #tryAcquire} turns further attempts away before the password is hashed, so a credential-stuffing wave
+ * cannot keep the BCrypt pool busy.
+ * <p>
+ * Every attempt is counted as a failure when it starts, before its password is checked: parallel guesses each
+ * take one unit of the limit, instead of all passing while the first ones are still hashing. The outcome then
+ * settles the count. A successful login takes its IP's unit back and clears its username's count, but not the
+ * IP's, so one valid account does not reopen the door for the rest of a spraying client. An attempt whose
+ * password was never checked is taken back entirely.
+ */
+@Component
+public class LoginThrottle {
+
+    private final SlidingWindowCounters usernameFailures;
+    private final SlidingWindowCounters ipFailures;
+    private final int maxFailuresPerUsername;
+    private final int maxFailuresPerIp;
+    private final long retryAfterSeconds;
+    private final Counter throttledByUsername;
+    private final Counter throttledByIp;
+
+    public LoginThrottle(MeterRegistry meterRegistry,
+                         @Value("${login-throttle.window:5m}") Duration window,
+                         @Value("${login-throttle.max-failures-per-username:5}") int maxFailuresPerUsername,
+                         @Value("${login-throttle.max-failures-per-ip:100}") int maxFailuresPerIp,
+                         @Value("${login-throttle.capacity:65536}") int capacity) {
+        this.usernameFailures = new SlidingWindowCounters(capacity, window, System::currentTimeMillis);
+        this.ipFailures = new SlidingWindowCounters(capacity, window, System::currentTimeMillis);
+        this.maxFailuresPerUsername = maxFailuresPerUsername;
+        this.maxFailuresPerIp = maxFailuresPerIp;
+        this.retryAfterSeconds = Math.max(1, window.toSeconds());
+        // Same meter as LoginMetrics, so throttled attempts show up next to successes and failures.
+        this.throttledByUsername = throttledCounter(meterRegistry, "username");
+        this.throttledByIp = throttledCounter(meterRegistry, "ip");
+    }
+
+    private static Counter throttledCounter(MeterRegistry meterRegistry, String reason) {
+        return Counter.builder("user.login").tag("result", "throttled").tag("reason", reason)
+                .description("Login attempts by outcome")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Counts a login attempt that is about to check a password. Its outcome must then be reported to
+     * {@link #succeeded} or {@link #release}; a failed attempt simply stays counted.
+     *
+     * @param username as typed in the login form
+     * @param ip       client address, or null
+     * @return false, with nothing counted, when either already has too many recent failures
+     */
+    public boolean tryAcquire(String username, String ip) {
+        if (usernameFailures.increment(normalize(username)) > maxFailuresPerUsername) {
+            usernameFailures.decrement(normalize(username));
+            throttledByUsername.increment();
+            return false;
+        }
+        if (ip != null && ipFailures.increment(ip) > maxFailuresPerIp) {
+            ipFailures.decrement(ip);
+            usernameFailures.decrement(normalize(username));
+            throttledByIp.increment();
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * The attempt counted by {@link #tryAcquire} logged in.
+     */
+    public void succeeded(String username, String ip) {
+        usernameFailures.reset(normalize(username));
+        if (ip != null) {
+            ipFailures.decrement(ip);
+        }
+    }
+
+    /**
+     * The attempt counted by {@link #tryAcquire} ended before its password was checked, e.g. refused by a full
+     * hashing pool: it was no guess.
+     */
+    public void release(String username, String ip) {
+        usernameFailures.decrement(normalize(username));
+        if (ip != null) {
+            ipFailures.decrement(ip);
+        }
+    }
+
+    /**
+     * Upper bound on how long a throttled client has to wait: one window.
+     */
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+
+    // Case variants of a name share one count, or an attacker would get five guesses per spelling.
+    private static String normalize(String username) {
+        return username.trim().toLowerCase(Locale.ROOT);
+    }
+}
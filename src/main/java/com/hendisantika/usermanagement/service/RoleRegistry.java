@@ -0,0 +1,70 @@
+package com.hendisantika.usermanagement.service;
+
+import com.hendisantika.usermanagement.entity.Role;
+import com.hendisantika.usermanagement.repository.RoleRepository;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * In-memory view of the role table.
+ * <p>
+ * Roles are read on nearly every page but almost never written, so the registry keeps an immutable snapshot
+ * and swaps in a new one whenever roles are saved through it. Readers never lock and lookups are plain map gets.
+ */
+@Service
+@RequiredArgsConstructor
+public class RoleRegistry {
+
+    private final RoleRepository roleRepository;
+
+    private volatile Snapshot snapshot = Snapshot.of(List.of());
+
+    @PostConstruct
+    public void refresh() {
+        List<Role> roles = new ArrayList<>();
+        roleRepository.findAll().forEach(roles::add);
+        snapshot = Snapshot.of(roles);
+    }
+
+    public List<Role> getRoles() {
+        return snapshot.roles();
+    }
+
+    public Role findById(Long id) {
+        return snapshot.byId().get(id);
+    }
+
+    public Role findByName(String name) {
+        return snapshot.byName().get(name);
+    }
+
+    /**
+     * Write path for roles: persists them, then publishes a fresh snapshot.
+     */
+    public synchronized List<Role> saveAll(Collection<Role> roles) {
+        List<Role> saved = new ArrayList<>();
+        roleRepository.saveAll(roles).forEach(saved::add);
+        refresh();
+        return saved;
+    }
+
+    private record Snapshot(List<Role> roles, Map<Long, Role> byId, Map<String, Role> byName) {
+
+        static Snapshot of(List<Role> roles) {
+            Map<Long, Role> byId = new HashMap<>();
+            Map<String, Role> byName = new HashMap<>();
+            for (Role role : roles) {
+                byId.put(role.getId(), role);
+                byName.put(role.getName(), role);
+            }
+            return new Snapshot(List.copyOf(roles), Map.copyOf(byId), Map.copyOf(byName));
+        }
+    }
+}
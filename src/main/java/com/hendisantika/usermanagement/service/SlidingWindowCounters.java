@@ -0,0 +1,180 @@
+package com.hendisantika.usermanagement.service;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.LongSupplier;
+
+/**
+ * Event counts per key over a sliding window, in a fixed amount of memory and without locks.
+ * <p>
+ * The table is split into stripes of {@value #WAYS} slots; a key may only live in the stripe its hash selects,
+ * so threads counting different keys rarely touch the same slot. A slot holds an immutable {@link Window},
+ * replaced by CAS on every increment. When a new key finds its stripe full, it evicts the slot with the lowest
+ * current count, which is where expired windows end up: memory stays at {@code capacity} slots whatever the
+ * number of distinct keys.
+ * <p>
+ * The sliding count is the usual two-window approximation: the current fixed window's count plus the previous
+ * one's, weighted by how much of it still overlaps the sliding window. Keys are stored as a 64-bit hash seeded
+ * per instance, so arbitrary client input is never retained and collisions cannot be chosen from outside.
+ */
+public class SlidingWindowCounters {
+
+    private static final int WAYS = 4;
+
+    private final AtomicReferenceArray<Window> slots;
+    private final int stripeMask;
+    private final long windowMillis;
+    private final LongSupplier clock;
+    private final long seed = ThreadLocalRandom.current().nextLong();
+
+    /**
+     * @param capacity number of keys tracked at once, rounded up to a power of two
+     * @param clock    current time in milliseconds
+     */
+    public SlidingWindowCounters(int capacity, Duration window, LongSupplier clock) {
+        int stripes = Math.max(1, capacity / WAYS);
+        stripes = Integer.bitCount(stripes) == 1 ? stripes : Integer.highestOneBit(stripes) << 1;
+        this.slots = new AtomicReferenceArray<>(stripes * WAYS);
+        this.stripeMask = stripes - 1;
+        this.windowMillis = Math.max(1, window.toMillis());
+        this.clock = clock;
+    }
+
+    public int capacity() {
+        return slots.length();
+    }
+
+    /**
+     * Counts one event for {@code key}.
+     *
+     * @return the sliding count including this event
+     */
+    public double increment(String key) {
+        long fingerprint = fingerprint(key);
+        int base = stripe(fingerprint);
+        while (true) {
+            long now = clock.getAsLong();
+            int slot = find(base, fingerprint);
+            if (slot < 0) {
+                slot = victim(base, now);
+            }
+            Window current = slots.get(slot);
+            Window next = current != null && current.fingerprint == fingerprint
+                    ? current.add(now / windowMillis)
+                    : new Window(fingerprint, now / windowMillis, 1, 0);
+            if (slots.compareAndSet(slot, current, next)) {
+                return next.estimate(now, windowMillis);
+            }
+        }
+    }
+
+    /**
+     * Takes back one event counted for {@code key}, the latest still in the window. Does nothing once the key
+     * has been evicted or its events have left the window.
+     */
+    public void decrement(String key) {
+        long fingerprint = fingerprint(key);
+        int slot = find(stripe(fingerprint), fingerprint);
+        while (slot >= 0) {
+            Window current = slots.get(slot);
+            if (current == null || current.fingerprint != fingerprint
+                    || slots.compareAndSet(slot, current, current.remove(clock.getAsLong() / windowMillis))) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * @return the sliding count for {@code key}, 0 when it is not tracked
+     */
+    public double estimate(String key) {
+        long fingerprint = fingerprint(key);
+        int slot = find(stripe(fingerprint), fingerprint);
+        Window window = slot < 0 ? null : slots.get(slot);
+        return window == null || window.fingerprint != fingerprint ? 0 : window.estimate(clock.getAsLong(), windowMillis);
+    }
+
+    public void reset(String key) {
+        long fingerprint = fingerprint(key);
+        int slot = find(stripe(fingerprint), fingerprint);
+        if (slot >= 0) {
+            Window window = slots.get(slot);
+            // Lost to a concurrent increment or eviction: that count stands.
+            if (window != null && window.fingerprint == fingerprint) {
+                slots.compareAndSet(slot, window, null);
+            }
+        }
+    }
+
+    private int find(int base, long fingerprint) {
+        for (int i = base; i < base + WAYS; i++) {
+            Window window = slots.get(i);
+            if (window != null && window.fingerprint == fingerprint) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    // A free slot, or else the one with the lowest count. Deterministic, so racing inserts of one key pick the
+    // same slot and all but one retry onto the winner's window.
+    private int victim(int base, long now) {
+        int victim = base;
+        double lowest = Double.MAX_VALUE;
+        for (int i = base; i < base + WAYS; i++) {
+            Window window = slots.get(i);
+            if (window == null) {
+                return i;
+            }
+            double estimate = window.estimate(now, windowMillis);
+            if (estimate < lowest) {
+                lowest = estimate;
+                victim = i;
+            }
+        }
+        return victim;
+    }
+
+    private int stripe(long fingerprint) {
+        return ((int) (fingerprint >>> 32) & stripeMask) * WAYS;
+    }
+
+    private long fingerprint(String key) {
+        // FNV-1a over the chars, then the SplitMix64 finalizer to spread the bits.
+        long hash = seed;
+        for (int i = 0; i < key.length(); i++) {
+            hash = (hash ^ key.charAt(i)) * 0x100000001b3L;
+        }
+        hash = (hash ^ (hash >>> 30)) * 0xbf58476d1ce4e5b9L;
+        hash = (hash ^ (hash >>> 27)) * 0x94d049bb133111ebL;
+        return hash ^ (hash >>> 31);
+    }
+
+    private record Window(long fingerprint, long index, int current, int previous) {
+
+        Window add(long now) {
+            if (index == now) {
+                return new Window(fingerprint, now, current + 1, previous);
+            }
+            return new Window(fingerprint, now, 1, index == now - 1 ? current : 0);
+        }
+
+        Window remove(long now) {
+            Window shifted = index == now ? this : new Window(fingerprint, now, 0, index == now - 1 ? current : 0);
+            if (shifted.current > 0) {
+                return new Window(fingerprint, now, shifted.current - 1, shifted.previous);
+            }
+            return new Window(fingerprint, now, 0, Math.max(0, shifted.previous - 1));
+        }
+
+        double estimate(long nowMillis, long windowMillis) {
+            long now = nowMillis / windowMillis;
+            double remaining = 1 - (double) (nowMillis % windowMillis) / windowMillis;
+            if (index == now) {
+                return current + previous * remaining;
+            }
+            return index == now - 1 ? current * remaining : 0;
+        }
+    }
+}
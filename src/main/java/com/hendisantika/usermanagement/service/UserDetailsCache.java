@@ -0,0 +1,65 @@
+package com.hendisantika.usermanagement.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserCache;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Bounded, TTL-evicting cache of the {@link UserDetails} built by {@link UserDetailsServiceImpl}, keyed by username.
+ * <p>
+ * Entries are copied on the way in and out: the provider hands the returned instance to the authentication,
+ * whose credentials are erased after login, and that must not blank the password held in the cache.
+ */
+@Component
+public class UserDetailsCache implements UserCache {
+
+    public static final String CACHE_NAME = "userDetails";
+
+    private final Cache<String, UserDetails> cache;
+
+    public UserDetailsCache(@Value("${user-details.cache.maximum-size:10000}") long maximumSize,
+                            @Value("${user-details.cache.expire-after-write:5m}") Duration expireAfterWrite,
+                            MeterRegistry meterRegistry) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(expireAfterWrite)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+    }
+
+    @Override
+    public UserDetails getUserFromCache(String username) {
+        UserDetails cached = cache.getIfPresent(username);
+        return cached == null ? null : copy(cached);
+    }
+
+    @Override
+    public void putUserInCache(UserDetails user) {
+        cache.put(user.getUsername(), copy(user));
+    }
+
+    @Override
+    public void removeUserFromCache(String username) {
+        if (username != null) {
+            cache.invalidate(username);
+        }
+    }
+
+    public CacheStats stats() {
+        return cache.stats();
+    }
+
+    private UserDetails copy(UserDetails user) {
+        return User.withUserDetails(user).build();
+    }
+}
@@ -6,12 +6,15 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserCache;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
 import java.util.HashSet;
 import java.util.Set;
 
@@ -21,23 +24,45 @@ import java.util.Set;
  */
 @Service
 @Transactional
-public class UserDetailsServiceImpl implements UserDetailsService {
+public class UserDetailsServiceImpl implements UserDetailsService, UserDetailsPasswordService {
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private UserCache userCache;
+
+    // Deliberately not read-only: read-only transactions may go to a lagging replica, and a login must see the
+    // current hash and roles (the result is then cached as well).
     @Override
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
 
         com.hendisantika.usermanagement.entity.User appUser =
-                userRepository.findByUsername(username).orElseThrow(() -> new UsernameNotFoundException("Login " +
+                userRepository.findWithRolesByUsername(username).orElseThrow(() -> new UsernameNotFoundException("Login " +
                         "Username Invalid."));
 
+        return new User(username, appUser.getPassword(), authorities(appUser.getRoles()));
+    }
+
+    static Set<GrantedAuthority> authorities(Collection<Role> roles) {
         Set<GrantedAuthority> grantList = new HashSet<GrantedAuthority>();
-        for (Role role : appUser.getRoles()) {
+        for (Role role : roles) {
             GrantedAuthority grantedAuthority = new SimpleGrantedAuthority(role.getDescription());
             grantList.add(grantedAuthority);
         }
+        return grantList;
+    }
 
-        return new User(username, appUser.getPassword(), grantList);
+    /**
+     * Called by DaoAuthenticationProvider after a successful login whose stored hash uses an outdated encoding
+     * or BCrypt cost; {@code newPassword} is the presented password already re-encoded at the current cost.
+     */
+    @Override
+    public UserDetails updatePassword(UserDetails user, String newPassword) {
+        userRepository.findByUsername(user.getUsername()).ifPresent(appUser -> {
+            appUser.setPassword(newPassword);
+            userRepository.save(appUser);
+        });
+        userCache.removeUserFromCache(user.getUsername());
+        return User.withUserDetails(user).password(newPassword).build();
     }
 }
@@ -0,0 +1,105 @@
+package com.hendisantika.usermanagement.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.hendisantika.usermanagement.dto.UserSummary;
+import com.hendisantika.usermanagement.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * Writes every user to an output stream, row by row, straight from a database cursor. Rows are
+ * {@link UserSummary} projections so passwords are never exported and no entity is kept in memory.
+ */
+@Service
+public class UserExportService {
+
+    public static final String CSV_HEADER = "id,firstName,lastName,username,email,createdOn,lastModifiedOn";
+
+    @Autowired
+    private UserRepository repository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    /**
+     * RFC 4180 CSV with a header line. The stream is flushed but not closed.
+     */
+    @Transactional(readOnly = true)
+    public long exportCsv(OutputStream out) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        writer.write(CSV_HEADER);
+        writer.write("\r\n");
+        long count = 0;
+        try (Stream<UserSummary> users = repository.streamSummaries()) {
+            Iterator<UserSummary> it = users.iterator();
+            while (it.hasNext()) {
+                UserSummary user = it.next();
+                writer.write(String.valueOf(user.getId()));
+                writeCsvField(writer, user.getFirstName());
+                writeCsvField(writer, user.getLastName());
+                writeCsvField(writer, user.getUsername());
+                writeCsvField(writer, user.getEmail());
+                writeCsvField(writer, user.getCreatedOn());
+                writeCsvField(writer, user.getLastModifiedOn());
+                writer.write("\r\n");
+                count++;
+            }
+        }
+        writer.flush();
+        return count;
+    }
+
+    /**
+     * One JSON object per line. The stream is flushed but not closed.
+     */
+    @Transactional(readOnly = true)
+    public long exportNdjson(OutputStream out) throws IOException {
+        // Without the per-value flush the generator's own buffer batches rows into large writes.
+        ObjectWriter rowWriter = objectMapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        long count = 0;
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(out);
+             Stream<UserSummary> users = repository.streamSummaries()) {
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            generator.setRootValueSeparator(new SerializedString("\n"));
+            Iterator<UserSummary> it = users.iterator();
+            while (it.hasNext()) {
+                rowWriter.writeValue(generator, it.next());
+                count++;
+            }
+            if (count > 0) {
+                generator.writeRaw('\n');
+            }
+        }
+        out.flush();
+        return count;
+    }
+
+    private void writeCsvField(Writer writer, Object value) throws IOException {
+        writer.write(',');
+        if (value == null) {
+            return;
+        }
+        String text = value.toString();
+        if (text.indexOf(',') < 0 && text.indexOf('"') < 0 && text.indexOf('\n') < 0 && text.indexOf('\r') < 0) {
+            writer.write(text);
+            return;
+        }
+        writer.write('"');
+        writer.write(text.replace("\"", "\"\""));
+        writer.write('"');
+    }
+}
@@ -0,0 +1,442 @@
+package com.hendisantika.usermanagement.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hendisantika.usermanagement.dto.UserImportReport;
+import com.hendisantika.usermanagement.entity.AuditEvent;
+import com.hendisantika.usermanagement.entity.Role;
+import com.hendisantika.usermanagement.entity.User;
+import com.hendisantika.usermanagement.exception.PasswordHashingRejectedException;
+import com.hendisantika.usermanagement.repository.UserRepository;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.util.Streamable;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.regex.Pattern;
+
+/**
+ * Bulk user creation from CSV or NDJSON uploads, in stages applied to batches of rows: parse, validate
+ * against the {@link User} bean constraints, reject taken usernames with one query per batch, hash passwords
+ * in parallel, then insert users and their role links with batched JDBC statements.
+ * <p>
+ * Invalid rows are reported and skipped; they never fail the rest of the import. So are the rows of a batch
+ * whose passwords the saturated hashing pool refused: earlier batches stay imported, later ones are still tried,
+ * and the report lists exactly the rows to upload again. Every created user is published to the {@link AuditTrail}.
+ */
+@Slf4j
+@Service
+public class UserImportService {
+
+    public enum Format {
+        CSV,
+        NDJSON
+    }
+
+    static final String DEFAULT_ROLE = "USER";
+
+    private static final String ROLE_SEPARATOR = "|";
+
+    // Already-encoded hashes (e.g. migrated from another system) are stored as they are.
+    private static final Pattern ENCODED_BCRYPT = Pattern.compile("^\\{bcrypt}\\$2[aby]?\\$\\d{2}\\$[./A-Za-z0-9]{53}$");
+
+    @Autowired
+    private UserRepository repository;
+
+    @Autowired
+    private RoleRegistry roleRegistry;
+
+    @Autowired
+    private PasswordEncoder bCryptPasswordEncoder;
+
+    @Autowired
+    private UsernameBloomFilter usernameFilter;
+
+    @Autowired
+    private UserSearchIndex searchIndex;
+
+    @Autowired
+    private UserSuggestIndex suggestIndex;
+
+    @Autowired
+    private AuditTrail auditTrail;
+
+    @Autowired
+    private Validator validator;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${user-import.batch-size:500}")
+    private int batchSize;
+
+    @Value("${user-import.hash-parallelism:0}")
+    private int hashParallelism;
+
+    private record Pending(int row, User user) {
+    }
+
+    public UserImportReport importUsers(InputStream in, Format format) throws IOException {
+        long started = System.nanoTime();
+        UserImportReport report = new UserImportReport();
+        Set<String> seen = new HashSet<>();
+        List<Pending> batch = new ArrayList<>(batchSize);
+
+        BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+        Iterator<Map<String, String>> rows = format == Format.CSV ? csvRows(reader, report) : ndjsonRows(reader, report);
+        while (rows.hasNext()) {
+            Map<String, String> fields = rows.next();
+            int row = report.getRows();
+            if (fields == null) {
+                continue;
+            }
+            User user = toUser(row, fields, report);
+            if (user == null) {
+                continue;
+            }
+            if (!seen.add(user.getUsername())) {
+                reject(report, row, "username", "Duplicate username in file");
+                continue;
+            }
+            batch.add(new Pending(row, user));
+            if (batch.size() == batchSize) {
+                writeBatch(batch, report);
+                batch.clear();
+            }
+        }
+        if (!batch.isEmpty()) {
+            writeBatch(batch, report);
+        }
+
+        report.setElapsedMillis((System.nanoTime() - started) / 1_000_000);
+        log.info("Imported {} of {} users in {} ms", report.getImported(), report.getRows(), report.getElapsedMillis());
+        return report;
+    }
+
+    private void writeBatch(List<Pending> batch, UserImportReport report) {
+        List<Pending> fresh = withoutTakenUsernames(batch, report);
+        if (fresh.isEmpty()) {
+            return;
+        }
+        try {
+            hashPasswords(fresh);
+        } catch (PasswordHashingRejectedException e) {
+            log.warn("Password hashing pool saturated, skipping a batch of {} imported users", fresh.size());
+            fresh.forEach(p -> reject(report, p.row(), null, "Not imported: server busy, retry this row"));
+            return;
+        }
+        try {
+            List<User> saved = transactionTemplate.execute(status -> insert(fresh));
+            saved.forEach(user -> usernameFilter.put(user.getUsername()));
+            searchIndex.putAll(saved);
+            suggestIndex.putAll(saved);
+            saved.forEach(user -> auditTrail.publish(AuditEvent.Action.CREATE, user));
+            report.setImported(report.getImported() + saved.size());
+        } catch (DataIntegrityViolationException e) {
+            // A concurrent signup took one of the names; retry row by row to isolate it.
+            log.debug("Batch insert failed, retrying row by row", e);
+            fresh.forEach(p -> insertOne(p, report));
+        }
+    }
+
+    private List<Pending> withoutTakenUsernames(List<Pending> batch, UserImportReport report) {
+        List<String> maybeTaken = batch.stream()
+                .map(p -> p.user().getUsername())
+                .filter(usernameFilter::mightContain)
+                .toList();
+        Set<String> taken = maybeTaken.isEmpty() ? Set.of() : new HashSet<>(repository.findUsernamesIn(maybeTaken));
+        List<Pending> fresh = new ArrayList<>(batch.size());
+        for (Pending p : batch) {
+            if (taken.contains(p.user().getUsername())) {
+                reject(report, p.row(), "username", "Username not available");
+            } else {
+                fresh.add(p);
+            }
+        }
+        return fresh;
+    }
+
+    private void insertOne(Pending pending, UserImportReport report) {
+        // The rolled-back flush left its id and version on the entity, which would turn the retry into a merge
+        // under yet another id.
+        pending.user().setId(null);
+        pending.user().setVersion(null);
+        try {
+            User saved = transactionTemplate.execute(status -> insert(List.of(pending))).get(0);
+            usernameFilter.put(saved.getUsername());
+            searchIndex.put(saved);
+            suggestIndex.put(saved);
+            auditTrail.publish(AuditEvent.Action.CREATE, saved);
+            report.setImported(report.getImported() + 1);
+        } catch (DataIntegrityViolationException e) {
+            if (UserService.isUsernameConflict(e)) {
+                reject(report, pending.row(), "username", "Username not available");
+            } else {
+                reject(report, pending.row(), null, e.getMostSpecificCause().getMessage());
+            }
+        }
+    }
+
+    /**
+     * Hashes on {@code hash-parallelism} threads at once (default: one per CPU). The calls still go through
+     * the shared bounded hashing pool, so logins keep their share of it during a large import; when that pool
+     * refuses a hash, the {@link PasswordHashingRejectedException} is rethrown once the other slices are done.
+     */
+    private void hashPasswords(List<Pending> rows) {
+        List<User> toHash = rows.stream()
+                .map(Pending::user)
+                .filter(u -> !ENCODED_BCRYPT.matcher(u.getPassword()).matches())
+                .toList();
+        if (toHash.isEmpty()) {
+            return;
+        }
+        int parallelism = hashParallelism > 0 ? hashParallelism : Runtime.getRuntime().availableProcessors();
+        int slice = (toHash.size() + parallelism - 1) / parallelism;
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int from = 0; from < toHash.size(); from += slice) {
+                List<User> users = toHash.subList(from, Math.min(from + slice, toHash.size()));
+                futures.add(executor.submit(() ->
+                        users.forEach(u -> u.setPassword(bCryptPasswordEncoder.encode(u.getPassword())))));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException re) {
+                throw re;
+            }
+            throw new IllegalStateException(e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while hashing imported passwords", e);
+        }
+    }
+
+    private List<User> insert(List<Pending> rows) {
+        // Pooled ids and hibernate.jdbc.batch_size turn this into batched inserts on users and user_roles.
+        return Streamable.of(repository.saveAll(rows.stream().map(Pending::user).toList())).toList();
+    }
+
+    private User toUser(int row, Map<String, String> fields, UserImportReport report) {
+        User user = new User();
+        user.setFirstName(fields.get("firstName"));
+        user.setLastName(fields.get("lastName"));
+        user.setEmail(fields.get("email"));
+        user.setUsername(fields.get("username"));
+        user.setPassword(fields.get("password"));
+
+        boolean valid = true;
+        Set<Role> roles = new LinkedHashSet<>();
+        String roleNames = fields.getOrDefault("roles", "");
+        for (String name : (roleNames.isBlank() ? DEFAULT_ROLE : roleNames).split(Pattern.quote(ROLE_SEPARATOR))) {
+            Role role = roleRegistry.findByName(name.trim());
+            if (role == null) {
+                reject(report, row, "roles", "Unknown role: " + name.trim());
+                valid = false;
+            } else {
+                roles.add(role);
+            }
+        }
+        user.setRoles(roles);
+
+        for (ConstraintViolation<User> violation : validator.validate(user)) {
+            reject(report, row, violation.getPropertyPath().toString(), violation.getMessage());
+            valid = false;
+        }
+        if (valid && user.getPassword().startsWith("{bcrypt}") && !ENCODED_BCRYPT.matcher(user.getPassword()).matches()) {
+            reject(report, row, "password", "Malformed bcrypt hash");
+            valid = false;
+        }
+        return valid ? user : null;
+    }
+
+    private void reject(UserImportReport report, int row, String field, String message) {
+        report.getErrors().add(new UserImportReport.RowError(row, field, message));
+    }
+
+    /**
+     * Rows of an RFC 4180 CSV whose first line names the columns. A row with the wrong number of fields is
+     * reported and yields {@code null}; blank lines are skipped.
+     */
+    private Iterator<Map<String, String>> csvRows(BufferedReader reader, UserImportReport report) throws IOException {
+        List<String> header = readCsvRecord(reader);
+        if (header == null) {
+            return List.<Map<String, String>>of().iterator();
+        }
+        List<String> columns = header.stream().map(column -> column.replace("\uFEFF", "").trim()).toList();
+        return new RowIterator() {
+            @Override
+            protected Map<String, String> read() throws IOException {
+                List<String> record;
+                do {
+                    record = readCsvRecord(reader);
+                } while (record != null && record.size() == 1 && record.get(0).isBlank());
+                if (record == null) {
+                    return END;
+                }
+                report.setRows(report.getRows() + 1);
+                if (record.size() != columns.size()) {
+                    reject(report, report.getRows(), null,
+                            "Expected " + columns.size() + " fields but found " + record.size());
+                    return null;
+                }
+                Map<String, String> fields = new HashMap<>();
+                for (int i = 0; i < columns.size(); i++) {
+                    fields.put(columns.get(i), record.get(i));
+                }
+                return fields;
+            }
+        };
+    }
+
+    /**
+     * One JSON object per line; a {@code roles} array is accepted as well as a {@code |}-separated string.
+     */
+    private Iterator<Map<String, String>> ndjsonRows(BufferedReader reader, UserImportReport report) {
+        return new RowIterator() {
+            @Override
+            protected Map<String, String> read() throws IOException {
+                String line;
+                do {
+                    line = reader.readLine();
+                } while (line != null && line.isBlank());
+                if (line == null) {
+                    return END;
+                }
+                report.setRows(report.getRows() + 1);
+                JsonNode node;
+                try {
+                    node = objectMapper.readTree(line);
+                } catch (JsonProcessingException e) {
+                    reject(report, report.getRows(), null, "Invalid JSON: " + e.getOriginalMessage());
+                    return null;
+                }
+                if (!node.isObject()) {
+                    reject(report, report.getRows(), null, "Expected a JSON object");
+                    return null;
+                }
+                Map<String, String> fields = new HashMap<>();
+                node.fields().forEachRemaining(field -> {
+                    JsonNode value = field.getValue();
+                    if (value.isArray()) {
+                        List<String> items = new ArrayList<>();
+                        value.forEach(item -> items.add(item.asText()));
+                        fields.put(field.getKey(), String.join(ROLE_SEPARATOR, items));
+                    } else if (!value.isNull()) {
+                        fields.put(field.getKey(), value.asText());
+                    }
+                });
+                return fields;
+            }
+        };
+    }
+
+    static List<String> readCsvRecord(BufferedReader reader) throws IOException {
+        int c = reader.read();
+        if (c < 0) {
+            return null;
+        }
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        while (true) {
+            if (quoted) {
+                if (c < 0) {
+                    fields.add(field.toString());
+                    return fields;
+                }
+                if (c == '"') {
+                    reader.mark(1);
+                    if (reader.read() == '"') {
+                        field.append('"');
+                    } else {
+                        quoted = false;
+                        reader.reset();
+                    }
+                } else {
+                    field.append((char) c);
+                }
+            } else if (c == '"' && field.isEmpty()) {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else if (c == '\n' || c == '\r' || c < 0) {
+                if (c == '\r') {
+                    reader.mark(1);
+                    if (reader.read() != '\n') {
+                        reader.reset();
+                    }
+                }
+                fields.add(field.toString());
+                return fields;
+            } else {
+                field.append((char) c);
+            }
+            c = reader.read();
+        }
+    }
+
+    /**
+     * Pulls one row ahead. {@link #read()} returns {@link #END} once the input is exhausted, or {@code null}
+     * for a row that was reported as unreadable.
+     */
+    private abstract static class RowIterator implements Iterator<Map<String, String>> {
+
+        static final Map<String, String> END = Map.of();
+
+        private Map<String, String> next;
+        private boolean fetched;
+
+        protected abstract Map<String, String> read() throws IOException;
+
+        @Override
+        public boolean hasNext() {
+            if (!fetched) {
+                try {
+                    next = read();
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                fetched = true;
+            }
+            return next != END;
+        }
+
+        @Override
+        public Map<String, String> next() {
+            hasNext();
+            fetched = false;
+            return next;
+        }
+    }
+}
@@ -0,0 +1,322 @@
+package com.hendisantika.usermanagement.service;
+
+import com.hendisantika.usermanagement.dto.UserSummary;
+import com.hendisantika.usermanagement.entity.User;
+import com.hendisantika.usermanagement.repository.UserRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.stream.Stream;
+
+/**
+ * In-process search over username, email, first name and last name, so the admin search never reaches the
+ * database.
+ * <p>
+ * Every field value is a term in a sorted map (prefix search is a range scan from the prefix) and is split
+ * into trigrams with posting lists (substring search intersects the postings of the query's trigrams, then
+ * checks the few surviving candidates). The index is loaded once at startup and then kept current by the
+ * write paths of {@link UserService} and {@link UserImportService}.
+ * <p>
+ * Posting lists are sorted {@code long[]} of user ids, replaced copy-on-write by the (serialized) writers and
+ * read without locking. A user costs one long per distinct term and trigram of their fields, about 40 of them
+ * for typical names and emails: roughly 300 bytes of postings plus the {@link UserSummary} itself, so around
+ * 0.5 KB per user, or 500 MB for a million users. Popular trigrams ("com", "exa") have one entry per user, so
+ * a single put copies those arrays; bulk writers should go through {@link #putAll} to merge once per batch.
+ */
+@Slf4j
+@Component
+public class UserSearchIndex implements SmartInitializingSingleton {
+
+    public static final int MAX_RESULTS = 100;
+
+    private static final int GRAM = 3;
+
+    private final UserRepository userRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    private final Map<Long, UserSummary> documents = new ConcurrentHashMap<>();
+    private final ConcurrentSkipListMap<String, long[]> terms = new ConcurrentSkipListMap<>();
+    private final Map<String, long[]> trigrams = new ConcurrentHashMap<>();
+
+    public UserSearchIndex(UserRepository userRepository, TransactionTemplate transactionTemplate) {
+        this.userRepository = userRepository;
+        this.transactionTemplate = transactionTemplate;
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        long started = System.nanoTime();
+        List<UserSummary> users = new ArrayList<>();
+        transactionTemplate.executeWithoutResult(status -> {
+            try (Stream<UserSummary> summaries = userRepository.streamSummaries()) {
+                summaries.forEach(users::add);
+            }
+        });
+        putSummaries(users);
+        log.info("User search index built with {} users and {} terms in {} ms", documents.size(), terms.size(),
+                (System.nanoTime() - started) / 1_000_000);
+    }
+
+    public void put(User user) {
+        put(summary(user));
+    }
+
+    /**
+     * Adds or replaces a user. Writers are serialized; readers never block and at worst see the previous
+     * version of a user being replaced.
+     */
+    public void put(UserSummary user) {
+        putSummaries(List.of(user));
+    }
+
+    /**
+     * Adds or replaces several users, merging each touched posting list once for the whole batch.
+     */
+    public void putAll(Collection<User> users) {
+        putSummaries(users.stream().map(UserSearchIndex::summary).toList());
+    }
+
+    private synchronized void putSummaries(Collection<UserSummary> users) {
+        Map<String, LongList> addedTerms = new HashMap<>();
+        Map<String, LongList> addedTrigrams = new HashMap<>();
+        Map<Long, UserSummary> latest = new LinkedHashMap<>();
+        users.forEach(user -> latest.put(user.getId(), user));
+        for (UserSummary user : latest.values()) {
+            UserSummary previous = documents.put(user.getId(), user);
+            if (previous != null) {
+                unindex(previous);
+            }
+            for (String value : values(user)) {
+                addedTerms.computeIfAbsent(value, k -> new LongList()).add(user.getId());
+                for (String gram : grams(value)) {
+                    addedTrigrams.computeIfAbsent(gram, k -> new LongList()).add(user.getId());
+                }
+            }
+        }
+        addedTerms.forEach((term, ids) -> terms.merge(term, ids.toSortedArray(), UserSearchIndex::union));
+        addedTrigrams.forEach((gram, ids) -> trigrams.merge(gram, ids.toSortedArray(), UserSearchIndex::union));
+    }
+
+    public synchronized void remove(Long id) {
+        UserSummary previous = documents.remove(id);
+        if (previous != null) {
+            unindex(previous);
+        }
+    }
+
+    public int size() {
+        return documents.size();
+    }
+
+    /**
+     * Users matching {@code query}: those with a field starting with it first (in term order, so an exact match
+     * leads), then, for queries of three characters or more, up to {@code limit} of those containing it, ordered
+     * by username.
+     */
+    public List<UserSummary> search(String query, int limit) {
+        String q = normalize(query);
+        int max = Math.max(1, Math.min(limit, MAX_RESULTS));
+        if (q.isEmpty()) {
+            return List.of();
+        }
+
+        Set<Long> hits = new LinkedHashSet<>();
+        NavigableMap<String, long[]> range = terms.subMap(q, true, q + Character.MAX_VALUE, false);
+        for (long[] ids : range.values()) {
+            for (long id : ids) {
+                if (hits.add(id) && hits.size() == max) {
+                    return resolve(hits);
+                }
+            }
+        }
+
+        if (q.length() >= GRAM) {
+            List<UserSummary> containing = substringMatches(q, hits, max - hits.size());
+            containing.sort(Comparator.comparing(UserSummary::getUsername, Comparator.nullsLast(String::compareTo)));
+            containing.forEach(user -> hits.add(user.getId()));
+        }
+        return resolve(hits);
+    }
+
+    /**
+     * Walks the posting list of the query's rarest trigram, keeps ids present in every other posting list and
+     * checks the survivors against the actual field values, stopping as soon as {@code wanted} are found. The
+     * cost is bounded by the rarest trigram, not by the number of users.
+     */
+    private List<UserSummary> substringMatches(String q, Set<Long> exclude, int wanted) {
+        List<long[]> postings = new ArrayList<>();
+        for (String gram : grams(q)) {
+            long[] ids = trigrams.get(gram);
+            if (ids == null) {
+                return new ArrayList<>();
+            }
+            postings.add(ids);
+        }
+        postings.sort(Comparator.comparingInt(ids -> ids.length));
+
+        List<UserSummary> matches = new ArrayList<>();
+        candidates:
+        for (long id : postings.get(0)) {
+            if (exclude.contains(id)) {
+                continue;
+            }
+            for (int i = 1; i < postings.size(); i++) {
+                if (Arrays.binarySearch(postings.get(i), id) < 0) {
+                    continue candidates;
+                }
+            }
+            UserSummary user = documents.get(id);
+            if (user != null && contains(user, q)) {
+                matches.add(user);
+                if (matches.size() == wanted) {
+                    break;
+                }
+            }
+        }
+        return matches;
+    }
+
+    private List<UserSummary> resolve(Set<Long> ids) {
+        return ids.stream().map(documents::get).filter(Objects::nonNull).toList();
+    }
+
+    private void unindex(UserSummary user) {
+        for (String value : values(user)) {
+            removePosting(terms, value, user.getId());
+            for (String gram : grams(value)) {
+                removePosting(trigrams, gram, user.getId());
+            }
+        }
+    }
+
+    private static void removePosting(Map<String, long[]> index, String key, long id) {
+        index.computeIfPresent(key, (k, ids) -> {
+            int at = Arrays.binarySearch(ids, id);
+            if (at < 0) {
+                return ids;
+            }
+            if (ids.length == 1) {
+                return null;
+            }
+            long[] next = new long[ids.length - 1];
+            System.arraycopy(ids, 0, next, 0, at);
+            System.arraycopy(ids, at + 1, next, at, ids.length - at - 1);
+            return next;
+        });
+    }
+
+    /**
+     * Sorted union of two sorted id arrays; returns {@code current} itself when nothing is new.
+     */
+    private static long[] union(long[] current, long[] added) {
+        long[] merged = new long[current.length + added.length];
+        int i = 0;
+        int j = 0;
+        int k = 0;
+        while (i < current.length && j < added.length) {
+            if (current[i] < added[j]) {
+                merged[k++] = current[i++];
+            } else if (current[i] > added[j]) {
+                merged[k++] = added[j++];
+            } else {
+                merged[k++] = current[i++];
+                j++;
+            }
+        }
+        while (i < current.length) {
+            merged[k++] = current[i++];
+        }
+        while (j < added.length) {
+            merged[k++] = added[j++];
+        }
+        return k == current.length ? current : Arrays.copyOf(merged, k);
+    }
+
+    private static UserSummary summary(User user) {
+        return new UserSummary(user.getId(), user.getFirstName(), user.getLastName(), user.getUsername(),
+                user.getEmail(), user.getCreatedOn(), user.getLastModifiedOn());
+    }
+
+    private static boolean contains(UserSummary user, String q) {
+        for (String value : values(user)) {
+            if (value.contains(q)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static Set<String> values(UserSummary user) {
+        Set<String> values = new HashSet<>(4);
+        for (String field : new String[]{user.getUsername(), user.getEmail(), user.getFirstName(), user.getLastName()}) {
+            String value = normalize(field);
+            if (!value.isEmpty()) {
+                values.add(value);
+            }
+        }
+        return values;
+    }
+
+    private static Set<String> grams(String value) {
+        if (value.length() < GRAM) {
+            return Collections.emptySet();
+        }
+        Set<String> grams = new HashSet<>();
+        for (int i = 0; i + GRAM <= value.length(); i++) {
+            grams.add(value.substring(i, i + GRAM));
+        }
+        return grams;
+    }
+
+    private static String normalize(String value) {
+        return value == null ? "" : value.trim().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Growable id list used only while a write is collecting its postings.
+     */
+    private static final class LongList {
+
+        private long[] ids = new long[4];
+        private int size;
+
+        void add(long id) {
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+            }
+            ids[size++] = id;
+        }
+
+        // The same id shows up once per field containing the term or trigram.
+        long[] toSortedArray() {
+            long[] sorted = Arrays.copyOf(ids, size);
+            Arrays.sort(sorted);
+            int distinct = 0;
+            for (long id : sorted) {
+                if (distinct == 0 || sorted[distinct - 1] != id) {
+                    sorted[distinct++] = id;
+                }
+            }
+            return distinct == sorted.length ? sorted : Arrays.copyOf(sorted, distinct);
+        }
+    }
+}
@@ -1,18 +1,33 @@
 package com.hendisantika.usermanagement.service;
 
 import com.hendisantika.usermanagement.dto.ChangePasswordForm;
+import com.hendisantika.usermanagement.dto.UserPage;
+import com.hendisantika.usermanagement.dto.UserSummary;
+import com.hendisantika.usermanagement.entity.AuditEvent;
 import com.hendisantika.usermanagement.entity.User;
 import com.hendisantika.usermanagement.exception.CustomFieldValidationException;
 import com.hendisantika.usermanagement.exception.UsernameOrIdNotFound;
 import com.hendisantika.usermanagement.repository.UserRepository;
+import io.micrometer.core.annotation.Timed;
+import org.hibernate.exception.ConstraintViolationException;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.UserCache;
 import org.springframework.security.core.userdetails.UserDetails;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 
-import java.util.Optional;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
 
 /**
  * Created by IntelliJ IDEA.
@@ -20,22 +35,143 @@ import java.util.Optional;
  */
 @Service
 public class UserService {
+
+    public static final int DEFAULT_PAGE_SIZE = 50;
+    public static final int MAX_PAGE_SIZE = 500;
+
+    private static final String CURSOR_SEPARATOR = "_";
+    private static final String USERNAME_CONSTRAINT = "uk_users_username";
+    // One timer for the write paths, tagged with class, method and exception by the TimedAspect.
+    private static final String USER_SERVICE_TIMER = "user.service";
+
     @Autowired
     private UserRepository repository;
 
     @Autowired
-    private BCryptPasswordEncoder bCryptPasswordEncoder;
+    private PasswordEncoder bCryptPasswordEncoder;
+
+    @Autowired
+    private UserCache userCache;
+
+    @Autowired
+    private UsernameBloomFilter usernameFilter;
+
+    @Autowired
+    private UserSearchIndex searchIndex;
+
+    @Autowired
+    private UserSuggestIndex suggestIndex;
+
+    @Autowired
+    private AuditTrail auditTrail;
 
     public Iterable<User> getAllUsers() {
         return repository.findAll();
     }
 
-    private boolean checkUsernameAvailable(User user) throws Exception {
-        Optional<User> userFound = repository.findByUsername(user.getUsername());
-        if (userFound.isPresent()) {
-            throw new CustomFieldValidationException("Username not available", "username");
+    /**
+     * Keyset page of users. Walking forward from {@code after} or backward from {@code before} costs the same
+     * whatever the position in the table, since no OFFSET is ever issued.
+     *
+     * @param sortKey column pair the pages are ordered by
+     * @param after   cursor of the last row of the previous page, or null
+     * @param before  cursor of the first row of the next page, or null; wins over {@code after}
+     * @param size    requested page size, clamped to [1, MAX_PAGE_SIZE]
+     */
+    public UserPage getUserPage(UserPage.SortKey sortKey, String after, String before, int size) {
+        int pageSize = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        // One extra row tells us whether a further page exists without a count query.
+        Limit limit = Limit.of(pageSize + 1);
+        boolean backward = before != null && !before.isEmpty();
+        boolean forward = !backward && after != null && !after.isEmpty();
+
+        List<UserSummary> rows;
+        try {
+            if (backward) {
+                rows = fetchBefore(sortKey, before, limit);
+            } else if (forward) {
+                rows = fetchAfter(sortKey, after, limit);
+            } else {
+                rows = fetchFirst(sortKey, limit);
+            }
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            // A tampered or stale cursor simply restarts the listing.
+            return getUserPage(sortKey, null, null, pageSize);
+        }
+
+        if (backward && rows.isEmpty()) {
+            return getUserPage(sortKey, null, null, pageSize);
+        }
+
+        boolean more = rows.size() > pageSize;
+        List<UserSummary> users = new ArrayList<>(more ? rows.subList(0, pageSize) : rows);
+        if (backward) {
+            Collections.reverse(users);
+        }
+
+        boolean hasPrevious = backward ? more : forward;
+        boolean hasNext = backward || more;
+        String previousCursor = hasPrevious && !users.isEmpty() ? encodeCursor(sortKey, users.get(0)) : null;
+        String nextCursor = hasNext && !users.isEmpty() ? encodeCursor(sortKey, users.get(users.size() - 1)) : null;
+        return new UserPage(users, sortKey, pageSize, previousCursor, nextCursor);
+    }
+
+    private List<UserSummary> fetchFirst(UserPage.SortKey sortKey, Limit limit) {
+        if (sortKey == UserPage.SortKey.CREATED_ON) {
+            return repository.findSummariesOrderByCreatedOn(limit);
         }
-        return true;
+        return repository.findSummariesOrderById(limit);
+    }
+
+    private List<UserSummary> fetchAfter(UserPage.SortKey sortKey, String cursor, Limit limit) {
+        if (sortKey == UserPage.SortKey.CREATED_ON) {
+            String[] parts = splitCursor(cursor);
+            if (parts[0].isEmpty()) {
+                return repository.findSummariesAfterUndated(Long.valueOf(parts[1]), limit);
+            }
+            return repository.findSummariesAfterCreatedOn(LocalDateTime.parse(parts[0]), Long.valueOf(parts[1]),
+                    limit);
+        }
+        return repository.findSummariesAfterId(Long.valueOf(cursor), limit);
+    }
+
+    private List<UserSummary> fetchBefore(UserPage.SortKey sortKey, String cursor, Limit limit) {
+        if (sortKey == UserPage.SortKey.CREATED_ON) {
+            String[] parts = splitCursor(cursor);
+            if (parts[0].isEmpty()) {
+                return repository.findSummariesBeforeUndated(Long.valueOf(parts[1]), limit);
+            }
+            return repository.findSummariesBeforeCreatedOn(LocalDateTime.parse(parts[0]), Long.valueOf(parts[1]),
+                    limit);
+        }
+        return repository.findSummariesBeforeId(Long.valueOf(cursor), limit);
+    }
+
+    private String[] splitCursor(String cursor) {
+        String[] parts = cursor.split(CURSOR_SEPARATOR, 2);
+        if (parts.length != 2) {
+            throw new IllegalArgumentException("Malformed cursor: " + cursor);
+        }
+        return parts;
+    }
+
+    // A row without createdOn gets an empty date part, "_<id>": those rows are paged by id after all dated ones.
+    private String encodeCursor(UserPage.SortKey sortKey, UserSummary user) {
+        if (sortKey == UserPage.SortKey.CREATED_ON) {
+            return (user.getCreatedOn() == null ? "" : user.getCreatedOn().toString()) + CURSOR_SEPARATOR
+                    + user.getId();
+        }
+        return String.valueOf(user.getId());
+    }
+
+    /**
+     * Availability probe for the signup form. Most names are unused and answered from memory.
+     */
+    public boolean isUsernameAvailable(String username) {
+        if (username == null || username.isBlank()) {
+            return false;
+        }
+        return !usernameFilter.mightContain(username) || !repository.existsByUsername(username);
     }
 
     private boolean checkPasswordValid(User user) throws Exception {
@@ -49,23 +185,89 @@ public class UserService {
         return true;
     }
 
+    /**
+     * Uniqueness is guaranteed by the {@code uk_users_username} constraint on the INSERT, since concurrent
+     * signups for the same name could both pass any prior check. A taken name is still caught up front, from the
+     * username filter and an index probe, so it does not cost a BCrypt hash on the bounded pool first.
+     */
+    @Timed(USER_SERVICE_TIMER)
     public User createUser(User user) throws Exception {
-        if (checkUsernameAvailable(user) && checkPasswordValid(user)) {
+        if (checkPasswordValid(user)) {
+            if (!isUsernameAvailable(user.getUsername())) {
+                throw new CustomFieldValidationException("Username not available", "username");
+            }
             String encodedPassword = bCryptPasswordEncoder.encode(user.getPassword());
             user.setPassword(encodedPassword);
-            user = repository.save(user);
+            user = saveCheckingUsername(user);
+            usernameFilter.put(user.getUsername());
+            searchIndex.put(user);
+            suggestIndex.put(user);
+            auditTrail.publish(AuditEvent.Action.CREATE, user);
         }
         return user;
     }
 
+    private User saveCheckingUsername(User user) throws CustomFieldValidationException {
+        try {
+            return repository.save(user);
+        } catch (DataIntegrityViolationException e) {
+            if (isUsernameConflict(e)) {
+                throw new CustomFieldValidationException("Username not available", "username");
+            }
+            throw e;
+        }
+    }
+
+    static boolean isUsernameConflict(DataIntegrityViolationException e) {
+        // Databases report the constraint name in their own case (H2 upper-cases it).
+        return e.getCause() instanceof ConstraintViolationException cve && cve.getConstraintName() != null
+                && cve.getConstraintName().toLowerCase(Locale.ROOT).contains(USERNAME_CONSTRAINT);
+    }
+
     public User getUserById(Long id) throws UsernameOrIdNotFound {
         return repository.findById(id).orElseThrow(() -> new UsernameOrIdNotFound("User id does not exist."));
     }
 
+    /**
+     * Same as {@link #getUserById(Long)} with the roles loaded in the same query, for views that render them.
+     */
+    public User getUserWithRolesById(Long id) throws UsernameOrIdNotFound {
+        return repository.findWithRolesById(id).orElseThrow(() -> new UsernameOrIdNotFound("User id does not exist."));
+    }
+
+    /**
+     * Current version of a user, without loading it. Lets a conditional GET be answered from an index lookup.
+     */
+    public Long getUserVersion(Long id) throws UsernameOrIdNotFound {
+        return repository.findVersionById(id).orElseThrow(() -> new UsernameOrIdNotFound("User id does not exist."));
+    }
+
+    @Timed(USER_SERVICE_TIMER)
     public User updateUser(User fromUser) throws Exception {
+        return updateUser(fromUser, null);
+    }
+
+    /**
+     * Updates the user only if it is still at one of {@code expectedVersions} (any version when null). A write
+     * landing between this check and the UPDATE is caught by the version column of the UPDATE itself.
+     */
+    @Timed(USER_SERVICE_TIMER)
+    public User updateUser(User fromUser, Set<Long> expectedVersions) throws Exception {
         User toUser = getUserById(fromUser.getId());
+        checkVersion(toUser, expectedVersions);
+        String previousUsername = toUser.getUsername();
+        String previousEmail = toUser.getEmail();
+        // Roles or the username itself may change, drop the cached login under both names.
+        userCache.removeUserFromCache(previousUsername);
         mapUser(fromUser, toUser);
-        return repository.save(toUser);
+        User saved = saveCheckingUsername(toUser);
+        userCache.removeUserFromCache(saved.getUsername());
+        usernameFilter.put(saved.getUsername());
+        searchIndex.put(saved);
+        suggestIndex.remove(previousUsername, previousEmail);
+        suggestIndex.put(saved);
+        auditTrail.publish(AuditEvent.Action.UPDATE, saved);
+        return saved;
     }
 
 
@@ -84,11 +286,31 @@ public class UserService {
     }
 
     @PreAuthorize("hasAnyRole('ROLE_ADMIN')")
+    @Timed(USER_SERVICE_TIMER)
     public void deleteUser(Long id) throws UsernameOrIdNotFound {
+        deleteUser(id, null);
+    }
+
+    @PreAuthorize("hasAnyRole('ROLE_ADMIN')")
+    @Timed(USER_SERVICE_TIMER)
+    public void deleteUser(Long id, Set<Long> expectedVersions) throws UsernameOrIdNotFound {
         User user = getUserById(id);
+        checkVersion(user, expectedVersions);
         repository.delete(user);
+        userCache.removeUserFromCache(user.getUsername());
+        usernameFilter.onDelete();
+        searchIndex.remove(user.getId());
+        suggestIndex.remove(user.getUsername(), user.getEmail());
+        auditTrail.publish(AuditEvent.Action.DELETE, user);
+    }
+
+    private void checkVersion(User user, Set<Long> expectedVersions) {
+        if (expectedVersions != null && !expectedVersions.contains(user.getVersion())) {
+            throw new ObjectOptimisticLockingFailureException(User.class, user.getId());
+        }
     }
 
+    @Timed(USER_SERVICE_TIMER)
     public User changePassword(ChangePasswordForm form) throws Exception {
         User user = getUserById(form.getId());
 
@@ -106,7 +328,10 @@ public class UserService {
 
         String encodePassword = bCryptPasswordEncoder.encode(form.getNewPassword());
         user.setPassword(encodePassword);
-        return repository.save(user);
+        User saved = repository.save(user);
+        userCache.removeUserFromCache(saved.getUsername());
+        auditTrail.publish(AuditEvent.Action.CHANGE_PASSWORD, saved);
+        return saved;
     }
 
     private boolean isLoggedUserADMIN() {
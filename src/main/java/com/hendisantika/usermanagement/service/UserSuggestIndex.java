@@ -0,0 +1,170 @@
+package com.hendisantika.usermanagement.service;
+
+import com.hendisantika.usermanagement.dto.UserSummary;
+import com.hendisantika.usermanagement.entity.User;
+import com.hendisantika.usermanagement.repository.UserRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Typeahead over usernames and emails: a single case-insensitively sorted array of interned strings, so a
+ * lookup is one binary search plus a short forward scan, with no entity, map entry or node per key.
+ * <p>
+ * The array is copy-on-write. Readers take the current array without locking; writers build a new one
+ * (one array copy per change, one merge per imported batch). A key used by several users, such as a shared
+ * email, is stored once per user so that deleting one of them keeps it.
+ */
+@Slf4j
+@Component
+public class UserSuggestIndex implements SmartInitializingSingleton {
+
+    public static final int MAX_SUGGESTIONS = 10;
+
+    private static final Comparator<String> ORDER = String.CASE_INSENSITIVE_ORDER;
+
+    private final UserRepository userRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    private volatile String[] keys = new String[0];
+
+    public UserSuggestIndex(UserRepository userRepository, TransactionTemplate transactionTemplate) {
+        this.userRepository = userRepository;
+        this.transactionTemplate = transactionTemplate;
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        long started = System.nanoTime();
+        List<String> all = new ArrayList<>();
+        transactionTemplate.executeWithoutResult(status -> {
+            try (Stream<UserSummary> users = userRepository.streamSummaries()) {
+                users.forEach(user -> addKeys(all, user.getUsername(), user.getEmail()));
+            }
+        });
+        String[] built = all.toArray(String[]::new);
+        Arrays.sort(built, ORDER);
+        keys = built;
+        log.info("Suggest index built with {} keys in {} ms", built.length, (System.nanoTime() - started) / 1_000_000);
+    }
+
+    /**
+     * Up to {@code limit} distinct usernames or emails starting with {@code prefix}, ignoring case, in
+     * alphabetical order.
+     */
+    public List<String> suggest(String prefix, int limit) {
+        if (prefix == null || prefix.isBlank()) {
+            return List.of();
+        }
+        String p = prefix.trim();
+        int max = Math.max(1, Math.min(limit, MAX_SUGGESTIONS));
+        String[] current = keys;
+        int i = lowerBound(current, p);
+        List<String> suggestions = new ArrayList<>(max);
+        while (i < current.length && suggestions.size() < max
+                && current[i].regionMatches(true, 0, p, 0, p.length())) {
+            String key = current[i++];
+            if (!suggestions.contains(key)) {
+                suggestions.add(key);
+            }
+        }
+        return suggestions;
+    }
+
+    public void put(User user) {
+        List<String> added = new ArrayList<>(2);
+        addKeys(added, user.getUsername(), user.getEmail());
+        putAll(added);
+    }
+
+    /**
+     * Adds the keys of several users with a single merge of the array.
+     */
+    public void putAll(Collection<User> users) {
+        List<String> added = new ArrayList<>(users.size() * 2);
+        users.forEach(user -> addKeys(added, user.getUsername(), user.getEmail()));
+        putAll(added);
+    }
+
+    public synchronized void remove(String username, String email) {
+        String[] current = keys;
+        List<String> removed = new ArrayList<>(2);
+        addKeys(removed, username, email);
+        for (String key : removed) {
+            int at = indexOf(current, key);
+            if (at >= 0) {
+                String[] next = new String[current.length - 1];
+                System.arraycopy(current, 0, next, 0, at);
+                System.arraycopy(current, at + 1, next, at, current.length - at - 1);
+                current = next;
+            }
+        }
+        keys = current;
+    }
+
+    public int size() {
+        return keys.length;
+    }
+
+    private synchronized void putAll(List<String> added) {
+        if (added.isEmpty()) {
+            return;
+        }
+        added.sort(ORDER);
+        String[] current = keys;
+        String[] merged = new String[current.length + added.size()];
+        int i = 0;
+        int j = 0;
+        int k = 0;
+        while (i < current.length && j < added.size()) {
+            merged[k++] = ORDER.compare(current[i], added.get(j)) <= 0 ? current[i++] : added.get(j++);
+        }
+        while (i < current.length) {
+            merged[k++] = current[i++];
+        }
+        while (j < added.size()) {
+            merged[k++] = added.get(j++);
+        }
+        keys = merged;
+    }
+
+    private static void addKeys(List<String> target, String username, String email) {
+        if (username != null && !username.isBlank()) {
+            target.add(username.intern());
+        }
+        if (email != null && !email.isBlank()) {
+            target.add(email.intern());
+        }
+    }
+
+    private static int indexOf(String[] array, String key) {
+        for (int i = lowerBound(array, key); i < array.length && ORDER.compare(array[i], key) == 0; i++) {
+            if (array[i].equals(key)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static int lowerBound(String[] array, String key) {
+        int low = 0;
+        int high = array.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (ORDER.compare(array[mid], key) < 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+}
@@ -0,0 +1,207 @@
+package com.hendisantika.usermanagement.service;
+
+import com.hendisantika.usermanagement.repository.UserRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+
+/**
+ * Bloom filter over every existing username, so availability checks can skip the database when a name
+ * is definitely not taken.
+ * <p>
+ * {@link #mightContain} never returns a false negative. Deleted usernames cannot be removed from a Bloom
+ * filter; they only raise the false-positive rate (costing a DB probe), so the filter is rebuilt from a
+ * streamed scan once enough deletions have accumulated.
+ */
+@Slf4j
+@Component
+public class UsernameBloomFilter implements SmartInitializingSingleton {
+
+    private final UserRepository userRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final long expectedInsertions;
+    private final double falsePositiveRate;
+    private final long rebuildAfterDeletes;
+
+    private final AtomicLong deletesSinceBuild = new AtomicLong();
+    private final AtomicBoolean rebuildScheduled = new AtomicBoolean();
+    // Not synchronized: the scan blocks on JDBC and would pin the carrier of the virtual thread running it.
+    private final ReentrantLock rebuildLock = new ReentrantLock();
+    private volatile Bits bits;
+    // Receives additions made while a rebuild scan is running, so none are lost when it is swapped in.
+    private volatile Bits building;
+
+    public UsernameBloomFilter(UserRepository userRepository,
+                               TransactionTemplate transactionTemplate,
+                               @Value("${username-filter.expected-insertions:1000000}") long expectedInsertions,
+                               @Value("${username-filter.false-positive-rate:0.01}") double falsePositiveRate,
+                               @Value("${username-filter.rebuild-after-deletes:10000}") long rebuildAfterDeletes) {
+        this.userRepository = userRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.expectedInsertions = expectedInsertions;
+        this.falsePositiveRate = falsePositiveRate;
+        this.rebuildAfterDeletes = rebuildAfterDeletes;
+        this.bits = Bits.create(expectedInsertions, falsePositiveRate);
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        rebuild();
+    }
+
+    /**
+     * @return false when the username is definitely absent, true when it may exist
+     */
+    public boolean mightContain(String username) {
+        return username != null && bits.mightContain(username);
+    }
+
+    public void put(String username) {
+        if (username == null) {
+            return;
+        }
+        // A rebuild may swap in its filter between writing the current one and reading the one being built;
+        // write again to whichever filter is current then, so the name is never lost.
+        Bits current;
+        do {
+            current = bits;
+            current.put(username);
+            Bits next = building;
+            if (next != null) {
+                next.put(username);
+            }
+        } while (current != bits);
+    }
+
+    public void onDelete() {
+        if (deletesSinceBuild.incrementAndGet() >= rebuildAfterDeletes && rebuildScheduled.compareAndSet(false, true)) {
+            Thread.ofVirtual().name("username-filter-rebuild").start(() -> {
+                try {
+                    rebuild();
+                } catch (RuntimeException e) {
+                    log.warn("Username filter rebuild failed, retrying on the next delete", e);
+                } finally {
+                    rebuildScheduled.set(false);
+                }
+            });
+        }
+    }
+
+    /**
+     * Rebuilds the filter from a streamed scan of the usernames, sized for twice the current user count.
+     */
+    public void rebuild() {
+        rebuildLock.lock();
+        try {
+            doRebuild();
+        } finally {
+            rebuildLock.unlock();
+        }
+    }
+
+    private void doRebuild() {
+        long started = System.nanoTime();
+        // Deletes from here on may or may not be seen by the scan, so they count towards the next rebuild.
+        long deletes = deletesSinceBuild.getAndSet(0);
+        boolean built = false;
+        try {
+            long capacity = Math.max(expectedInsertions, 2 * userRepository.count());
+            Bits next = Bits.create(capacity, falsePositiveRate);
+            building = next;
+            Long count = transactionTemplate.execute(status -> {
+                try (Stream<String> usernames = userRepository.streamAllUsernames()) {
+                    long[] seen = {0};
+                    usernames.forEach(username -> {
+                        next.put(username);
+                        seen[0]++;
+                    });
+                    return seen[0];
+                }
+            });
+            bits = next;
+            built = true;
+            log.info("Username filter built from {} usernames in {} ms", count,
+                    (System.nanoTime() - started) / 1_000_000);
+        } finally {
+            building = null;
+            if (!built) {
+                deletesSinceBuild.addAndGet(deletes);
+            }
+        }
+    }
+
+    private static final class Bits {
+
+        private final AtomicLongArray words;
+        private final long bitCount;
+        private final int hashCount;
+
+        private Bits(long bitCount, int hashCount) {
+            this.words = new AtomicLongArray((int) ((bitCount + 63) >>> 6));
+            this.bitCount = bitCount;
+            this.hashCount = hashCount;
+        }
+
+        static Bits create(long expectedInsertions, double falsePositiveRate) {
+            long n = Math.max(1, expectedInsertions);
+            long m = Math.max(64, (long) (-n * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2))));
+            int k = Math.max(1, (int) Math.round((double) m / n * Math.log(2)));
+            return new Bits(m, k);
+        }
+
+        void put(String key) {
+            long hash = hash(key);
+            long h1 = hash;
+            long h2 = mix(hash) | 1;
+            for (int i = 0; i < hashCount; i++) {
+                long bit = Math.floorMod(h1 + i * h2, bitCount);
+                int index = (int) (bit >>> 6);
+                long mask = 1L << bit;
+                long word;
+                do {
+                    word = words.get(index);
+                } while ((word & mask) == 0 && !words.compareAndSet(index, word, word | mask));
+            }
+        }
+
+        boolean mightContain(String key) {
+            long hash = hash(key);
+            long h1 = hash;
+            long h2 = mix(hash) | 1;
+            for (int i = 0; i < hashCount; i++) {
+                long bit = Math.floorMod(h1 + i * h2, bitCount);
+                if ((words.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        // 64-bit FNV-1a over the chars, finished with a murmur3 avalanche step.
+        private static long hash(String key) {
+            long h = 0xcbf29ce484222325L;
+            for (int i = 0; i < key.length(); i++) {
+                h ^= key.charAt(i);
+                h *= 0x100000001b3L;
+            }
+            return mix(h);
+        }
+
+        private static long mix(long h) {
+            h ^= h >>> 33;
+            h *= 0xff51afd7ed558ccdL;
+            h ^= h >>> 33;
+            h *= 0xc4ceb9fe1a85ec53L;
+            h ^= h >>> 33;
+            return h;
+        }
+    }
+}
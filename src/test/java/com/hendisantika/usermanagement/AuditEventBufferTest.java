@@ -0,0 +1,102 @@
+package com.hendisantika.usermanagement;
+
+import com.hendisantika.usermanagement.entity.AuditEvent;
+import com.hendisantika.usermanagement.service.AuditEventBuffer;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests unitaires pour AuditEventBuffer
+ */
+@DisplayName("AuditEventBuffer Tests")
+class AuditEventBufferTest {
+
+    @Test
+    @DisplayName("Doit arrondir la capacité à la puissance de deux supérieure")
+    void testCapacity() {
+        assertEquals(2, new AuditEventBuffer(1).capacity());
+        assertEquals(8, new AuditEventBuffer(5).capacity());
+        assertEquals(8192, new AuditEventBuffer(8192).capacity());
+    }
+
+    @Test
+    @DisplayName("Doit restituer les événements dans l'ordre et refuser au-delà de la capacité")
+    void testFifoAndFull() {
+        // Arrange
+        AuditEventBuffer buffer = new AuditEventBuffer(4);
+
+        // Act
+        for (long id = 1; id <= 4; id++) {
+            assertTrue(buffer.offer(event(id)));
+        }
+        boolean overflowed = !buffer.offer(event(5));
+        List<AuditEvent> batch = new ArrayList<>();
+        int drained = buffer.drainTo(batch, 3);
+
+        // Assert
+        assertTrue(overflowed);
+        assertEquals(3, drained);
+        assertEquals(List.of(1L, 2L, 3L), batch.stream().map(AuditEvent::getUserId).toList());
+        assertEquals(1, buffer.size());
+        assertTrue(buffer.offer(event(6)));
+        assertEquals(4L, buffer.poll().getUserId());
+        assertEquals(6L, buffer.poll().getUserId());
+        assertNull(buffer.poll());
+    }
+
+    @Test
+    @DisplayName("Ne doit perdre ni dupliquer aucun événement avec plusieurs producteurs")
+    void testConcurrentProducers() throws InterruptedException {
+        // Arrange
+        AuditEventBuffer buffer = new AuditEventBuffer(64);
+        int producers = 4;
+        int perProducer = 10_000;
+        ExecutorService executor = Executors.newFixedThreadPool(producers);
+        CountDownLatch start = new CountDownLatch(1);
+
+        // Act
+        for (int p = 0; p < producers; p++) {
+            long first = (long) p * perProducer;
+            executor.submit(() -> {
+                start.await();
+                for (long id = first; id < first + perProducer; id++) {
+                    while (!buffer.offer(event(id))) {
+                        Thread.onSpinWait();
+                    }
+                }
+                return null;
+            });
+        }
+        start.countDown();
+        Set<Long> seen = new HashSet<>();
+        List<AuditEvent> batch = new ArrayList<>();
+        while (seen.size() < producers * perProducer) {
+            buffer.drainTo(batch, 16);
+            for (AuditEvent event : batch) {
+                assertTrue(seen.add(event.getUserId()), "duplicate " + event.getUserId());
+            }
+            batch.clear();
+        }
+        executor.shutdown();
+
+        // Assert
+        assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+        assertNull(buffer.poll());
+    }
+
+    private static AuditEvent event(long userId) {
+        return new AuditEvent(null, LocalDateTime.now(), "admin", AuditEvent.Action.UPDATE, userId, "user" + userId);
+    }
+}
@@ -0,0 +1,150 @@
+package com.hendisantika.usermanagement;
+
+import com.hendisantika.usermanagement.entity.AuditEvent;
+import com.hendisantika.usermanagement.entity.User;
+import com.hendisantika.usermanagement.service.AuditTrail;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests unitaires pour AuditTrail, avec une base H2 en mémoire pour la table audit_events
+ */
+@DisplayName("AuditTrail Tests")
+class AuditTrailTest {
+
+    private JdbcTemplate jdbc;
+    private SimpleMeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        JdbcDataSource h2 = new JdbcDataSource();
+        h2.setURL("jdbc:h2:mem:audit-trail;DB_CLOSE_DELAY=-1");
+        jdbc = new JdbcTemplate(h2);
+        jdbc.execute("create table if not exists audit_events (id bigint generated by default as identity primary key,"
+                + " occurred_on timestamp not null, actor varchar(255) not null, action varchar(20) not null,"
+                + " user_id bigint, username varchar(255))");
+        jdbc.update("delete from audit_events");
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    @DisplayName("Doit écrire tous les événements publiés par lots, avec leur auteur")
+    void testWritesInBatches() {
+        // Arrange
+        AuditTrail auditTrail = auditTrail(64, AuditTrail.OverflowPolicy.DROP_NEWEST);
+        SecurityContextHolder.getContext().setAuthentication(
+                UsernamePasswordAuthenticationToken.authenticated("admin", null, List.of()));
+        auditTrail.start();
+
+        // Act
+        for (long id = 1; id <= 7; id++) {
+            auditTrail.publish(AuditEvent.Action.UPDATE, user(id));
+        }
+        auditTrail.stop();
+
+        // Assert
+        List<Map<String, Object>> rows = jdbc.queryForList("select actor, action, user_id from audit_events order by user_id");
+        assertEquals(7, rows.size());
+        assertEquals("admin", rows.get(0).get("ACTOR"));
+        assertEquals("UPDATE", rows.get(0).get("ACTION"));
+        assertEquals(7.0, counter("written"));
+        assertTrue(meterRegistry.get("audit.batch.size").summary().max() <= 3);
+        assertEquals(7, meterRegistry.get("audit.lag").timer().count());
+    }
+
+    @Test
+    @DisplayName("DROP_NEWEST - Doit perdre l'événement publié quand le buffer est plein")
+    void testDropNewest() {
+        // Arrange
+        AuditTrail auditTrail = auditTrail(2, AuditTrail.OverflowPolicy.DROP_NEWEST);
+
+        // Act
+        for (long id = 1; id <= 3; id++) {
+            auditTrail.publish(AuditEvent.Action.CREATE, user(id));
+        }
+        auditTrail.start();
+        auditTrail.stop();
+
+        // Assert
+        assertEquals(List.of(1L, 2L), userIds());
+        assertEquals("anonymous", jdbc.queryForObject("select max(actor) from audit_events", String.class));
+        assertEquals(1.0, counter("dropped"));
+    }
+
+    @Test
+    @DisplayName("DROP_OLDEST - Doit faire de la place en perdant l'événement le plus ancien")
+    void testDropOldest() {
+        // Arrange
+        AuditTrail auditTrail = auditTrail(2, AuditTrail.OverflowPolicy.DROP_OLDEST);
+
+        // Act
+        for (long id = 1; id <= 3; id++) {
+            auditTrail.publish(AuditEvent.Action.DELETE, user(id));
+        }
+        auditTrail.start();
+        auditTrail.stop();
+
+        // Assert
+        assertEquals(List.of(2L, 3L), userIds());
+        assertEquals(1.0, counter("dropped"));
+    }
+
+    @Test
+    @DisplayName("Doit compter les événements d'un insert en échec sans arrêter l'écriture")
+    void testFailedInsert() {
+        // Arrange
+        AuditTrail auditTrail = auditTrail(64, AuditTrail.OverflowPolicy.DROP_NEWEST);
+        jdbc.execute("alter table audit_events rename to audit_events_moved");
+        auditTrail.publish(AuditEvent.Action.CREATE, user(1));
+
+        // Act
+        auditTrail.start();
+        auditTrail.stop();
+        jdbc.execute("alter table audit_events_moved rename to audit_events");
+        auditTrail.start();
+        auditTrail.publish(AuditEvent.Action.CREATE, user(2));
+        auditTrail.stop();
+
+        // Assert
+        assertEquals(1.0, counter("failed"));
+        assertEquals(List.of(2L), userIds());
+    }
+
+    private AuditTrail auditTrail(int capacity, AuditTrail.OverflowPolicy overflowPolicy) {
+        return new AuditTrail(jdbc, meterRegistry, capacity, 3, Duration.ofMillis(10), overflowPolicy,
+                Duration.ofMillis(10));
+    }
+
+    private double counter(String result) {
+        return meterRegistry.get("audit.events").tag("result", result).counter().count();
+    }
+
+    private List<Long> userIds() {
+        return jdbc.queryForList("select user_id from audit_events order by user_id", Long.class);
+    }
+
+    private static User user(long id) {
+        User user = new User();
+        user.setId(id);
+        user.setUsername("user" + id);
+        return user;
+    }
+}
@@ -0,0 +1,57 @@
+package com.hendisantika.usermanagement;
+
+import com.hendisantika.usermanagement.service.BCryptCostCalibrator;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests unitaires pour BCryptCostCalibrator
+ */
+@DisplayName("BCryptCostCalibrator Tests")
+class BCryptCostCalibratorTest {
+
+    /**
+     * Simule un nœud où le coût 10 prend 60 ms et chaque point de coût double le temps.
+     */
+    private static long simulatedNanos(int strength) {
+        return TimeUnit.MILLISECONDS.toNanos(60) << (strength - 10);
+    }
+
+    @Test
+    @DisplayName("Doit choisir le coût le plus élevé qui tient dans le budget")
+    void testCalibrate_WithinBudget() {
+        BCryptCostCalibrator calibrator = new BCryptCostCalibrator(BCryptCostCalibratorTest::simulatedNanos);
+
+        assertEquals(12, calibrator.calibrate(Duration.ofMillis(250), 10, 16));
+        assertEquals(13, calibrator.calibrate(Duration.ofMillis(480), 10, 16));
+    }
+
+    @Test
+    @DisplayName("Doit rester au coût minimum si le nœud est trop lent")
+    void testCalibrate_SlowNodeKeepsFloor() {
+        BCryptCostCalibrator calibrator = new BCryptCostCalibrator(BCryptCostCalibratorTest::simulatedNanos);
+
+        assertEquals(10, calibrator.calibrate(Duration.ofMillis(20), 10, 16));
+    }
+
+    @Test
+    @DisplayName("Doit plafonner au coût maximum")
+    void testCalibrate_CappedAtMax() {
+        BCryptCostCalibrator calibrator = new BCryptCostCalibrator(BCryptCostCalibratorTest::simulatedNanos);
+
+        assertEquals(11, calibrator.calibrate(Duration.ofSeconds(10), 10, 11));
+    }
+
+    @Test
+    @DisplayName("Doit mesurer un vrai hash BCrypt")
+    void testCalibrate_RealMeasurement() {
+        int strength = new BCryptCostCalibrator().calibrate(Duration.ofMillis(1), 4, 6);
+
+        assertTrue(strength >= 4 && strength <= 6);
+    }
+}
@@ -0,0 +1,103 @@
+package com.hendisantika.usermanagement;
+
+import com.hendisantika.usermanagement.exception.PasswordHashingRejectedException;
+import com.hendisantika.usermanagement.service.BoundedPasswordEncoder;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests unitaires pour BoundedPasswordEncoder
+ */
+@DisplayName("BoundedPasswordEncoder Tests")
+class BoundedPasswordEncoderTest {
+
+    private final CountDownLatch release = new CountDownLatch(1);
+    private final CountDownLatch started = new CountDownLatch(1);
+
+    private SimpleMeterRegistry meterRegistry;
+    private BoundedPasswordEncoder encoder;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        encoder = new BoundedPasswordEncoder(new BlockingEncoder(), 1, 1, 3, meterRegistry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        encoder.destroy();
+    }
+
+    @Test
+    @DisplayName("Doit déléguer encode et matches au pool dédié")
+    void testDelegates() {
+        // Arrange
+        release.countDown();
+
+        // Act & Assert
+        assertEquals("hashed:secret", encoder.encode("secret"));
+        assertTrue(encoder.matches("secret", "hashed:secret"));
+        assertFalse(encoder.matches("other", "hashed:secret"));
+        assertEquals(1, meterRegistry.get("password.hash").tag("operation", "encode").timer().count());
+        assertEquals(2, meterRegistry.get("password.hash").tag("operation", "matches").timer().count());
+    }
+
+    @Test
+    @DisplayName("Doit rejeter immédiatement quand le pool et la file sont pleins")
+    void testRejectsWhenSaturated() throws Exception {
+        // Arrange : un hash occupe le thread, un second attend dans la file
+        CompletableFuture<String> running = CompletableFuture.supplyAsync(() -> encoder.encode("a"));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        CompletableFuture<String> queued = CompletableFuture.supplyAsync(() -> encoder.encode("b"));
+        waitForQueueDepth(1);
+
+        // Act & Assert
+        PasswordHashingRejectedException exception =
+                assertThrows(PasswordHashingRejectedException.class, () -> encoder.encode("c"));
+        assertEquals(3, exception.getRetryAfterSeconds());
+        assertEquals(1.0, meterRegistry.get("executor.queued").tag("name", BoundedPasswordEncoder.POOL_NAME)
+                .gauge().value());
+
+        release.countDown();
+        assertEquals("hashed:a", running.get(5, TimeUnit.SECONDS));
+        assertEquals("hashed:b", queued.get(5, TimeUnit.SECONDS));
+    }
+
+    private void waitForQueueDepth(int depth) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (encoder.getQueueDepth() < depth && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+        assertEquals(depth, encoder.getQueueDepth());
+    }
+
+    private class BlockingEncoder implements PasswordEncoder {
+
+        @Override
+        public String encode(CharSequence rawPassword) {
+            started.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return "hashed:" + rawPassword;
+        }
+
+        @Override
+        public boolean matches(CharSequence rawPassword, String encodedPassword) {
+            return encode(rawPassword).equals(encodedPassword);
+        }
+    }
+}
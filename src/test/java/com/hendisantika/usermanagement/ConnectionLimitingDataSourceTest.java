@@ -0,0 +1,84 @@
+package com.hendisantika.usermanagement;
+
+import com.hendisantika.usermanagement.config.ConnectionLimitingDataSource;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests unitaires pour ConnectionLimitingDataSource
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("ConnectionLimitingDataSource Tests")
+class ConnectionLimitingDataSourceTest {
+
+    @Mock
+    private DataSource target;
+
+    @Mock
+    private Connection connection;
+
+    private ConnectionLimitingDataSource dataSource;
+
+    @BeforeEach
+    void setUp() {
+        dataSource = new ConnectionLimitingDataSource(target, 1, 50);
+    }
+
+    @Test
+    @DisplayName("Doit refuser une connexion au-delà de la limite puis la rendre après close")
+    void testLimit() throws SQLException {
+        // Arrange
+        when(target.getConnection()).thenReturn(connection);
+
+        // Act
+        Connection first = dataSource.getConnection();
+
+        // Assert
+        assertThrows(SQLTransientConnectionException.class, () -> dataSource.getConnection());
+        first.close();
+        first.close();
+        verify(connection, times(2)).close();
+        assertEquals(1, dataSource.getAvailablePermits());
+        assertNotNull(dataSource.getConnection());
+        assertEquals(0, dataSource.getAvailablePermits());
+    }
+
+    @Test
+    @DisplayName("Doit rendre le permis si le pool sous-jacent échoue")
+    void testTargetFailure() throws SQLException {
+        // Arrange
+        when(target.getConnection()).thenThrow(new SQLTransientConnectionException("pool timeout"));
+
+        // Act & Assert
+        assertThrows(SQLTransientConnectionException.class, () -> dataSource.getConnection());
+        assertEquals(1, dataSource.getAvailablePermits());
+    }
+
+    @Test
+    @DisplayName("Doit déléguer les autres appels à la connexion réelle")
+    void testDelegates() throws SQLException {
+        // Arrange
+        when(target.getConnection()).thenReturn(connection);
+        when(connection.getAutoCommit()).thenReturn(false);
+
+        // Act
+        Connection limited = dataSource.getConnection();
+
+        // Assert
+        assertFalse(limited.getAutoCommit());
+        assertEquals(limited, limited);
+        assertNotEquals(connection, limited);
+    }
+}
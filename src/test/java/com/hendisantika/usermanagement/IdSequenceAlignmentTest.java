@@ -0,0 +1,99 @@
+package com.hendisantika.usermanagement;
+
+import com.hendisantika.usermanagement.config.IdSequenceAlignment;
+import com.hendisantika.usermanagement.entity.Role;
+import com.hendisantika.usermanagement.entity.User;
+import com.hendisantika.usermanagement.repository.RoleRepository;
+import com.hendisantika.usermanagement.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests d'intégration sur H2 : une base dont les ids viennent des anciennes colonnes identity doit voir ses
+ * séquences repoussées au-delà de max(id) avant la première insertion. Contexte neuf pour chaque test : les
+ * blocs d'ids déjà alloués par Hibernate fausseraient le suivant.
+ */
+@DataJpaTest
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
+@Import(IdSequenceAlignment.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@DisplayName("IdSequenceAlignment Tests")
+class IdSequenceAlignmentTest {
+
+    @Autowired
+    private IdSequenceAlignment idSequenceAlignment;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private RoleRepository roleRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @AfterEach
+    void tearDown() {
+        userRepository.deleteAll();
+        roleRepository.deleteAll();
+    }
+
+    @Test
+    @DisplayName("Les nouvelles lignes reçoivent des ids au-delà des ids existants")
+    void testAlign_LegacyIds() {
+        // Arrange : lignes insérées du temps des colonnes identity
+        jdbcTemplate.update("insert into role (id, name, description) values (1000, 'LEGACY', 'ROLE LEGACY')");
+        jdbcTemplate.update("insert into users (id, first_name, last_name, email, username, password, version)"
+                + " values (5000, 'Legacy', 'User', 'legacy@example.com', 'legacy', 'hash', 0)");
+
+        // Act
+        idSequenceAlignment.afterPropertiesSet();
+        Role role = roleRepository.save(new Role(null, "USER", "ROLE USER"));
+        User user = userRepository.save(newUser(role));
+
+        // Assert
+        assertEquals(1001L, role.getId());
+        assertEquals(5001L, user.getId());
+    }
+
+    @Test
+    @DisplayName("Une séquence déjà au-delà des ids existants n'est pas ramenée en arrière")
+    void testAlign_AlreadyPast() {
+        // Arrange
+        Role role = roleRepository.save(new Role(null, "USER", "ROLE USER"));
+        jdbcTemplate.update("insert into users (id, first_name, last_name, email, username, password, version)"
+                + " values (5000, 'Legacy', 'User', 'legacy@example.com', 'legacy', 'hash', 0)");
+        jdbcTemplate.execute("alter sequence users_seq restart with 10000");
+
+        // Act
+        idSequenceAlignment.afterPropertiesSet();
+        User user = userRepository.save(newUser(role));
+
+        // Assert
+        assertTrue(user.getId() > 9950, "id " + user.getId());
+    }
+
+    private User newUser(Role role) {
+        User user = new User();
+        user.setFirstName("Alice");
+        user.setLastName("Martin");
+        user.setEmail("alice@example.com");
+        user.setUsername("alice");
+        user.setPassword("hash");
+        user.setRoles(Set.of(role));
+        return user;
+    }
+}
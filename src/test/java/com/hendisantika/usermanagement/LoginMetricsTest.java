@@ -0,0 +1,49 @@
+package com.hendisantika.usermanagement;
+
+import com.hendisantika.usermanagement.service.LoginMetrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.LockedException;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.authentication.event.AuthenticationFailureBadCredentialsEvent;
+import org.springframework.security.authentication.event.AuthenticationFailureLockedEvent;
+import org.springframework.security.authentication.event.AuthenticationSuccessEvent;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests unitaires pour LoginMetrics
+ */
+@DisplayName("LoginMetrics Tests")
+class LoginMetricsTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private LoginMetrics loginMetrics;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        loginMetrics = new LoginMetrics(meterRegistry);
+    }
+
+    @Test
+    @DisplayName("Doit compter les connexions réussies et échouées par motif")
+    void testCountsByOutcome() {
+        // Arrange
+        UsernamePasswordAuthenticationToken token = new UsernamePasswordAuthenticationToken("testuser", "secret");
+
+        // Act
+        loginMetrics.onSuccess(new AuthenticationSuccessEvent(token));
+        loginMetrics.onFailure(new AuthenticationFailureBadCredentialsEvent(token, new BadCredentialsException("bad")));
+        loginMetrics.onFailure(new AuthenticationFailureBadCredentialsEvent(token, new BadCredentialsException("bad")));
+        loginMetrics.onFailure(new AuthenticationFailureLockedEvent(token, new LockedException("locked")));
+
+        // Assert
+        assertEquals(1.0, meterRegistry.get("user.login").tag("result", "success").counter().count());
+        assertEquals(2.0, meterRegistry.get("user.login").tag("reason", "BadCredentialsException").counter().count());
+        assertEquals(1.0, meterRegistry.get("user.login").tag("reason", "LockedException").counter().count());
+    }
+}
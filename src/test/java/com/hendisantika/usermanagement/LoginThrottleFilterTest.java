@@ -0,0 +1,189 @@
+package com.hendisantika.usermanagement;
+
+import com.hendisantika.usermanagement.config.LoginThrottleFilter;
+import com.hendisantika.usermanagement.service.LoginThrottle;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests unitaires pour LoginThrottleFilter et LoginThrottle
+ */
+@DisplayName("LoginThrottleFilter Tests")
+class LoginThrottleFilterTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private LoginThrottle loginThrottle;
+    private LoginThrottleFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        loginThrottle = new LoginThrottle(meterRegistry, Duration.ofMinutes(5), 3, 5, 1024);
+        filter = LoginThrottleFilter.formLogin(loginThrottle, "/login", "username");
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    @DisplayName("Doit refuser en 429 un username après trop d'échecs, sans atteindre l'authentification")
+    void testThrottlesUsername() throws ServletException, IOException {
+        // Arrange
+        fail("alice", "10.0.0.1", 3);
+
+        // Act
+        MockFilterChain chain = new MockFilterChain();
+        MockHttpServletResponse response = login("ALICE", "10.0.0.2", chain);
+
+        // Assert
+        assertEquals(429, response.getStatus());
+        assertEquals("300", response.getHeader("Retry-After"));
+        assertNull(chain.getRequest());
+        assertEquals(1, meterRegistry.get("user.login").tag("result", "throttled").tag("reason", "username")
+                .counter().count());
+        assertEquals(200, login("bob", "10.0.0.2", new MockFilterChain()).getStatus());
+    }
+
+    @Test
+    @DisplayName("Doit refuser une IP après trop d'échecs, même sur des usernames différents")
+    void testThrottlesIp() throws ServletException, IOException {
+        // Arrange
+        for (int i = 0; i < 5; i++) {
+            fail("user" + i, "10.0.0.1", 1);
+        }
+
+        // Act & Assert
+        assertEquals(429, login("someone", "10.0.0.1", new MockFilterChain()).getStatus());
+        assertEquals(200, login("someone", "10.0.0.2", new MockFilterChain()).getStatus());
+    }
+
+    @Test
+    @DisplayName("Un login réussi doit remettre à zéro le compteur du username")
+    void testSuccessResetsUsername() throws ServletException, IOException {
+        // Arrange
+        fail("alice", "10.0.0.1", 3);
+
+        loginThrottle.succeeded("alice", "10.0.0.1");
+
+        // Act & Assert
+        assertEquals(200, login("alice", "10.0.0.1", new MockFilterChain()).getStatus());
+    }
+
+    @Test
+    @DisplayName("Les tentatives en cours consomment la limite avant la fin de leur hachage")
+    void testConcurrentAttemptsUseUpLimit() throws Exception {
+        // Arrange : chaque tentative admise reste bloquée dans la vérification du mot de passe
+        CountDownLatch settled = new CountDownLatch(10);
+        CountDownLatch hashed = new CountDownLatch(1);
+        AtomicInteger checked = new AtomicInteger();
+        AtomicInteger throttled = new AtomicInteger();
+        FilterChain slowCheck = (request, response) -> {
+            checked.incrementAndGet();
+            settled.countDown();
+            try {
+                hashed.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        };
+
+        // Act
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < 10; i++) {
+                executor.submit(() -> {
+                    if (login("alice", "10.0.0.1", slowCheck).getStatus() == 429) {
+                        throttled.incrementAndGet();
+                        settled.countDown();
+                    }
+                    return null;
+                });
+            }
+            assertTrue(settled.await(10, TimeUnit.SECONDS));
+            hashed.countDown();
+        }
+
+        // Assert
+        assertEquals(3, checked.get());
+        assertEquals(7, throttled.get());
+    }
+
+    @Test
+    @DisplayName("Les connexions réussies et celles refusées par le pool de hachage ne comptent pas comme des échecs")
+    void testSettledAttemptsAreTakenBack() throws ServletException, IOException {
+        // Arrange
+        FilterChain loggedIn = (request, response) -> SecurityContextHolder.getContext().setAuthentication(
+                UsernamePasswordAuthenticationToken.authenticated(request.getParameter("username"), null, List.of()));
+        FilterChain busy = (request, response) -> ((MockHttpServletResponse) response).setStatus(503);
+
+        // Act
+        for (int i = 0; i < 10; i++) {
+            login("user" + i, "10.0.0.1", loggedIn);
+            SecurityContextHolder.clearContext();
+            login("alice", "10.0.0.1", busy);
+        }
+
+        // Assert
+        assertEquals(200, login("alice", "10.0.0.1", new MockFilterChain()).getStatus());
+        assertEquals(200, login("someone", "10.0.0.1", new MockFilterChain()).getStatus());
+    }
+
+    @Test
+    @DisplayName("Ne doit filtrer que le POST du formulaire de login")
+    void testOnlyLoginPost() throws ServletException, IOException {
+        // Arrange
+        fail("alice", "10.0.0.1", 3);
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/login");
+        request.setServletPath("/login");
+        request.setParameter("username", "alice");
+        request.setRemoteAddr("10.0.0.1");
+        MockFilterChain chain = new MockFilterChain();
+
+        // Act
+        filter.doFilter(request, new MockHttpServletResponse(), chain);
+
+        // Assert
+        assertSame(request, chain.getRequest());
+    }
+
+    // The chain authenticates nobody: a wrong password.
+    private void fail(String username, String ip, int times) throws ServletException, IOException {
+        for (int i = 0; i < times; i++) {
+            assertEquals(200, login(username, ip, new MockFilterChain()).getStatus());
+        }
+    }
+
+    private MockHttpServletResponse login(String username, String ip, FilterChain chain)
+            throws ServletException, IOException {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/login");
+        request.setServletPath("/login");
+        request.setParameter("username", username);
+        request.setParameter("password", "secret");
+        request.setRemoteAddr(ip);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, chain);
+        return response;
+    }
+}
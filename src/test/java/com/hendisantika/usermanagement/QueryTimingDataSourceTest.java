@@ -0,0 +1,119 @@
+package com.hendisantika.usermanagement;
+
+import com.hendisantika.usermanagement.config.QueryTimingDataSource;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests unitaires pour QueryTimingDataSource
+ */
+@DisplayName("QueryTimingDataSource Tests")
+class QueryTimingDataSourceTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private QueryTimingDataSource dataSource;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        JdbcDataSource h2 = new JdbcDataSource();
+        h2.setURL("jdbc:h2:mem:query-timing;DB_CLOSE_DELAY=-1");
+        meterRegistry = new SimpleMeterRegistry();
+        dataSource = new QueryTimingDataSource(h2, meterRegistry, Duration.ofMillis(200), 2);
+        try (Connection connection = h2.getConnection(); Statement statement = connection.createStatement()) {
+            statement.execute("create table if not exists items (id bigint primary key, name varchar(20))");
+            statement.execute("delete from items");
+        }
+    }
+
+    @Test
+    @DisplayName("Doit regrouper les listes IN de toute taille sous une même forme")
+    void testShapeFoldsInLists() throws SQLException {
+        // Act
+        try (Connection connection = dataSource.getConnection()) {
+            for (String sql : new String[]{"select name from items where id in (?, ?)",
+                    "select name from  items where id IN(?,?,?)"}) {
+                try (PreparedStatement statement = connection.prepareStatement(sql)) {
+                    for (int i = 1; i <= statement.getParameterMetaData().getParameterCount(); i++) {
+                        statement.setLong(i, i);
+                    }
+                    try (ResultSet ignored = statement.executeQuery()) {
+                        // Only the execution is timed.
+                    }
+                }
+            }
+        }
+
+        // Assert
+        assertEquals(2, meterRegistry.get("jdbc.query")
+                .tag("shape", "select name from items where id in (?...)").timer().count());
+    }
+
+    @Test
+    @DisplayName("Doit regrouper les insertions multi-lignes de toute taille sous une même forme")
+    void testShapeFoldsValuesRows() throws SQLException {
+        // Act
+        long id = 0;
+        try (Connection connection = dataSource.getConnection()) {
+            for (String sql : new String[]{"insert into items (id, name) values (?, ?), (?, ?)",
+                    "insert into items (id, name) values (?, ?), (?, ?), (?, ?)"}) {
+                try (PreparedStatement statement = connection.prepareStatement(sql)) {
+                    for (int i = 1; i <= statement.getParameterMetaData().getParameterCount(); i += 2) {
+                        statement.setLong(i, ++id);
+                        statement.setString(i + 1, "item" + id);
+                    }
+                    statement.executeUpdate();
+                }
+            }
+        }
+
+        // Assert
+        assertEquals(2, meterRegistry.get("jdbc.query")
+                .tag("shape", "insert into items (id, name) values (?, ?), ...").timer().count());
+    }
+
+    @Test
+    @DisplayName("Doit compter une exécution de batch une seule fois")
+    void testBatch() throws SQLException {
+        // Act
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement("insert into items (id, name) values (?, ?)")) {
+            for (long id = 1; id <= 3; id++) {
+                statement.setLong(1, id);
+                statement.setString(2, "item" + id);
+                statement.addBatch();
+            }
+            statement.executeBatch();
+        }
+
+        // Assert
+        assertEquals(1, meterRegistry.get("jdbc.query")
+                .tag("shape", "insert into items (id, name) values (?, ?)").timer().count());
+    }
+
+    @Test
+    @DisplayName("Doit regrouper les formes au-delà de la limite sous 'other'")
+    void testMaxShapes() throws SQLException {
+        // Act
+        try (Connection connection = dataSource.getConnection(); Statement statement = connection.createStatement()) {
+            statement.execute("select 1");
+            statement.execute("select 2");
+            statement.execute("select 3");
+        }
+
+        // Assert
+        assertEquals(3, meterRegistry.get("jdbc.query").timers().size());
+        assertEquals(1, meterRegistry.get("jdbc.query").tag("shape", "other").timer().count());
+    }
+}
@@ -0,0 +1,117 @@
+package com.hendisantika.usermanagement;
+
+import com.hendisantika.usermanagement.config.ReplicaDataSources;
+import com.hendisantika.usermanagement.config.ReplicaRoutingDataSource;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests unitaires pour ReplicaRoutingDataSource, avec deux bases H2 en mémoire pour le primaire et le réplica
+ */
+@DisplayName("ReplicaRoutingDataSource Tests")
+class ReplicaRoutingDataSourceTest {
+
+    private JdbcTemplate replicaJdbc;
+    private ReplicaDataSources replicas;
+    private JdbcTemplate jdbc;
+    private TransactionTemplate readWrite;
+    private TransactionTemplate readOnly;
+
+    @BeforeEach
+    void setUp() {
+        DataSource primary = database("routing-primary");
+        DataSource replica = database("routing-replica");
+        new JdbcTemplate(primary).update("update origin set name = 'primary'");
+        replicaJdbc = new JdbcTemplate(replica);
+        replicaJdbc.update("update origin set name = 'replica'");
+        replicaJdbc.update("update replica_lag set seconds = 0");
+
+        replicas = new ReplicaDataSources(List.of(replica), "select seconds from replica_lag",
+                Duration.ofSeconds(5), Duration.ZERO);
+        replicas.checkLag();
+        DataSource routing = new LazyConnectionDataSourceProxy(
+                new ReplicaRoutingDataSource(primary, replicas, Duration.ofMinutes(1)));
+        jdbc = new JdbcTemplate(routing);
+        readWrite = new TransactionTemplate(new DataSourceTransactionManager(routing));
+        readOnly = new TransactionTemplate(new DataSourceTransactionManager(routing));
+        readOnly.setReadOnly(true);
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    @DisplayName("Doit lire sur le réplica en lecture seule et écrire sur le primaire")
+    void testRoutesByReadOnlyFlag() {
+        // Act & Assert
+        assertEquals("replica", readOnly.execute(status -> origin()));
+        assertEquals("primary", readWrite.execute(status -> origin()));
+        assertEquals("primary", origin());
+    }
+
+    @Test
+    @DisplayName("Doit revenir au primaire tant que le réplica est en retard")
+    void testLagFallback() {
+        // Arrange
+        replicaJdbc.update("update replica_lag set seconds = 30");
+        replicas.checkLag();
+
+        // Act & Assert
+        assertEquals("primary", readOnly.execute(status -> origin()));
+        replicaJdbc.update("update replica_lag set seconds = 1");
+        replicas.checkLag();
+        assertEquals("replica", readOnly.execute(status -> origin()));
+    }
+
+    @Test
+    @DisplayName("Doit garder les lectures d'un utilisateur sur le primaire après sa propre écriture")
+    void testReadYourWrites() {
+        // Arrange
+        login("writer");
+        readWrite.executeWithoutResult(status -> jdbc.update("update origin set name = 'primary'"));
+
+        // Act & Assert
+        assertEquals("primary", readOnly.execute(status -> origin()));
+        login("reader");
+        assertEquals("replica", readOnly.execute(status -> origin()));
+    }
+
+    private String origin() {
+        return jdbc.queryForObject("select name from origin", String.class);
+    }
+
+    private static void login(String username) {
+        SecurityContextHolder.getContext().setAuthentication(
+                UsernamePasswordAuthenticationToken.authenticated(username, null, List.of()));
+    }
+
+    private static DataSource database(String name) {
+        JdbcDataSource dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:" + name + ";DB_CLOSE_DELAY=-1");
+        JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+        jdbc.execute("create table if not exists origin (name varchar(20))");
+        jdbc.execute("create table if not exists replica_lag (seconds double)");
+        if (jdbc.queryForObject("select count(*) from origin", Integer.class) == 0) {
+            jdbc.update("insert into origin values ('')");
+            jdbc.update("insert into replica_lag values (0)");
+        }
+        return dataSource;
+    }
+}
@@ -0,0 +1,77 @@
+package com.hendisantika.usermanagement;
+
+import com.hendisantika.usermanagement.config.RoleBootstrap;
+import com.hendisantika.usermanagement.entity.Role;
+import com.hendisantika.usermanagement.service.RoleRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import java.util.Collection;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests unitaires pour RoleBootstrap
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("RoleBootstrap Tests")
+class RoleBootstrapTest {
+
+    @Mock
+    private RoleRegistry roleRegistry;
+
+    @InjectMocks
+    private RoleBootstrap roleBootstrap;
+
+    @Test
+    @DisplayName("Doit insérer les trois rôles par défaut sur une base vide")
+    @SuppressWarnings("unchecked")
+    void testSeed_EmptyDatabase() {
+        // Act
+        roleBootstrap.afterSingletonsInstantiated();
+
+        // Assert
+        ArgumentCaptor<Collection<Role>> captor = ArgumentCaptor.forClass(Collection.class);
+        verify(roleRegistry, times(3)).saveAll(captor.capture());
+        List<String> names = captor.getAllValues().stream().flatMap(Collection::stream).map(Role::getName).toList();
+        assertEquals(List.of("SUPER ADMIN", "ADMIN", "USER"), names);
+        captor.getAllValues().stream().flatMap(Collection::stream).forEach(role -> assertNull(role.getId()));
+    }
+
+    @Test
+    @DisplayName("Ne doit rien insérer si les rôles existent déjà")
+    void testSeed_AlreadySeeded() {
+        // Arrange
+        when(roleRegistry.findByName(anyString())).thenReturn(new Role(1L, "X", "ROLE X"));
+
+        // Act
+        roleBootstrap.seed();
+
+        // Assert
+        verify(roleRegistry, never()).saveAll(anyCollection());
+    }
+
+    @Test
+    @DisplayName("Doit tolérer un doublon inséré par une autre instance")
+    void testSeed_ConcurrentInsert() {
+        // Arrange
+        when(roleRegistry.saveAll(anyCollection()))
+                .thenThrow(new DataIntegrityViolationException("uk_role_name"))
+                .thenReturn(List.of());
+
+        // Act & Assert
+        assertDoesNotThrow(() -> roleBootstrap.seed());
+        verify(roleRegistry, times(3)).saveAll(anyCollection());
+        verify(roleRegistry, times(1)).refresh();
+    }
+}
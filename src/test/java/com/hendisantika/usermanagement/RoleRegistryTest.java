@@ -0,0 +1,95 @@
+package com.hendisantika.usermanagement;
+
+import com.hendisantika.usermanagement.entity.Role;
+import com.hendisantika.usermanagement.repository.RoleRepository;
+import com.hendisantika.usermanagement.service.RoleRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests unitaires pour RoleRegistry
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("RoleRegistry Tests")
+class RoleRegistryTest {
+
+    @Mock
+    private RoleRepository roleRepository;
+
+    @InjectMocks
+    private RoleRegistry roleRegistry;
+
+    private Role adminRole;
+    private Role userRole;
+
+    @BeforeEach
+    void setUp() {
+        adminRole = new Role(2L, "ADMIN", "ROLE_ADMIN");
+        userRole = new Role(3L, "USER", "ROLE_USER");
+    }
+
+    @Test
+    @DisplayName("Doit être vide avant le chargement")
+    void testEmptyBeforeRefresh() {
+        assertTrue(roleRegistry.getRoles().isEmpty());
+        assertNull(roleRegistry.findByName("USER"));
+        verifyNoInteractions(roleRepository);
+    }
+
+    @Test
+    @DisplayName("Doit charger les rôles une seule fois et les servir par id et par nom")
+    void testRefresh_LookupsServedFromMemory() {
+        // Arrange
+        when(roleRepository.findAll()).thenReturn(Arrays.asList(adminRole, userRole));
+
+        // Act
+        roleRegistry.refresh();
+
+        // Assert
+        assertEquals(2, roleRegistry.getRoles().size());
+        assertSame(userRole, roleRegistry.findByName("USER"));
+        assertSame(adminRole, roleRegistry.findById(2L));
+        assertNull(roleRegistry.findById(99L));
+        verify(roleRepository, times(1)).findAll();
+    }
+
+    @Test
+    @DisplayName("Doit publier un nouveau snapshot après écriture")
+    void testSaveAll_RefreshesSnapshot() {
+        // Arrange
+        when(roleRepository.saveAll(anyList())).thenReturn(List.of(userRole));
+        when(roleRepository.findAll()).thenReturn(List.of(userRole));
+
+        // Act
+        List<Role> before = roleRegistry.getRoles();
+        List<Role> saved = roleRegistry.saveAll(List.of(userRole));
+
+        // Assert
+        assertEquals(List.of(userRole), saved);
+        assertTrue(before.isEmpty());
+        assertSame(userRole, roleRegistry.findById(3L));
+    }
+
+    @Test
+    @DisplayName("Le snapshot exposé doit être immuable")
+    void testGetRoles_Immutable() {
+        // Arrange
+        when(roleRepository.findAll()).thenReturn(List.of(userRole));
+        roleRegistry.refresh();
+
+        // Act & Assert
+        assertThrows(UnsupportedOperationException.class, () -> roleRegistry.getRoles().add(adminRole));
+    }
+}
@@ -0,0 +1,127 @@
+package com.hendisantika.usermanagement;
+
+import com.hendisantika.usermanagement.service.SlidingWindowCounters;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests unitaires pour SlidingWindowCounters, avec une horloge contrôlée par le test
+ */
+@DisplayName("SlidingWindowCounters Tests")
+class SlidingWindowCountersTest {
+
+    private AtomicLong clock;
+
+    @BeforeEach
+    void setUp() {
+        clock = new AtomicLong(1_000_000);
+    }
+
+    @Test
+    @DisplayName("Doit compter par clé et oublier les événements sortis de la fenêtre glissante")
+    void testSlidingWindow() {
+        // Arrange
+        SlidingWindowCounters counters = new SlidingWindowCounters(64, Duration.ofSeconds(10), clock::get);
+
+        // Act & Assert
+        for (int i = 1; i <= 4; i++) {
+            assertEquals(i, counters.increment("alice"));
+        }
+        assertEquals(0, counters.estimate("bob"));
+        // À mi-chemin de la fenêtre suivante, la moitié des anciens événements compte encore
+        clock.addAndGet(15_000);
+        assertEquals(2.0, counters.estimate("alice"), 0.001);
+        clock.addAndGet(10_000);
+        assertEquals(0, counters.estimate("alice"));
+    }
+
+    @Test
+    @DisplayName("Doit retirer le dernier événement compté, dans la fenêtre courante puis la précédente")
+    void testDecrement() {
+        // Arrange
+        SlidingWindowCounters counters = new SlidingWindowCounters(64, Duration.ofSeconds(10), clock::get);
+        counters.increment("alice");
+        counters.increment("alice");
+        clock.addAndGet(10_000);
+        counters.increment("alice");
+
+        // Act & Assert : 1 dans la fenêtre courante, 2 dans la précédente encore entièrement comptée
+        counters.decrement("alice");
+        assertEquals(2, counters.estimate("alice"));
+        counters.decrement("alice");
+        assertEquals(1, counters.estimate("alice"));
+        counters.decrement("alice");
+        counters.decrement("alice");
+        assertEquals(0, counters.estimate("alice"));
+        counters.decrement("bob");
+        assertEquals(0, counters.estimate("bob"));
+    }
+
+    @Test
+    @DisplayName("Doit remettre une clé à zéro")
+    void testReset() {
+        // Arrange
+        SlidingWindowCounters counters = new SlidingWindowCounters(64, Duration.ofMinutes(5), clock::get);
+        counters.increment("alice");
+        counters.increment("bob");
+
+        // Act
+        counters.reset("alice");
+
+        // Assert
+        assertEquals(0, counters.estimate("alice"));
+        assertEquals(1, counters.estimate("bob"));
+    }
+
+    @Test
+    @DisplayName("Doit rester borné en mémoire en évinçant les clés les moins actives")
+    void testBoundedWithEviction() {
+        // Arrange
+        SlidingWindowCounters counters = new SlidingWindowCounters(16, Duration.ofMinutes(5), clock::get);
+        for (int i = 0; i < 10; i++) {
+            counters.increment("attacker");
+        }
+
+        // Act
+        for (int i = 0; i < 10_000; i++) {
+            counters.increment("spray" + i);
+        }
+
+        // Assert
+        assertEquals(16, counters.capacity());
+        assertEquals(10, counters.estimate("attacker"));
+    }
+
+    @Test
+    @DisplayName("Ne doit perdre aucun incrément sous concurrence")
+    void testConcurrentIncrements() throws InterruptedException {
+        // Arrange
+        SlidingWindowCounters counters = new SlidingWindowCounters(64, Duration.ofMinutes(5), clock::get);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+
+        // Act
+        for (int t = 0; t < 8; t++) {
+            executor.submit(() -> {
+                for (int i = 0; i < 1_000; i++) {
+                    counters.increment("alice");
+                    counters.increment("bob");
+                }
+            });
+        }
+        executor.shutdown();
+
+        // Assert
+        assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+        assertEquals(8_000, counters.estimate("alice"));
+        assertEquals(8_000, counters.estimate("bob"));
+    }
+}
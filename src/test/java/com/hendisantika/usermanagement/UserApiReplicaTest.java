@@ -0,0 +1,114 @@
+package com.hendisantika.usermanagement;
+
+import com.hendisantika.usermanagement.config.ReplicaDataSources;
+import com.hendisantika.usermanagement.entity.User;
+import com.hendisantika.usermanagement.repository.UserRepository;
+import com.hendisantika.usermanagement.service.RoleRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationContext;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.orm.jpa.support.OpenEntityManagerInViewInterceptor;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Tests d'intégration : une requête HTTP complète qui lit puis modifie un utilisateur doit lire et écrire sur le
+ * primaire, même avec un réplica disponible. Le réplica est un schéma REPLICA de la même base H2, copié du
+ * primaire puis rendu périmé exprès.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:api-replica;DB_CLOSE_DELAY=-1",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "password-hashing.bcrypt.strength=4",
+        // Pool opened lazily, once setUp has created the schema
+        "replica.datasource.urls=jdbc:h2:mem:api-replica;DB_CLOSE_DELAY=-1;SCHEMA=REPLICA",
+        "replica.lag-query=select 0",
+        "replica.lag-check-interval=0"
+})
+@AutoConfigureMockMvc
+@DisplayName("UserApiController Replica Tests")
+class UserApiReplicaTest {
+
+    private static final String BODY = """
+            {"firstName":"Alice","lastName":"Updated","email":"alice@example.com","username":"alice",
+             "roles":["USER"]}""";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private RoleRegistry roleRegistry;
+
+    @Autowired
+    private ReplicaDataSources replicas;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ApplicationContext context;
+
+    private Long id;
+    private long version;
+
+    @BeforeEach
+    void setUp() {
+        userRepository.deleteAll();
+        User user = new User();
+        user.setFirstName("Alice");
+        user.setLastName("Martin");
+        user.setEmail("alice@example.com");
+        user.setUsername("alice");
+        user.setPassword("hash");
+        user.setRoles(Set.of(roleRegistry.findByName("USER")));
+        User saved = userRepository.save(user);
+        id = saved.getId();
+        version = saved.getVersion();
+
+        // Réplica en retard d'une version
+        jdbcTemplate.execute("create schema if not exists replica");
+        for (String table : new String[]{"users", "role", "user_roles"}) {
+            jdbcTemplate.execute("drop table if exists replica." + table);
+            jdbcTemplate.execute("create table replica." + table + " as select * from public." + table);
+        }
+        jdbcTemplate.update("update replica.users set last_name = 'Stale', version = version - 1");
+        replicas.checkLag();
+    }
+
+    @Test
+    @DisplayName("PUT /api/users/{id} : version vérifiée et mise à jour écrite sur le primaire")
+    void testUpdate_ReadsAndWritesPrimary() throws Exception {
+        // Act
+        mockMvc.perform(put("/api/users/" + id).with(user("admin").authorities(() -> "ROLE ADMIN"))
+                        .header("If-Match", "\"" + version + "\"")
+                        .contentType(MediaType.APPLICATION_JSON).content(BODY))
+                .andExpect(status().isOk());
+
+        // Assert
+        assertEquals("Updated", jdbcTemplate.queryForObject("select last_name from public.users", String.class));
+        assertEquals("Stale", jdbcTemplate.queryForObject("select last_name from replica.users", String.class));
+    }
+
+    @Test
+    @DisplayName("Open-in-view doit rester désactivé : il garderait la connexion d'une lecture sur le réplica")
+    void testOpenInViewDisabled() {
+        assertEquals(0, context.getBeanNamesForType(OpenEntityManagerInViewInterceptor.class).length);
+    }
+}
@@ -0,0 +1,80 @@
+package com.hendisantika.usermanagement;
+
+import com.hendisantika.usermanagement.service.UserDetailsCache;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests unitaires pour UserDetailsCache
+ */
+@DisplayName("UserDetailsCache Tests")
+class UserDetailsCacheTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private UserDetailsCache userDetailsCache;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        userDetailsCache = new UserDetailsCache(2, Duration.ofMinutes(5), meterRegistry);
+    }
+
+    @Test
+    @DisplayName("Doit retourner une copie qui survit à l'effacement des credentials")
+    void testGetUserFromCache_ReturnsDefensiveCopy() {
+        // Arrange
+        userDetailsCache.putUserInCache(user("testuser"));
+
+        // Act
+        User first = (User) userDetailsCache.getUserFromCache("testuser");
+        first.eraseCredentials();
+        UserDetails second = userDetailsCache.getUserFromCache("testuser");
+
+        // Assert
+        assertNotSame(first, second);
+        assertEquals("encodedPassword123", second.getPassword());
+        assertEquals(1, second.getAuthorities().size());
+    }
+
+    @Test
+    @DisplayName("Doit retourner null après invalidation")
+    void testRemoveUserFromCache() {
+        // Arrange
+        userDetailsCache.putUserInCache(user("testuser"));
+
+        // Act
+        userDetailsCache.removeUserFromCache("testuser");
+        userDetailsCache.removeUserFromCache(null);
+
+        // Assert
+        assertNull(userDetailsCache.getUserFromCache("testuser"));
+    }
+
+    @Test
+    @DisplayName("Doit comptabiliser hits et misses et les publier en métriques")
+    void testStats() {
+        // Arrange
+        userDetailsCache.putUserInCache(user("testuser"));
+
+        // Act
+        userDetailsCache.getUserFromCache("testuser");
+        userDetailsCache.getUserFromCache("unknownuser");
+
+        // Assert
+        assertEquals(1, userDetailsCache.stats().hitCount());
+        assertEquals(1, userDetailsCache.stats().missCount());
+        assertNotNull(meterRegistry.find("cache.gets").tag("cache", UserDetailsCache.CACHE_NAME).functionCounter());
+    }
+
+    private UserDetails user(String username) {
+        return User.withUsername(username).password("encodedPassword123").authorities("ROLE_USER").build();
+    }
+}
@@ -11,16 +11,21 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.UserCache;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 
 import java.util.HashSet;
 import java.util.Optional;
 import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.*;
 
@@ -34,6 +39,9 @@ class UserDetailsServiceImplTest {
     @Mock
     private UserRepository userRepository;
 
+    @Mock
+    private UserCache userCache;
+
     @InjectMocks
     private UserDetailsServiceImpl userDetailsService;
 
@@ -70,7 +78,7 @@ class UserDetailsServiceImplTest {
     @DisplayName("Doit charger un utilisateur avec succès par son username")
     void testLoadUserByUsername_Success() {
         // Arrange
-        when(userRepository.findByUsername("testuser")).thenReturn(Optional.of(testUser));
+        when(userRepository.findWithRolesByUsername("testuser")).thenReturn(Optional.of(testUser));
 
         // Act
         UserDetails userDetails = userDetailsService.loadUserByUsername("testuser");
@@ -90,14 +98,14 @@ class UserDetailsServiceImplTest {
         assertTrue(authorities.contains("ROLE_USER"));
 
         // Vérifier que la méthode du repository a été appelée une fois
-        verify(userRepository, times(1)).findByUsername("testuser");
+        verify(userRepository, times(1)).findWithRolesByUsername("testuser");
     }
 
     @Test
     @DisplayName("Doit lancer UsernameNotFoundException quand l'utilisateur n'existe pas")
     void testLoadUserByUsername_UserNotFound() {
         // Arrange
-        when(userRepository.findByUsername("unknownuser")).thenReturn(Optional.empty());
+        when(userRepository.findWithRolesByUsername("unknownuser")).thenReturn(Optional.empty());
 
         // Act & Assert
         UsernameNotFoundException exception = assertThrows(
@@ -106,7 +114,7 @@ class UserDetailsServiceImplTest {
         );
 
         assertEquals("Login Username Invalid.", exception.getMessage());
-        verify(userRepository, times(1)).findByUsername("unknownuser");
+        verify(userRepository, times(1)).findWithRolesByUsername("unknownuser");
     }
 
     @Test
@@ -114,7 +122,7 @@ class UserDetailsServiceImplTest {
     void testLoadUserByUsername_UserWithoutRoles() {
         // Arrange
         testUser.setRoles(new HashSet<>()); // Utilisateur sans rôles
-        when(userRepository.findByUsername("testuser")).thenReturn(Optional.of(testUser));
+        when(userRepository.findWithRolesByUsername("testuser")).thenReturn(Optional.of(testUser));
 
         // Act
         UserDetails userDetails = userDetailsService.loadUserByUsername("testuser");
@@ -123,7 +131,7 @@ class UserDetailsServiceImplTest {
         assertNotNull(userDetails);
         assertEquals("testuser", userDetails.getUsername());
         assertEquals(0, userDetails.getAuthorities().size());
-        verify(userRepository, times(1)).findByUsername("testuser");
+        verify(userRepository, times(1)).findWithRolesByUsername("testuser");
     }
 
     @Test
@@ -139,7 +147,7 @@ class UserDetailsServiceImplTest {
         singleRoleSet.add(singleRole);
         testUser.setRoles(singleRoleSet);
 
-        when(userRepository.findByUsername("testuser")).thenReturn(Optional.of(testUser));
+        when(userRepository.findWithRolesByUsername("testuser")).thenReturn(Optional.of(testUser));
 
         // Act
         UserDetails userDetails = userDetailsService.loadUserByUsername("testuser");
@@ -148,35 +156,35 @@ class UserDetailsServiceImplTest {
         assertNotNull(userDetails);
         assertEquals(1, userDetails.getAuthorities().size());
         assertTrue(userDetails.getAuthorities().contains(new SimpleGrantedAuthority("ROLE_USER")));
-        verify(userRepository, times(1)).findByUsername("testuser");
+        verify(userRepository, times(1)).findWithRolesByUsername("testuser");
     }
 
     @Test
     @DisplayName("Doit gérer les username null")
     void testLoadUserByUsername_NullUsername() {
         // Arrange
-        when(userRepository.findByUsername((String) null)).thenReturn(Optional.empty());
+        when(userRepository.findWithRolesByUsername((String) null)).thenReturn(Optional.empty());
 
         // Act & Assert
         assertThrows(
                 UsernameNotFoundException.class,
                 () -> userDetailsService.loadUserByUsername((String) null)
         );
-        verify(userRepository, times(1)).findByUsername((String) null);
+        verify(userRepository, times(1)).findWithRolesByUsername((String) null);
     }
 
     @Test
     @DisplayName("Doit gérer les username vides")
     void testLoadUserByUsername_EmptyUsername() {
         // Arrange
-        when(userRepository.findByUsername("")).thenReturn(Optional.empty());
+        when(userRepository.findWithRolesByUsername("")).thenReturn(Optional.empty());
 
         // Act & Assert
         assertThrows(
                 UsernameNotFoundException.class,
                 () -> userDetailsService.loadUserByUsername("")
         );
-        verify(userRepository, times(1)).findByUsername("");
+        verify(userRepository, times(1)).findWithRolesByUsername("");
     }
 
     @Test
@@ -192,7 +200,7 @@ class UserDetailsServiceImplTest {
         specialRoles.add(specialRole);
         testUser.setRoles(specialRoles);
 
-        when(userRepository.findByUsername("testuser")).thenReturn(Optional.of(testUser));
+        when(userRepository.findWithRolesByUsername("testuser")).thenReturn(Optional.of(testUser));
 
         // Act
         UserDetails userDetails = userDetailsService.loadUserByUsername("testuser");
@@ -201,20 +209,60 @@ class UserDetailsServiceImplTest {
         assertNotNull(userDetails);
         assertEquals(1, userDetails.getAuthorities().size());
         assertTrue(userDetails.getAuthorities().contains(new SimpleGrantedAuthority("ROLE_SUPER_ADMIN")));
-        verify(userRepository, times(1)).findByUsername("testuser");
+        verify(userRepository, times(1)).findWithRolesByUsername("testuser");
     }
 
     @Test
     @DisplayName("Doit vérifier que UserDetails retourné est une instance de User")
     void testLoadUserByUsername_ReturnsUserInstance() {
         // Arrange
-        when(userRepository.findByUsername("testuser")).thenReturn(Optional.of(testUser));
+        when(userRepository.findWithRolesByUsername("testuser")).thenReturn(Optional.of(testUser));
 
         // Act
         UserDetails userDetails = userDetailsService.loadUserByUsername("testuser");
 
         // Assert
         assertInstanceOf(org.springframework.security.core.userdetails.User.class, userDetails);
-        verify(userRepository, times(1)).findByUsername("testuser");
+        verify(userRepository, times(1)).findWithRolesByUsername("testuser");
+    }
+
+    @Test
+    @DisplayName("updatePassword - Doit enregistrer le nouveau hash et invalider le cache")
+    void testUpdatePassword_PersistsNewHash() {
+        // Arrange
+        when(userRepository.findWithRolesByUsername("testuser")).thenReturn(Optional.of(testUser));
+        when(userRepository.findByUsername("testuser")).thenReturn(Optional.of(testUser));
+        UserDetails current = userDetailsService.loadUserByUsername("testuser");
+
+        // Act
+        UserDetails upgraded = userDetailsService.updatePassword(current, "{bcrypt}newHash");
+
+        // Assert
+        assertEquals("{bcrypt}newHash", upgraded.getPassword());
+        assertEquals(current.getAuthorities(), upgraded.getAuthorities());
+        assertEquals("{bcrypt}newHash", testUser.getPassword());
+        verify(userRepository).save(testUser);
+        verify(userCache).removeUserFromCache("testuser");
+    }
+
+    @Test
+    @DisplayName("updatePassword - Doit rehacher un hash de coût inférieur lors d'un login réussi")
+    void testUpdatePassword_RehashOnLogin() {
+        // Arrange : hash stocké en coût 4, encodeur courant en coût 5
+        testUser.setPassword(new BCryptPasswordEncoder(4).encode("secret"));
+        when(userRepository.findWithRolesByUsername("testuser")).thenReturn(Optional.of(testUser));
+        when(userRepository.findByUsername("testuser")).thenReturn(Optional.of(testUser));
+
+        DaoAuthenticationProvider provider = new DaoAuthenticationProvider();
+        provider.setUserDetailsService(userDetailsService);
+        provider.setUserDetailsPasswordService(userDetailsService);
+        provider.setPasswordEncoder(new BCryptPasswordEncoder(5));
+
+        // Act
+        provider.authenticate(new UsernamePasswordAuthenticationToken("testuser", "secret"));
+
+        // Assert
+        assertTrue(testUser.getPassword().startsWith("$2a$05$"));
+        verify(userRepository).save(any(User.class));
     }
-}
\ No newline at end of file
+}
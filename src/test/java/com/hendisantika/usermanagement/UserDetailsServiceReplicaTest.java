@@ -0,0 +1,93 @@
+package com.hendisantika.usermanagement;
+
+import com.hendisantika.usermanagement.config.ReplicaDataSources;
+import com.hendisantika.usermanagement.entity.User;
+import com.hendisantika.usermanagement.repository.UserRepository;
+import com.hendisantika.usermanagement.service.RoleRegistry;
+import com.hendisantika.usermanagement.service.UserDetailsServiceImpl;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Tests d'intégration : l'authentification doit lire le primaire même quand un réplica à jour est disponible.
+ * Le réplica est un schéma REPLICA de la même base H2, copié du primaire puis rendu périmé exprès.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:auth-replica;DB_CLOSE_DELAY=-1",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "password-hashing.bcrypt.strength=4",
+        // Pool opened lazily, once setUp has created the schema
+        "replica.datasource.urls=jdbc:h2:mem:auth-replica;DB_CLOSE_DELAY=-1;SCHEMA=REPLICA",
+        "replica.lag-query=select 0",
+        "replica.lag-check-interval=0"
+})
+@DisplayName("UserDetailsServiceImpl Replica Tests")
+class UserDetailsServiceReplicaTest {
+
+    @Autowired
+    private UserDetailsServiceImpl userDetailsService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private RoleRegistry roleRegistry;
+
+    @Autowired
+    private ReplicaDataSources replicas;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        userRepository.deleteAll();
+        User user = new User();
+        user.setFirstName("alice");
+        user.setLastName("alice");
+        user.setEmail("alice@example.com");
+        user.setUsername("alice");
+        user.setPassword("new-hash");
+        user.setRoles(Set.of(roleRegistry.findByName("USER")));
+        userRepository.save(user);
+
+        // Réplica en retard : ancien mot de passe et rôle ADMIN pas encore retiré
+        jdbcTemplate.execute("create schema if not exists replica");
+        for (String table : new String[]{"users", "role", "user_roles"}) {
+            jdbcTemplate.execute("drop table if exists replica." + table);
+            jdbcTemplate.execute("create table replica." + table + " as select * from public." + table);
+        }
+        jdbcTemplate.update("update replica.users set password = 'old-hash'");
+        jdbcTemplate.update("update replica.user_roles set role_id = ?", roleRegistry.findByName("ADMIN").getId());
+        replicas.checkLag();
+    }
+
+    @Test
+    @DisplayName("Doit charger le mot de passe et les rôles depuis le primaire")
+    void testLoadUserByUsername_ReadsPrimary() {
+        // Arrange
+        assertEquals("old-hash", new JdbcTemplate(replicas.get(0))
+                .queryForObject("select password from users", String.class));
+
+        // Act
+        UserDetails details = userDetailsService.loadUserByUsername("alice");
+
+        // Assert
+        assertEquals("new-hash", details.getPassword());
+        assertEquals(Set.of(roleRegistry.findByName("USER").getDescription()), details.getAuthorities().stream().map(GrantedAuthority::getAuthority)
+                .collect(Collectors.toSet()));
+    }
+}
@@ -0,0 +1,100 @@
+package com.hendisantika.usermanagement;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.hendisantika.usermanagement.dto.UserSummary;
+import com.hendisantika.usermanagement.repository.UserRepository;
+import com.hendisantika.usermanagement.service.UserExportService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.when;
+
+/**
+ * Tests unitaires pour UserExportService
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("UserExportService Tests")
+class UserExportServiceTest {
+
+    private static final LocalDateTime T0 = LocalDateTime.of(2024, 1, 1, 10, 0);
+
+    @Mock
+    private UserRepository repository;
+
+    @Spy
+    private ObjectMapper objectMapper = new ObjectMapper()
+            .registerModule(new JavaTimeModule())
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+
+    @InjectMocks
+    private UserExportService userExportService;
+
+    @Test
+    @DisplayName("exportCsv - Doit échapper les champs et fermer le curseur")
+    void testExportCsv() throws Exception {
+        // Arrange
+        AtomicBoolean closed = new AtomicBoolean();
+        when(repository.streamSummaries()).thenReturn(Stream.of(
+                new UserSummary(1L, "Ann", "O\"Neil, Jr", "ann", "ann@example.com", T0, null),
+                new UserSummary(2L, "Bob", "Smith", "bob", "bob@example.com", T0, T0)
+        ).onClose(() -> closed.set(true)));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        // Act
+        long rows = userExportService.exportCsv(out);
+
+        // Assert
+        assertEquals(2, rows);
+        assertEquals(UserExportService.CSV_HEADER + "\r\n"
+                        + "1,Ann,\"O\"\"Neil, Jr\",ann,ann@example.com,2024-01-01T10:00,\r\n"
+                        + "2,Bob,Smith,bob,bob@example.com,2024-01-01T10:00,2024-01-01T10:00\r\n",
+                out.toString(StandardCharsets.UTF_8));
+        assertTrue(closed.get());
+    }
+
+    @Test
+    @DisplayName("exportNdjson - Doit écrire un objet JSON par ligne")
+    void testExportNdjson() throws Exception {
+        // Arrange
+        when(repository.streamSummaries()).thenReturn(Stream.of(
+                new UserSummary(1L, "Ann", "Lee", "ann", "ann@example.com", T0, null),
+                new UserSummary(2L, "Bob", "Smith", "bob", "bob@example.com", T0, T0)
+        ));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        // Act
+        long rows = userExportService.exportNdjson(out);
+
+        // Assert
+        assertEquals(2, rows);
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(2, lines.length);
+        assertEquals("ann", objectMapper.readTree(lines[0]).get("username").asText());
+        assertEquals("2024-01-01T10:00:00", objectMapper.readTree(lines[1]).get("createdOn").asText());
+        assertFalse(lines[0].contains("password"));
+    }
+
+    @Test
+    @DisplayName("exportNdjson - Export vide")
+    void testExportNdjson_Empty() throws Exception {
+        when(repository.streamSummaries()).thenReturn(Stream.empty());
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        assertEquals(0, userExportService.exportNdjson(out));
+        assertEquals(0, out.size());
+    }
+}
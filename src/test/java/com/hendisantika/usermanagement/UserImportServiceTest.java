@@ -0,0 +1,240 @@
+package com.hendisantika.usermanagement;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hendisantika.usermanagement.dto.UserImportReport;
+import com.hendisantika.usermanagement.entity.AuditEvent;
+import com.hendisantika.usermanagement.entity.Role;
+import com.hendisantika.usermanagement.entity.User;
+import com.hendisantika.usermanagement.exception.PasswordHashingRejectedException;
+import com.hendisantika.usermanagement.repository.RoleRepository;
+import com.hendisantika.usermanagement.repository.UserRepository;
+import com.hendisantika.usermanagement.service.AuditTrail;
+import com.hendisantika.usermanagement.service.RoleRegistry;
+import com.hendisantika.usermanagement.service.UserImportService;
+import com.hendisantika.usermanagement.service.UserSearchIndex;
+import com.hendisantika.usermanagement.service.UserSuggestIndex;
+import com.hendisantika.usermanagement.service.UsernameBloomFilter;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.validation.beanvalidation.LocalValidatorFactoryBean;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Tests d'intégration de l'import en masse sur H2 : parsing, validation, hachage et insertion par lots.
+ * Hors transaction de test, pour que chaque lot soit réellement commité comme en production.
+ */
+@DataJpaTest(properties = {"user-import.batch-size=2", "user-import.hash-parallelism=2"})
+@Import({UserImportService.class, RoleRegistry.class, UserImportServiceTest.Config.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@DisplayName("UserImportService Tests")
+class UserImportServiceTest {
+
+    private static final String HEADER = "firstName,lastName,email,username,password,roles\n";
+
+    @TestConfiguration
+    static class Config {
+
+        @Bean
+        PasswordEncoder passwordEncoder() {
+            return new BCryptPasswordEncoder(4);
+        }
+
+        @Bean
+        LocalValidatorFactoryBean validator() {
+            return new LocalValidatorFactoryBean();
+        }
+
+        @Bean
+        ObjectMapper objectMapper() {
+            return new ObjectMapper();
+        }
+    }
+
+    @Autowired
+    private UserImportService userImportService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private RoleRepository roleRepository;
+
+    @Autowired
+    private RoleRegistry roleRegistry;
+
+    @SpyBean
+    private PasswordEncoder passwordEncoder;
+
+    @MockBean
+    private UsernameBloomFilter usernameFilter;
+
+    @MockBean
+    private UserSearchIndex searchIndex;
+
+    @MockBean
+    private UserSuggestIndex suggestIndex;
+
+    @MockBean
+    private AuditTrail auditTrail;
+
+    @BeforeEach
+    void setUp() {
+        roleRegistry.saveAll(List.of(new Role(null, "ADMIN", "ROLE ADMIN"), new Role(null, "USER", "ROLE USER")));
+        when(usernameFilter.mightContain(anyString())).thenReturn(true);
+    }
+
+    @AfterEach
+    void tearDown() {
+        userRepository.deleteAll();
+        roleRepository.deleteAll();
+    }
+
+    @Test
+    @DisplayName("CSV - Importe les lignes valides et rapporte les erreurs ligne par ligne")
+    void testImportCsv() throws Exception {
+        // Arrange
+        String csv = HEADER
+                + "Alice,\"Martin, Jr\",alice@example.com,alice,secret1,ADMIN|USER\r\n"
+                + "B,Brown,bob@example.com,bob,secret2,\n"
+                + "Carol,Smith,carol@example.com,carol,secret3,GUEST\n"
+                + "\n"
+                + "Dave,Jones,dave@example.com,dave,secret4,\n"
+                + "Alice,Other,alice2@example.com,alice,secret5,USER\n"
+                + "Eve,Evans,eve@example.com\n";
+
+        // Act
+        UserImportReport report = userImportService.importUsers(stream(csv), UserImportService.Format.CSV);
+
+        // Assert
+        assertEquals(6, report.getRows());
+        assertEquals(2, report.getImported());
+        assertEquals(Set.of(2, 3, 5, 6), report.getErrors().stream().map(UserImportReport.RowError::getRow)
+                .collect(Collectors.toSet()));
+        assertEquals("firstName", errorFor(report, 2).getField());
+        assertEquals("Unknown role: GUEST", errorFor(report, 3).getMessage());
+        assertEquals("Duplicate username in file", errorFor(report, 5).getMessage());
+
+        User alice = userRepository.findWithRolesByUsername("alice").orElseThrow();
+        assertEquals("Martin, Jr", alice.getLastName());
+        assertEquals(2, alice.getRoles().size());
+        assertTrue(passwordEncoder.matches("secret1", alice.getPassword()));
+        assertNotNull(alice.getCreatedOn());
+        assertEquals("USER", userRepository.findWithRolesByUsername("dave").orElseThrow()
+                .getRoles().iterator().next().getName());
+        verify(usernameFilter).put("dave");
+        verify(auditTrail).publish(eq(AuditEvent.Action.CREATE), argThat(u -> "alice".equals(u.getUsername())));
+        verify(auditTrail).publish(eq(AuditEvent.Action.CREATE), argThat(u -> "dave".equals(u.getUsername())));
+    }
+
+    @Test
+    @DisplayName("Pool de hachage saturé - Le lot refusé est rapporté, les autres lots sont importés")
+    void testImportCsv_HashingRejected() throws Exception {
+        // Arrange : lots de 2, le deuxième contient un mot de passe refusé par le pool
+        doThrow(new PasswordHashingRejectedException("Server busy, please retry shortly.", 1))
+                .when(passwordEncoder).encode("busy");
+        String csv = HEADER
+                + "Alice,Martin,alice@example.com,alice,secret1,USER\n"
+                + "Bob,Brown,bob@example.com,bob,secret2,USER\n"
+                + "Carol,Smith,carol@example.com,carol,secret3,USER\n"
+                + "Dave,Jones,dave@example.com,dave,busy,USER\n"
+                + "Erin,Evans,erin@example.com,erin,secret5,USER\n";
+
+        // Act
+        UserImportReport report = userImportService.importUsers(stream(csv), UserImportService.Format.CSV);
+
+        // Assert
+        assertEquals(5, report.getRows());
+        assertEquals(3, report.getImported());
+        assertEquals(Set.of(3, 4), report.getErrors().stream().map(UserImportReport.RowError::getRow)
+                .collect(Collectors.toSet()));
+        assertEquals("Not imported: server busy, retry this row", errorFor(report, 3).getMessage());
+        assertTrue(userRepository.findByUsername("carol").isEmpty());
+        assertTrue(userRepository.findByUsername("erin").isPresent());
+        verify(auditTrail, never()).publish(eq(AuditEvent.Action.CREATE), argThat(u -> "carol".equals(u.getUsername())));
+    }
+
+    @Test
+    @DisplayName("NDJSON - Refuse les usernames déjà pris et conserve les hachages fournis")
+    void testImportNdjson() throws Exception {
+        // Arrange
+        userImportService.importUsers(stream(HEADER + "Alice,Martin,alice@example.com,alice,secret1,USER\n"),
+                UserImportService.Format.CSV);
+        String hash = "{bcrypt}" + new BCryptPasswordEncoder(4).encode("migrated");
+        String ndjson = "{\"firstName\":\"Alice\",\"lastName\":\"Again\",\"email\":\"a@example.com\",\"username\":\"alice\",\"password\":\"x1\"}\n"
+                + "{\"firstName\":\"Frank\",\"lastName\":\"Miller\",\"email\":\"f@example.com\",\"username\":\"frank\",\"password\":\"" + hash + "\",\"roles\":[\"ADMIN\"]}\n"
+                + "not json\n";
+
+        // Act
+        UserImportReport report = userImportService.importUsers(stream(ndjson), UserImportService.Format.NDJSON);
+
+        // Assert
+        assertEquals(3, report.getRows());
+        assertEquals(1, report.getImported());
+        assertEquals("Username not available", errorFor(report, 1).getMessage());
+        assertNull(errorFor(report, 3).getField());
+        assertEquals(hash, userRepository.findByUsername("frank").orElseThrow().getPassword());
+    }
+
+    @Test
+    @DisplayName("Reprise ligne à ligne - Indexe les utilisateurs sous l'id réellement inséré")
+    void testBatchRetry_IndexesSavedUsers() throws Exception {
+        // Arrange : carol existe déjà mais le filtre l'ignore, le lot échoue donc sur la contrainte
+        userImportService.importUsers(stream(HEADER + "Carol,Smith,carol@example.com,carol,secret1,USER\n"),
+                UserImportService.Format.CSV);
+        when(usernameFilter.mightContain("carol")).thenReturn(false);
+        String csv = HEADER
+                + "Bob,Brown,bob@example.com,bob,secret2,USER\n"
+                + "Carol,Again,carol2@example.com,carol,secret3,USER\n";
+
+        // Act
+        UserImportReport report = userImportService.importUsers(stream(csv), UserImportService.Format.CSV);
+
+        // Assert
+        assertEquals(1, report.getImported());
+        assertEquals("Username not available", errorFor(report, 2).getMessage());
+        User bob = userRepository.findByUsername("bob").orElseThrow();
+        ArgumentCaptor<User> indexed = ArgumentCaptor.forClass(User.class);
+        verify(searchIndex, atLeastOnce()).put(indexed.capture());
+        User indexedBob = indexed.getAllValues().stream().filter(u -> "bob".equals(u.getUsername()))
+                .reduce((first, second) -> second).orElseThrow();
+        assertEquals(bob.getId(), indexedBob.getId());
+        assertEquals(2, userRepository.count());
+    }
+
+    private ByteArrayInputStream stream(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private UserImportReport.RowError errorFor(UserImportReport report, int row) {
+        return report.getErrors().stream().filter(e -> e.getRow() == row).findFirst().orElseThrow();
+    }
+}
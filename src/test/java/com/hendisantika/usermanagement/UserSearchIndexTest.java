@@ -0,0 +1,136 @@
+package com.hendisantika.usermanagement;
+
+import com.hendisantika.usermanagement.dto.UserSummary;
+import com.hendisantika.usermanagement.entity.User;
+import com.hendisantika.usermanagement.repository.UserRepository;
+import com.hendisantika.usermanagement.service.UserSearchIndex;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.when;
+
+/**
+ * Tests unitaires pour UserSearchIndex
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("UserSearchIndex Tests")
+class UserSearchIndexTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    private UserSearchIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new UserSearchIndex(userRepository, transactionTemplate);
+        index.put(user(1L, "alice", "Alice", "Martin", "alice@example.com"));
+        index.put(user(2L, "alicia", "Alicia", "Keys", "ak@music.org"));
+        index.put(user(3L, "bob", "Robert", "Malice", "bob@example.com"));
+        index.put(user(4L, "carol", "Carol", "Smith", "carol@corp.net"));
+    }
+
+    @Test
+    @DisplayName("Doit se construire depuis le flux de la base au démarrage")
+    void testBuild() {
+        // Arrange
+        UserSearchIndex fresh = new UserSearchIndex(userRepository, transactionTemplate);
+        doAnswer(invocation -> {
+            invocation.<Consumer<Object>>getArgument(0).accept(null);
+            return null;
+        }).when(transactionTemplate).executeWithoutResult(any());
+        when(userRepository.streamSummaries()).thenReturn(Stream.of(user(7L, "zed", "Zed", "Zee", "z@z.io")));
+
+        // Act
+        fresh.afterSingletonsInstantiated();
+
+        // Assert
+        assertEquals(1, fresh.size());
+        assertEquals(List.of(7L), ids(fresh.search("ze", 10)));
+    }
+
+    @Test
+    @DisplayName("Recherche par préfixe : la correspondance exacte d'abord, insensible à la casse")
+    void testSearch_Prefix() {
+        assertEquals(List.of(1L, 2L, 3L), ids(index.search("ALIC", 10)));
+        assertEquals(1L, index.search("alice", 10).get(0).getId());
+        assertEquals(List.of(4L), ids(index.search("smi", 10)));
+    }
+
+    @Test
+    @DisplayName("Recherche par sous-chaîne via les trigrammes, après les préfixes")
+    void testSearch_Substring() {
+        // "alice" est le préfixe de alice et une sous-chaîne de Malice
+        assertEquals(List.of(1L, 3L), ids(index.search("alice", 10)));
+        assertEquals(List.of(1L, 3L), ids(index.search("example", 10)));
+        assertEquals(List.of(), ids(index.search("xyz", 10)));
+    }
+
+    @Test
+    @DisplayName("Doit respecter la limite de résultats")
+    void testSearch_Limit() {
+        assertEquals(1, index.search("a", 1).size());
+        assertTrue(index.search("", 10).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Mise à jour et suppression retirent les anciens termes")
+    void testPutAndRemove() {
+        // Act
+        index.put(user(4L, "caroline", "Caroline", "Jones", "caroline@corp.net"));
+        index.remove(1L);
+
+        // Assert
+        assertEquals(List.of(), ids(index.search("smith", 10)));
+        assertEquals(List.of(4L), ids(index.search("jones", 10)));
+        assertEquals(List.of(3L), ids(index.search("alice", 10)));
+        assertEquals(3, index.size());
+    }
+
+    @Test
+    @DisplayName("Un lot doit s'ajouter aux listes existantes et remplacer les utilisateurs déjà indexés")
+    void testPutAll() {
+        // Act
+        index.putAll(List.of(entity(6L, "dave", "dave@example.com"), entity(5L, "erin", "erin@example.com"),
+                entity(2L, "alicia", "alicia@example.com")));
+
+        // Assert
+        assertEquals(List.of(1L, 2L, 3L, 5L, 6L), ids(index.search("example", 10)).stream().sorted().toList());
+        assertEquals(List.of(), ids(index.search("music", 10)));
+        assertEquals(List.of(6L), ids(index.search("dave", 10)));
+        assertEquals(6, index.size());
+    }
+
+    private static User entity(Long id, String username, String email) {
+        User user = new User();
+        user.setId(id);
+        user.setUsername(username);
+        user.setFirstName(username);
+        user.setLastName(username);
+        user.setEmail(email);
+        return user;
+    }
+
+    private static UserSummary user(Long id, String username, String first, String last, String email) {
+        return new UserSummary(id, first, last, username, email, null, null);
+    }
+
+    private static List<Long> ids(List<UserSummary> users) {
+        return users.stream().map(UserSummary::getId).toList();
+    }
+}
@@ -1,12 +1,20 @@
 package com.hendisantika.usermanagement;
 
 import com.hendisantika.usermanagement.dto.ChangePasswordForm;
+import com.hendisantika.usermanagement.dto.UserPage;
+import com.hendisantika.usermanagement.dto.UserSummary;
+import com.hendisantika.usermanagement.entity.AuditEvent;
 import com.hendisantika.usermanagement.entity.Role;
 import com.hendisantika.usermanagement.entity.User;
 import com.hendisantika.usermanagement.exception.CustomFieldValidationException;
 import com.hendisantika.usermanagement.exception.UsernameOrIdNotFound;
 import com.hendisantika.usermanagement.repository.UserRepository;
+import com.hendisantika.usermanagement.service.AuditTrail;
+import com.hendisantika.usermanagement.service.UserSearchIndex;
 import com.hendisantika.usermanagement.service.UserService;
+import com.hendisantika.usermanagement.service.UserSuggestIndex;
+import com.hendisantika.usermanagement.service.UsernameBloomFilter;
+import org.hibernate.exception.ConstraintViolationException;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -16,18 +24,25 @@ import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContext;
 import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.UserCache;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 
+import java.sql.SQLException;
+import java.time.LocalDateTime;
 import java.util.*;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.*;
 
@@ -45,6 +60,21 @@ class UserServiceTest {
     @Mock
     private BCryptPasswordEncoder bCryptPasswordEncoder;
 
+    @Mock
+    private UserCache userCache;
+
+    @Mock
+    private UsernameBloomFilter usernameFilter;
+
+    @Mock
+    private UserSearchIndex searchIndex;
+
+    @Mock
+    private UserSuggestIndex suggestIndex;
+
+    @Mock
+    private AuditTrail auditTrail;
+
     @Mock
     private SecurityContext securityContext;
 
@@ -78,6 +108,9 @@ class UserServiceTest {
         testUser.setFirstName("Test");
         testUser.setLastName("User");
         testUser.setRoles(roles);
+
+        // Par défaut le filtre ne tranche pas, la base est consultée
+        lenient().when(usernameFilter.mightContain(anyString())).thenReturn(true);
     }
 
     @AfterEach
@@ -118,13 +151,118 @@ class UserServiceTest {
         verify(repository, times(1)).findAll();
     }
 
+    // ==================== Tests pour getUserPage() ====================
+
+    @Test
+    @DisplayName("getUserPage - Première page par id avec curseur suivant")
+    void testGetUserPage_FirstPageById() {
+        // Arrange
+        when(repository.findSummariesOrderById(Limit.of(3))).thenReturn(Arrays.asList(user(1L), user(2L), user(3L)));
+
+        // Act
+        UserPage page = userService.getUserPage(UserPage.SortKey.ID, null, null, 2);
+
+        // Assert
+        assertEquals(2, page.getUsers().size());
+        assertEquals(2, page.getSize());
+        assertNull(page.getPreviousCursor());
+        assertEquals("2", page.getNextCursor());
+    }
+
+    @Test
+    @DisplayName("getUserPage - Dernière page par id sans curseur suivant")
+    void testGetUserPage_LastPageById() {
+        // Arrange
+        when(repository.findSummariesAfterId(2L, Limit.of(3))).thenReturn(List.of(user(3L)));
+
+        // Act
+        UserPage page = userService.getUserPage(UserPage.SortKey.ID, "2", null, 2);
+
+        // Assert
+        assertEquals(1, page.getUsers().size());
+        assertEquals("3", page.getPreviousCursor());
+        assertNull(page.getNextCursor());
+    }
+
+    @Test
+    @DisplayName("getUserPage - Page précédente remise dans l'ordre croissant")
+    void testGetUserPage_BackwardById() {
+        // Arrange
+        when(repository.findSummariesBeforeId(5L, Limit.of(3))).thenReturn(Arrays.asList(user(4L), user(3L)));
+
+        // Act
+        UserPage page = userService.getUserPage(UserPage.SortKey.ID, null, "5", 2);
+
+        // Assert
+        assertEquals(3L, page.getUsers().get(0).getId());
+        assertEquals(4L, page.getUsers().get(1).getId());
+        assertNull(page.getPreviousCursor());
+        assertEquals("4", page.getNextCursor());
+    }
+
+    @Test
+    @DisplayName("getUserPage - Curseur (createdOn, id) décodé et ré-encodé")
+    void testGetUserPage_ByCreatedOn() {
+        // Arrange
+        LocalDateTime createdOn = LocalDateTime.of(2024, 1, 1, 10, 0, 5);
+        UserSummary next = new UserSummary(7L, "Test", "User", "testuser", "test@example.com",
+                createdOn.plusSeconds(1), null);
+        when(repository.findSummariesAfterCreatedOn(createdOn, 6L, Limit.of(2))).thenReturn(List.of(next));
+
+        // Act
+        UserPage page = userService.getUserPage(UserPage.SortKey.CREATED_ON, createdOn + "_6", null, 1);
+
+        // Assert
+        assertEquals(1, page.getUsers().size());
+        assertEquals("2024-01-01T10:00:06_7", page.getPreviousCursor());
+        assertNull(page.getNextCursor());
+    }
+
+    @Test
+    @DisplayName("getUserPage - Utilisateur sans createdOn : curseur sur l'id seul, relu tel quel")
+    void testGetUserPage_ByCreatedOn_Undated() {
+        // Arrange
+        when(repository.findSummariesAfterUndated(6L, Limit.of(2))).thenReturn(List.of(user(7L), user(8L)));
+
+        // Act
+        UserPage page = userService.getUserPage(UserPage.SortKey.CREATED_ON, "_6", null, 1);
+
+        // Assert
+        assertEquals(7L, page.getUsers().get(0).getId());
+        assertEquals("_7", page.getPreviousCursor());
+        assertEquals("_7", page.getNextCursor());
+        verify(repository, never()).findSummariesOrderByCreatedOn(any());
+    }
+
+    @Test
+    @DisplayName("getUserPage - Curseur invalide ramène à la première page")
+    void testGetUserPage_MalformedCursor() {
+        // Arrange
+        when(repository.findSummariesOrderById(Limit.of(51))).thenReturn(List.of(user(1L)));
+
+        // Act
+        UserPage page = userService.getUserPage(UserPage.SortKey.ID, "abc", null, UserService.DEFAULT_PAGE_SIZE);
+
+        // Assert
+        assertEquals(1, page.getUsers().size());
+        verify(repository, never()).findSummariesAfterId(any(), any());
+    }
+
+    private UserSummary user(Long id) {
+        return new UserSummary(id, "Test", "User", "user" + id, "user" + id + "@example.com", null, null);
+    }
+
+    private DataIntegrityViolationException constraintViolation(String constraintName) {
+        return new DataIntegrityViolationException("could not execute statement",
+                new ConstraintViolationException("duplicate", new SQLException(), constraintName));
+    }
+
     // ==================== Tests pour createUser() ====================
 
     @Test
     @DisplayName("createUser - Doit créer un utilisateur avec succès")
     void testCreateUser_Success() throws Exception {
         // Arrange
-        when(repository.findByUsername("testuser")).thenReturn(Optional.empty());
         when(bCryptPasswordEncoder.encode("password123")).thenReturn("encodedPassword123");
         when(repository.save(any(User.class))).thenReturn(testUser);
 
@@ -134,16 +272,86 @@ class UserServiceTest {
         // Assert
         assertNotNull(result);
         assertEquals("testuser", result.getUsername());
-        verify(repository, times(1)).findByUsername("testuser");
+        verify(repository, never()).findByUsername(anyString());
         verify(bCryptPasswordEncoder, times(1)).encode("password123");
         verify(repository, times(1)).save(any(User.class));
     }
 
     @Test
-    @DisplayName("createUser - Doit lever CustomFieldValidationException si username existe déjà")
-    void testCreateUser_UsernameNotAvailable() {
+    @DisplayName("createUser - Doit ajouter le username au filtre et à l'index de recherche")
+    void testCreateUser_AddsToFilter() throws Exception {
+        // Arrange
+        when(bCryptPasswordEncoder.encode("password123")).thenReturn("encodedPassword123");
+        when(repository.save(any(User.class))).thenReturn(testUser);
+
+        // Act
+        userService.createUser(testUser);
+
+        // Assert
+        verify(usernameFilter, times(1)).put("testuser");
+        verify(searchIndex, times(1)).put(testUser);
+    }
+
+    @Test
+    @DisplayName("createUser - Doit publier un événement d'audit")
+    void testCreateUser_PublishesAuditEvent() throws Exception {
         // Arrange
-        when(repository.findByUsername("testuser")).thenReturn(Optional.of(testUser));
+        when(bCryptPasswordEncoder.encode("password123")).thenReturn("encodedPassword123");
+        when(repository.save(any(User.class))).thenReturn(testUser);
+
+        // Act
+        userService.createUser(testUser);
+
+        // Assert
+        verify(auditTrail, times(1)).publish(AuditEvent.Action.CREATE, testUser);
+    }
+
+    @Test
+    @DisplayName("isUsernameAvailable - Répond sans requête si le filtre exclut le username")
+    void testIsUsernameAvailable_DefinitelyAbsent() {
+        // Arrange
+        when(usernameFilter.mightContain("newuser")).thenReturn(false);
+
+        // Act & Assert
+        assertTrue(userService.isUsernameAvailable("newuser"));
+        verify(repository, never()).existsByUsername(anyString());
+    }
+
+    @Test
+    @DisplayName("isUsernameAvailable - Vérifie en base si le filtre signale un username possible")
+    void testIsUsernameAvailable_MaybePresent() {
+        // Arrange
+        when(repository.existsByUsername("testuser")).thenReturn(true);
+        when(repository.existsByUsername("ghost")).thenReturn(false);
+
+        // Act & Assert
+        assertFalse(userService.isUsernameAvailable("testuser"));
+        assertTrue(userService.isUsernameAvailable("ghost"));
+        assertFalse(userService.isUsernameAvailable(" "));
+    }
+
+    @Test
+    @DisplayName("createUser - Ne consulte pas la base si le filtre exclut le username")
+    void testCreateUser_FilterSkipsLookup() throws Exception {
+        // Arrange
+        when(usernameFilter.mightContain("testuser")).thenReturn(false);
+        when(bCryptPasswordEncoder.encode("password123")).thenReturn("encodedPassword123");
+        when(repository.save(any(User.class))).thenReturn(testUser);
+
+        // Act
+        userService.createUser(testUser);
+
+        // Assert
+        verify(repository, never()).existsByUsername(anyString());
+        verify(usernameFilter, times(1)).put("testuser");
+    }
+
+    @Test
+    @DisplayName("createUser - Doit refuser un username pris sans calculer de hachage")
+    void testCreateUser_UsernameTakenBeforeHash() {
+        // Arrange
+        when(usernameFilter.mightContain("testuser")).thenReturn(true);
+        when(repository.existsByUsername("testuser")).thenReturn(true);
 
         // Act & Assert
         CustomFieldValidationException exception = assertThrows(
@@ -153,17 +361,46 @@ class UserServiceTest {
 
         assertEquals("Username not available", exception.getMessage());
         assertEquals("username", exception.getFieldName());
-        verify(repository, times(1)).findByUsername("testuser");
         verify(bCryptPasswordEncoder, never()).encode(anyString());
         verify(repository, never()).save(any(User.class));
     }
 
+    @Test
+    @DisplayName("createUser - Doit lever CustomFieldValidationException si username pris entre-temps")
+    void testCreateUser_UsernameNotAvailable() {
+        // Arrange
+        when(bCryptPasswordEncoder.encode("password123")).thenReturn("encodedPassword123");
+        when(repository.save(any(User.class))).thenThrow(constraintViolation("PUBLIC.UK_USERS_USERNAME"));
+
+        // Act & Assert
+        CustomFieldValidationException exception = assertThrows(
+                CustomFieldValidationException.class,
+                () -> userService.createUser(testUser)
+        );
+
+        assertEquals("Username not available", exception.getMessage());
+        assertEquals("username", exception.getFieldName());
+        verify(repository, never()).findByUsername(anyString());
+        verify(repository, times(1)).save(any(User.class));
+        verify(usernameFilter, never()).put(anyString());
+    }
+
+    @Test
+    @DisplayName("createUser - Doit propager les autres violations d'intégrité")
+    void testCreateUser_OtherConstraintViolation() {
+        // Arrange
+        when(bCryptPasswordEncoder.encode("password123")).thenReturn("encodedPassword123");
+        when(repository.save(any(User.class))).thenThrow(constraintViolation("FK_USER_ROLES_ROLE_ID"));
+
+        // Act & Assert
+        assertThrows(DataIntegrityViolationException.class, () -> userService.createUser(testUser));
+    }
+
     @Test
     @DisplayName("createUser - Doit lever CustomFieldValidationException si confirmPassword est null")
     void testCreateUser_ConfirmPasswordNull() {
         // Arrange
         testUser.setConfirmPassword(null);
-        when(repository.findByUsername("testuser")).thenReturn(Optional.empty());
 
         // Act & Assert
         CustomFieldValidationException exception = assertThrows(
@@ -173,7 +410,6 @@ class UserServiceTest {
 
         assertEquals("Confirm Password is required", exception.getMessage());
         assertEquals("confirmPassword", exception.getFieldName());
-        verify(repository, times(1)).findByUsername("testuser");
         verify(bCryptPasswordEncoder, never()).encode(anyString());
         verify(repository, never()).save(any(User.class));
     }
@@ -183,7 +419,6 @@ class UserServiceTest {
     void testCreateUser_ConfirmPasswordEmpty() {
         // Arrange
         testUser.setConfirmPassword("");
-        when(repository.findByUsername("testuser")).thenReturn(Optional.empty());
 
         // Act & Assert
         CustomFieldValidationException exception = assertThrows(
@@ -193,7 +428,6 @@ class UserServiceTest {
 
         assertEquals("Confirm Password is required", exception.getMessage());
         assertEquals("confirmPassword", exception.getFieldName());
-        verify(repository, times(1)).findByUsername("testuser");
         verify(bCryptPasswordEncoder, never()).encode(anyString());
         verify(repository, never()).save(any(User.class));
     }
@@ -203,7 +437,6 @@ class UserServiceTest {
     void testCreateUser_PasswordsDoNotMatch() {
         // Arrange
         testUser.setConfirmPassword("differentPassword");
-        when(repository.findByUsername("testuser")).thenReturn(Optional.empty());
 
         // Act & Assert
         CustomFieldValidationException exception = assertThrows(
@@ -213,7 +446,6 @@ class UserServiceTest {
 
         assertEquals("Password and Confirm Password are not the same", exception.getMessage());
         assertEquals("password", exception.getFieldName());
-        verify(repository, times(1)).findByUsername("testuser");
         verify(bCryptPasswordEncoder, never()).encode(anyString());
         verify(repository, never()).save(any(User.class));
     }
@@ -252,6 +484,30 @@ class UserServiceTest {
         verify(repository, times(1)).findById(999L);
     }
 
+    @Test
+    @DisplayName("getUserWithRolesById - Doit charger l'utilisateur et ses rôles en une requête")
+    void testGetUserWithRolesById_Success() throws UsernameOrIdNotFound {
+        // Arrange
+        when(repository.findWithRolesById(1L)).thenReturn(Optional.of(testUser));
+
+        // Act
+        User result = userService.getUserWithRolesById(1L);
+
+        // Assert
+        assertSame(testUser, result);
+        verify(repository, never()).findById(anyLong());
+    }
+
+    @Test
+    @DisplayName("getUserWithRolesById - Doit lever UsernameOrIdNotFound si l'utilisateur n'existe pas")
+    void testGetUserWithRolesById_NotFound() {
+        // Arrange
+        when(repository.findWithRolesById(999L)).thenReturn(Optional.empty());
+
+        // Act & Assert
+        assertThrows(UsernameOrIdNotFound.class, () -> userService.getUserWithRolesById(999L));
+    }
+
     // ==================== Tests pour updateUser() ====================
 
     @Test
@@ -305,6 +561,10 @@ class UserServiceTest {
         assertEquals(updatedRoles, savedUser.getRoles());
         // Le password ne doit pas être changé par mapUser
         assertEquals("oldPassword", savedUser.getPassword());
+
+        // Le cache de login est invalidé sous l'ancien et le nouveau username
+        verify(userCache).removeUserFromCache("oldusername");
+        verify(userCache).removeUserFromCache("updatedusername");
     }
 
     @Test
@@ -321,6 +581,61 @@ class UserServiceTest {
         verify(repository, never()).save(any(User.class));
     }
 
+    @Test
+    @DisplayName("updateUser - Doit lever CustomFieldValidationException si le nouveau username est pris")
+    void testUpdateUser_UsernameTaken() {
+        // Arrange
+        User fromUser = new User();
+        fromUser.setId(1L);
+        fromUser.setUsername("taken");
+        when(repository.findById(1L)).thenReturn(Optional.of(testUser));
+        when(repository.save(any(User.class))).thenThrow(constraintViolation("uk_users_username"));
+
+        // Act & Assert
+        CustomFieldValidationException exception = assertThrows(
+                CustomFieldValidationException.class,
+                () -> userService.updateUser(fromUser)
+        );
+
+        assertEquals("username", exception.getFieldName());
+        verify(usernameFilter, never()).put(anyString());
+    }
+
+    @Test
+    @DisplayName("updateUser - Doit refuser la mise à jour si la version attendue est dépassée")
+    void testUpdateUser_StaleVersion() {
+        // Arrange
+        testUser.setVersion(3L);
+        User fromUser = new User();
+        fromUser.setId(1L);
+        fromUser.setUsername("newname");
+        when(repository.findById(1L)).thenReturn(Optional.of(testUser));
+
+        // Act & Assert
+        assertThrows(ObjectOptimisticLockingFailureException.class, () -> userService.updateUser(fromUser, Set.of(2L)));
+        assertEquals("testuser", testUser.getUsername());
+        verify(repository, never()).save(any(User.class));
+    }
+
+    @Test
+    @DisplayName("updateUser - Doit accepter la mise à jour si l'une des versions attendues est courante")
+    void testUpdateUser_AnyExpectedVersion() throws Exception {
+        // Arrange
+        testUser.setVersion(4L);
+        User fromUser = new User();
+        fromUser.setId(1L);
+        fromUser.setUsername("newname");
+        when(repository.findById(1L)).thenReturn(Optional.of(testUser));
+        when(repository.save(any(User.class))).thenReturn(testUser);
+
+        // Act
+        userService.updateUser(fromUser, Set.of(3L, 4L));
+
+        // Assert
+        verify(repository).save(testUser);
+        assertEquals("newname", testUser.getUsername());
+    }
+
     @Test
     @DisplayName("updateUser - Doit mapper correctement avec des valeurs null (teste mapUser indirectement)")
     void testUpdateUser_WithNullValues() throws Exception {
@@ -372,6 +687,10 @@ class UserServiceTest {
         // Assert
         verify(repository, times(1)).findById(1L);
         verify(repository, times(1)).delete(testUser);
+        verify(userCache).removeUserFromCache("testuser");
+        verify(searchIndex).remove(1L);
+        verify(suggestIndex).remove("testuser", "test@example.com");
+        verify(auditTrail).publish(AuditEvent.Action.DELETE, testUser);
     }
 
     @Test
@@ -384,6 +703,21 @@ class UserServiceTest {
         assertThrows(UsernameOrIdNotFound.class, () -> userService.deleteUser(999L));
         verify(repository, times(1)).findById(999L);
         verify(repository, never()).delete(any(User.class));
+        verifyNoInteractions(userCache);
+    }
+
+    @Test
+    @DisplayName("deleteUser - Ne doit rien supprimer si la version attendue est dépassée")
+    void testDeleteUser_StaleVersion() {
+        // Arrange
+        testUser.setVersion(3L);
+        when(repository.findById(1L)).thenReturn(Optional.of(testUser));
+
+        // Act & Assert
+        assertThrows(ObjectOptimisticLockingFailureException.class, () -> userService.deleteUser(1L, Set.of(2L)));
+        verify(repository, never()).delete(any(User.class));
+        verifyNoInteractions(searchIndex);
+        verifyNoInteractions(auditTrail);
     }
 
     // ==================== Tests pour changePassword() ====================
@@ -414,6 +748,7 @@ class UserServiceTest {
         verify(repository, times(1)).findById(1L);
         verify(bCryptPasswordEncoder, times(1)).encode("newPassword456");
         verify(repository, times(1)).save(any(User.class));
+        verify(userCache).removeUserFromCache("testuser");
     }
 
     @Test
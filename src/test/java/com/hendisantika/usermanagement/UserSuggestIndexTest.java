@@ -0,0 +1,94 @@
+package com.hendisantika.usermanagement;
+
+import com.hendisantika.usermanagement.dto.UserSummary;
+import com.hendisantika.usermanagement.entity.User;
+import com.hendisantika.usermanagement.repository.UserRepository;
+import com.hendisantika.usermanagement.service.UserSuggestIndex;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.when;
+
+/**
+ * Tests unitaires pour UserSuggestIndex
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("UserSuggestIndex Tests")
+class UserSuggestIndexTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    private UserSuggestIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new UserSuggestIndex(userRepository, transactionTemplate);
+        doAnswer(invocation -> {
+            invocation.<Consumer<Object>>getArgument(0).accept(null);
+            return null;
+        }).when(transactionTemplate).executeWithoutResult(any());
+        when(userRepository.streamSummaries()).thenReturn(Stream.of(
+                new UserSummary(1L, "Alice", "Martin", "alice", "alice@example.com", null, null),
+                new UserSummary(2L, "Bob", "Brown", "Bob", "bob@example.com", null, null),
+                new UserSummary(3L, "Albert", "King", "albert", "shared@example.com", null, null)));
+        index.afterSingletonsInstantiated();
+    }
+
+    @Test
+    @DisplayName("Doit suggérer usernames et emails par préfixe, sans tenir compte de la casse")
+    void testSuggest() {
+        assertEquals(List.of("albert", "alice", "alice@example.com"), index.suggest("AL", 10));
+        assertEquals(List.of("Bob", "bob@example.com"), index.suggest("bo", 10));
+        assertEquals(List.of(), index.suggest("zz", 10));
+        assertEquals(List.of(), index.suggest(" ", 10));
+    }
+
+    @Test
+    @DisplayName("Doit renvoyer au plus 10 suggestions distinctes")
+    void testSuggest_Limit() {
+        index.putAll(IntStream.range(0, 30).mapToObj(i -> user("user" + i, "shared@example.com")).toList());
+
+        assertEquals(UserSuggestIndex.MAX_SUGGESTIONS, index.suggest("user", 50).size());
+        assertEquals(List.of("shared@example.com"), index.suggest("shared", 10));
+    }
+
+    @Test
+    @DisplayName("Une clé partagée reste suggérée tant qu'un utilisateur l'utilise")
+    void testRemove_SharedKeyKept() {
+        index.put(user("carol", "shared@example.com"));
+
+        index.remove("albert", "shared@example.com");
+
+        assertEquals(List.of("shared@example.com"), index.suggest("sha", 10));
+        assertEquals(List.of("alice", "alice@example.com"), index.suggest("al", 10));
+
+        index.remove("carol", "shared@example.com");
+
+        assertEquals(List.of(), index.suggest("sha", 10));
+        assertEquals(4, index.size());
+    }
+
+    private static User user(String username, String email) {
+        User user = new User();
+        user.setUsername(username);
+        user.setEmail(email);
+        return user;
+    }
+}
@@ -0,0 +1,125 @@
+package com.hendisantika.usermanagement;
+
+import com.hendisantika.usermanagement.repository.UserRepository;
+import com.hendisantika.usermanagement.service.UsernameBloomFilter;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Tests unitaires pour UsernameBloomFilter
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("UsernameBloomFilter Tests")
+class UsernameBloomFilterTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    private UsernameBloomFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        lenient().when(transactionTemplate.execute(any()))
+                .thenAnswer(invocation -> invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+        filter = new UsernameBloomFilter(userRepository, transactionTemplate, 10_000, 0.01, 100);
+    }
+
+    @Test
+    @DisplayName("Doit contenir tous les usernames chargés au démarrage")
+    void testBuild_NoFalseNegatives() {
+        // Arrange
+        when(userRepository.count()).thenReturn(5_000L);
+        when(userRepository.streamAllUsernames())
+                .thenReturn(IntStream.range(0, 5_000).mapToObj(i -> "user" + i));
+
+        // Act
+        filter.afterSingletonsInstantiated();
+
+        // Assert
+        IntStream.range(0, 5_000).forEach(i -> assertTrue(filter.mightContain("user" + i)));
+    }
+
+    @Test
+    @DisplayName("Doit rester sous le taux de faux positifs configuré")
+    void testFalsePositiveRate() {
+        // Arrange
+        IntStream.range(0, 10_000).forEach(i -> filter.put("user" + i));
+
+        // Act
+        long falsePositives = IntStream.range(0, 100_000)
+                .filter(i -> filter.mightContain("other" + i))
+                .count();
+
+        // Assert
+        assertTrue(falsePositives < 2_000, "faux positifs : " + falsePositives);
+    }
+
+    @Test
+    @DisplayName("Doit refléter un ajout immédiatement")
+    void testPut() {
+        assertFalse(filter.mightContain("alice"));
+
+        filter.put("alice");
+
+        assertTrue(filter.mightContain("alice"));
+        assertFalse(filter.mightContain(null));
+    }
+
+    @Test
+    @DisplayName("Reconstruction : les usernames supprimés disparaissent du filtre")
+    void testRebuild_DropsDeletedUsernames() {
+        // Arrange
+        filter.put("alice");
+        filter.put("bob");
+        when(userRepository.streamAllUsernames()).thenReturn(Stream.of("bob"));
+
+        // Act
+        filter.rebuild();
+
+        // Assert
+        assertFalse(filter.mightContain("alice"));
+        assertTrue(filter.mightContain("bob"));
+    }
+
+    @Test
+    @DisplayName("Suppressions : une reconstruction échouée doit être relancée par les suppressions suivantes")
+    void testOnDelete_RetriesFailedRebuild() throws InterruptedException {
+        // Arrange
+        UsernameBloomFilter small = new UsernameBloomFilter(userRepository, transactionTemplate, 10_000, 0.01, 2);
+        small.put("alice");
+        when(userRepository.count()).thenThrow(new IllegalStateException("database down")).thenReturn(1L);
+        when(userRepository.streamAllUsernames()).thenReturn(Stream.of("bob"));
+
+        // Act : la première reconstruction échoue, les suivantes doivent encore se déclencher
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (small.mightContain("alice") && System.nanoTime() < deadline) {
+            small.onDelete();
+            Thread.sleep(10);
+        }
+
+        // Assert
+        assertFalse(small.mightContain("alice"));
+        assertTrue(small.mightContain("bob"));
+        verify(userRepository, times(2)).count();
+    }
+}
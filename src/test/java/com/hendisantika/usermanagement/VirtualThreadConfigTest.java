@@ -0,0 +1,45 @@
+package com.hendisantika.usermanagement;
+
+import com.hendisantika.usermanagement.config.ConnectionLimitingDataSource;
+import com.hendisantika.usermanagement.config.QueryTimingDataSource;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests d'intégration de VirtualThreadConfig : le limiteur de connexions doit suivre la taille du pool Hikari,
+ * même quand la source de données est déjà enveloppée par la mesure des requêtes.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:virtual-threads;DB_CLOSE_DELAY=-1",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "password-hashing.bcrypt.strength=4",
+        "spring.threads.virtual.enabled=true",
+        "spring.datasource.hikari.maximum-pool-size=25"
+})
+@DisplayName("VirtualThreadConfig Tests")
+class VirtualThreadConfigTest {
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Test
+    @DisplayName("Doit dimensionner le limiteur sur le pool Hikari enveloppé")
+    void testLimitFollowsWrappedHikariPool() throws SQLException {
+        // Act
+        ConnectionLimitingDataSource limited = dataSource.unwrap(ConnectionLimitingDataSource.class);
+
+        // Assert
+        assertTrue(limited.getTargetDataSource() instanceof QueryTimingDataSource);
+        assertEquals(25, limited.getAvailablePermits());
+    }
+}
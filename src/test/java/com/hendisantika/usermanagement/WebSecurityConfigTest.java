@@ -1,12 +1,15 @@
 package com.hendisantika.usermanagement;
 
 import com.hendisantika.usermanagement.config.WebSecurityConfig;
+import com.hendisantika.usermanagement.service.LoginThrottle;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.ApplicationContext;
 import org.springframework.context.annotation.Import;
 import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
+import org.springframework.security.core.userdetails.UserCache;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
@@ -28,6 +31,15 @@ class WebSecurityConfigTest {
     @MockBean
     private UserDetailsService userDetailsService;
 
+    @MockBean
+    private UserCache userCache;
+
+    @MockBean
+    private UserDetailsPasswordService userDetailsPasswordService;
+
+    @MockBean
+    private LoginThrottle loginThrottle;
+
     @Autowired
     private WebSecurityConfig webSecurityConfig;
 
@@ -50,6 +62,8 @@ class WebSecurityConfigTest {
         passwordEncoderField.setAccessible(true);
         Object encoder = passwordEncoderField.get(provider);
         assertSame(bCryptPasswordEncoder, encoder, "PasswordEncoder should be the mocked instance");
+
+        assertSame(userCache, provider.getUserCache(), "UserCache should be the mocked instance");
     }
 
     @Test
@@ -0,0 +1,230 @@
+package com.hendisantika.usermanagement;
+
+import com.hendisantika.usermanagement.entity.User;
+import com.hendisantika.usermanagement.repository.UserRepository;
+import com.hendisantika.usermanagement.service.RoleRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.RequestPostProcessor;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.httpBasic;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.multipart;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.redirectedUrl;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Tests d'intégration des chaînes de filtres de sécurité, sur l'application complète avec H2.
+ * Chaque test utilise ses propres utilisateurs et adresses IP : le throttle est partagé par le contexte.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:web-security;DB_CLOSE_DELAY=-1",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "password-hashing.bcrypt.strength=4"
+})
+@AutoConfigureMockMvc
+@DisplayName("WebSecurity Integration Tests")
+class WebSecurityIntegrationTest {
+
+    private static final String PASSWORD = "secret123";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private RoleRegistry roleRegistry;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @BeforeEach
+    void setUp() {
+        for (String username : new String[]{"carol", "dave", "erin"}) {
+            seed(username, "USER");
+        }
+        seed("frank", "ADMIN");
+    }
+
+    @Test
+    @DisplayName("Les échecs du formulaire de login doivent aussi bloquer HTTP Basic sur l'actuator")
+    void testFormLoginThrottleAppliesToBasic() throws Exception {
+        // Arrange
+        for (int i = 0; i < 5; i++) {
+            mockMvc.perform(post("/login").param("username", "carol").param("password", "guess" + i)
+                            .with(from("10.1.0." + i)))
+                    .andExpect(redirectedUrl("/login?error=true"));
+        }
+
+        // Act & Assert
+        mockMvc.perform(post("/login").param("username", "carol").param("password", PASSWORD)
+                        .with(from("10.1.1.1")))
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().string("Retry-After", "300"));
+        mockMvc.perform(get("/actuator/health").with(httpBasic("carol", PASSWORD)).with(from("10.1.1.2")))
+                .andExpect(status().isTooManyRequests());
+    }
+
+    @Test
+    @DisplayName("Les échecs HTTP Basic doivent être comptés et bloqués avant toute vérification du mot de passe")
+    void testBasicThrottle() throws Exception {
+        // Arrange
+        for (int i = 0; i < 5; i++) {
+            mockMvc.perform(get("/actuator/health").with(httpBasic("dave", "guess" + i)).with(from("10.2.0." + i)))
+                    .andExpect(status().isUnauthorized());
+        }
+
+        // Act & Assert
+        mockMvc.perform(get("/actuator/health").with(httpBasic("dave", PASSWORD)).with(from("10.2.1.1")))
+                .andExpect(status().isTooManyRequests());
+        mockMvc.perform(post("/login").param("username", "dave").param("password", PASSWORD)
+                        .with(from("10.2.1.2")))
+                .andExpect(status().isTooManyRequests());
+    }
+
+    @Test
+    @DisplayName("Les connexions réussies, formulaire ou HTTP Basic, ne consomment pas la limite de l'IP")
+    void testSuccessfulLoginsDoNotUseUpIpLimit() throws Exception {
+        // Arrange : plus de connexions réussies que la limite de 100 échecs par IP
+        for (int i = 0; i < 55; i++) {
+            mockMvc.perform(post("/login").param("username", "frank").param("password", PASSWORD)
+                            .with(from("10.4.0.1")))
+                    .andExpect(redirectedUrl("/userForm"));
+            mockMvc.perform(get("/actuator/health").with(httpBasic("frank", PASSWORD)).with(from("10.4.0.1")))
+                    .andExpect(status().isOk());
+        }
+
+        // Act & Assert
+        mockMvc.perform(get("/actuator/health").with(httpBasic("frank", "guess")).with(from("10.4.0.1")))
+                .andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    @DisplayName("Un simple utilisateur ne doit voir que health sur l'actuator")
+    void testActuatorRequiresAdmin() throws Exception {
+        // Act & Assert
+        mockMvc.perform(get("/actuator/health").with(httpBasic("erin", PASSWORD)).with(from("10.3.0.1")))
+                .andExpect(status().isOk());
+        mockMvc.perform(get("/actuator/hibernate").with(httpBasic("erin", PASSWORD)).with(from("10.3.0.1")))
+                .andExpect(status().isForbidden());
+        mockMvc.perform(delete("/actuator/hibernate").with(httpBasic("erin", PASSWORD)).with(from("10.3.0.1")))
+                .andExpect(status().isForbidden());
+        mockMvc.perform(get("/actuator/metrics").with(httpBasic("erin", PASSWORD)).with(from("10.3.0.1")))
+                .andExpect(status().isForbidden());
+    }
+
+    @Test
+    @DisplayName("Un administrateur doit pouvoir lire et réinitialiser les statistiques Hibernate")
+    void testActuatorAllowsAdmin() throws Exception {
+        // Act & Assert
+        mockMvc.perform(get("/actuator/hibernate").with(httpBasic("frank", PASSWORD)).with(from("10.4.0.1")))
+                .andExpect(status().isOk());
+        mockMvc.perform(delete("/actuator/hibernate").with(httpBasic("frank", PASSWORD)).with(from("10.4.0.1")))
+                .andExpect(status().is2xxSuccessful());
+    }
+
+    @Test
+    @DisplayName("L'API doit répondre 401 en JSON sans session, au lieu de rediriger vers le login")
+    void testApiUnauthorized() throws Exception {
+        // Act & Assert
+        mockMvc.perform(get("/api/users"))
+                .andExpect(status().isUnauthorized())
+                .andExpect(jsonPath("$.message").value("Authentication required"));
+        mockMvc.perform(get("/userForm"))
+                .andExpect(status().isFound());
+    }
+
+    @Test
+    @DisplayName("Un simple utilisateur peut lire l'API mais ni créer, ni modifier, ni supprimer d'utilisateur")
+    void testApiWritesRequireAdmin() throws Exception {
+        // Arrange
+        RequestPostProcessor erin = user("erin").authorities(() -> "ROLE USER");
+        Long id = userRepository.findByUsername("erin").orElseThrow().getId();
+        String body = """
+                {"firstName":"Erin","lastName":"Admin","email":"erin@example.com","username":"erin",
+                 "password":"secret123","roles":["ADMIN"]}""";
+
+        // Act & Assert
+        mockMvc.perform(get("/api/users").with(erin))
+                .andExpect(status().isOk());
+        mockMvc.perform(post("/api/users").with(erin).contentType(MediaType.APPLICATION_JSON).content(body))
+                .andExpect(status().isForbidden())
+                .andExpect(jsonPath("$.message").value("Access denied"));
+        mockMvc.perform(put("/api/users/" + id).with(erin).contentType(MediaType.APPLICATION_JSON).content(body))
+                .andExpect(status().isForbidden());
+        mockMvc.perform(delete("/api/users/" + id).with(erin))
+                .andExpect(status().isForbidden());
+        assertEquals(Set.of(roleRegistry.findByName("USER")),
+                userRepository.findWithRolesByUsername("erin").orElseThrow().getRoles());
+    }
+
+    @Test
+    @DisplayName("Les exports d'utilisateurs sont refusés en 403 à un simple utilisateur")
+    void testExportRequiresAdmin() throws Exception {
+        RequestPostProcessor erin = user("erin").authorities(() -> "ROLE USER");
+
+        mockMvc.perform(get("/users/export.csv").with(erin))
+                .andExpect(status().isForbidden());
+        mockMvc.perform(get("/users/export.ndjson").with(erin))
+                .andExpect(status().isForbidden());
+        mockMvc.perform(get("/users/export.csv").with(user("frank").authorities(() -> "ROLE ADMIN")))
+                .andExpect(request().asyncStarted());
+    }
+
+    @Test
+    @DisplayName("L'import en masse, qui fixe les rôles, est refusé en 403 à un simple utilisateur")
+    void testImportRequiresAdmin() throws Exception {
+        MockMultipartFile file = new MockMultipartFile("file", "users.csv", "text/csv",
+                "firstName,lastName,email,username,password,roles\nErin,Evans,e2@example.com,erin2,secret123,ADMIN\n"
+                        .getBytes(StandardCharsets.UTF_8));
+
+        mockMvc.perform(multipart("/users/import").file(file)
+                        .with(user("erin").authorities(() -> "ROLE USER")))
+                .andExpect(status().isForbidden());
+        assertTrue(userRepository.findByUsername("erin2").isEmpty());
+    }
+
+    private void seed(String username, String role) {
+        if (userRepository.findByUsername(username).isEmpty()) {
+            User user = new User();
+            user.setFirstName(username);
+            user.setLastName(username);
+            user.setEmail(username + "@example.com");
+            user.setUsername(username);
+            user.setPassword(passwordEncoder.encode(PASSWORD));
+            user.setRoles(Set.of(roleRegistry.findByName(role)));
+            userRepository.save(user);
+        }
+    }
+
+    private static RequestPostProcessor from(String ip) {
+        return request -> {
+            request.setRemoteAddr(ip);
+            return request;
+        };
+    }
+}
@@ -0,0 +1,159 @@
+package com.hendisantika.usermanagement.benchmark;
+
+import com.hendisantika.usermanagement.UserManagementApplication;
+import com.hendisantika.usermanagement.entity.Role;
+import com.hendisantika.usermanagement.entity.User;
+import com.hendisantika.usermanagement.repository.UserRepository;
+import com.hendisantika.usermanagement.service.RoleRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntFunction;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Charge HTTP sur l'application démarrée (Tomcat, sécurité, H2) : connexion, liste des utilisateurs et
+ * inscription, chacune envoyée par {@value #CONCURRENCY} clients simultanés. Les sous-classes fixent le mode
+ * de threads ; lancer les deux pour comparer débit et p99 :
+ * {@code mvn test -Dgroups=benchmark -DexcludedGroups= -Dtest='*ThreadLoadBenchmark'}
+ * <p>
+ * Le coût BCrypt est fixé à 4 pour que la mesure porte sur le modèle de threads et non sur le hachage, et la
+ * file de hachage est agrandie pour que la charge ne soit pas délestée en 503.
+ */
+@Tag("benchmark")
+@SpringBootTest(classes = UserManagementApplication.class, webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = {
+                "spring.datasource.url=jdbc:h2:mem:load-${random.uuid};DB_CLOSE_DELAY=-1",
+                "spring.datasource.username=sa",
+                "spring.datasource.password=",
+                "spring.jpa.hibernate.ddl-auto=create-drop",
+                "spring.jpa.show-sql=false",
+                "password-hashing.bcrypt.strength=4",
+                "password-hashing.queue-capacity=1024"
+        })
+abstract class AbstractLoadBenchmark {
+
+    static final int CONCURRENCY = 256;
+    static final int USERS = 1_000;
+    static final int WARMUP = 500;
+    static final int MEASURED = 3_000;
+    static final String PASSWORD = "secret123";
+
+    @LocalServerPort
+    private int port;
+
+    @Value("${spring.threads.virtual.enabled}")
+    private boolean virtualThreads;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private RoleRegistry roleRegistry;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    private final AtomicInteger signups = new AtomicInteger();
+
+    private LoadHarness harness;
+    private String sessionCookie;
+
+    @BeforeEach
+    void seed() {
+        harness = new LoadHarness(port);
+        if (userRepository.count() < USERS) {
+            String hash = passwordEncoder.encode(PASSWORD);
+            Set<Role> roles = Set.of(roleRegistry.findByName("USER"));
+            List<User> users = new ArrayList<>(USERS);
+            for (int i = 0; i < USERS; i++) {
+                users.add(LoadHarness.newUser("load" + i, hash, roles));
+            }
+            userRepository.saveAll(users);
+        }
+        sessionCookie = Objects.requireNonNull(harness.login("load0", PASSWORD), "seed login failed");
+    }
+
+    @Test
+    void login() {
+        measure("login", i -> harness.loginRequest("load" + (i % USERS), PASSWORD));
+    }
+
+    @Test
+    void list() {
+        measure("list", i -> harness.get("/userForm").header("Cookie", sessionCookie).build());
+    }
+
+    @Test
+    void signup() {
+        String roleId = String.valueOf(roleRegistry.findByName("USER").getId());
+        measure("signup", i -> {
+            int n = signups.getAndIncrement();
+            Map<String, String> form = new LinkedHashMap<>();
+            form.put("firstName", "Sign");
+            form.put("lastName", "Up");
+            form.put("email", "signup" + n + "@example.com");
+            form.put("username", "signup" + n);
+            form.put("password", PASSWORD);
+            form.put("confirmPassword", PASSWORD);
+            form.put("roles", roleId);
+            return harness.form("/signup", form).build();
+        });
+    }
+
+    private void measure(String scenario, IntFunction<HttpRequest> request) {
+        run(request, WARMUP);
+        long started = System.nanoTime();
+        Run run = run(request, MEASURED);
+        long elapsed = System.nanoTime() - started;
+
+        long[] latencies = run.latencies();
+        Arrays.sort(latencies);
+        System.out.printf("%-8s %-8s %7.0f req/s  p50 %7.2f ms  p99 %7.2f ms  max %7.2f ms  errors %d%n",
+                virtualThreads ? "virtual" : "platform", scenario, MEASURED * 1e9 / elapsed,
+                percentile(latencies, 0.50), percentile(latencies, 0.99), latencies[latencies.length - 1] / 1e6,
+                run.errors());
+        assertEquals(0, run.errors(), scenario + " requests failed");
+    }
+
+    private Run run(IntFunction<HttpRequest> request, int requests) {
+        long[] latencies = new long[requests];
+        AtomicInteger next = new AtomicInteger();
+        AtomicInteger errors = new AtomicInteger();
+        LoadHarness.closedLoop(CONCURRENCY, clientId -> {
+            for (int i = next.getAndIncrement(); i < requests; i = next.getAndIncrement()) {
+                LoadHarness.Exchange<Void> exchange = harness.exchange(request.apply(i),
+                        HttpResponse.BodyHandlers.discarding());
+                latencies[i] = exchange.nanos();
+                if (exchange.failed()) {
+                    errors.incrementAndGet();
+                }
+            }
+        });
+        return new Run(latencies, errors.get());
+    }
+
+    private static double percentile(long[] sorted, double p) {
+        return sorted[Math.min(sorted.length - 1, (int) Math.ceil(p * sorted.length) - 1)] / 1e6;
+    }
+
+    private record Run(long[] latencies, int errors) {
+    }
+}
@@ -0,0 +1,335 @@
+package com.hendisantika.usermanagement.benchmark;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.hendisantika.usermanagement.UserManagementApplication;
+import com.hendisantika.usermanagement.entity.Role;
+import com.hendisantika.usermanagement.entity.User;
+import com.hendisantika.usermanagement.repository.UserRepository;
+import com.hendisantika.usermanagement.service.RoleRegistry;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Suite de charge HTTP de bout en bout, dans la JVM, sur l'application démarrée et une base H2 embarquée.
+ * <p>
+ * {@code load.clients} clients en boucle fermée envoient un mélange réaliste de requêtes d'administration
+ * pendant {@code load.duration} secondes (après {@code load.warmup} secondes de chauffe) : connexion par le
+ * formulaire {@code /login}, liste {@code /userForm}, modification {@code /editUser} et changement de mot de
+ * passe JSON {@code /editUser/changePassword}. Pour chaque point d'entrée : débit, percentiles HdrHistogram
+ * et erreurs, écrits dans {@code target/load-results.json}.
+ * <p>
+ * Ces résultats sont comparés à {@code load.baseline} (par défaut {@code target/load-baseline.json}, effacé par
+ * {@code mvn clean} : pointer ailleurs pour garder une référence) ; le test échoue si un débit baisse ou un p99
+ * monte de plus de {@code load.threshold} (0.20 = 20 %). Sans fichier de référence, ou avec
+ * {@code -Dload.update-baseline=true}, les résultats deviennent la nouvelle référence.
+ * <p>
+ * {@code mvn test -Dgroups=benchmark -DexcludedGroups= -Dtest=AdminFlowLoadBenchmark -Dload.duration=60}
+ */
+@Tag("benchmark")
+@SpringBootTest(classes = UserManagementApplication.class, webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = {
+                "spring.datasource.url=jdbc:h2:mem:admin-load;DB_CLOSE_DELAY=-1",
+                "spring.datasource.username=sa",
+                "spring.datasource.password=",
+                "spring.jpa.hibernate.ddl-auto=create-drop",
+                "spring.jpa.show-sql=false",
+                "password-hashing.bcrypt.strength=${load.bcrypt-strength:4}",
+                "password-hashing.queue-capacity=1024"
+        })
+@DisplayName("Suite de charge HTTP - parcours d'administration")
+class AdminFlowLoadBenchmark {
+
+    private static final int CLIENTS = Integer.getInteger("load.clients", 32);
+    private static final int WARMUP_SECONDS = Integer.getInteger("load.warmup", 5);
+    private static final int DURATION_SECONDS = Integer.getInteger("load.duration", 20);
+    private static final double THRESHOLD = Double.parseDouble(System.getProperty("load.threshold", "0.20"));
+    private static final Path BASELINE = Path.of(System.getProperty("load.baseline", "target/load-baseline.json"));
+    private static final Path RESULTS = Path.of("target/load-results.json");
+    private static final boolean UPDATE_BASELINE = Boolean.getBoolean("load.update-baseline");
+
+    private static final int USERS = 1_000;
+    private static final String PASSWORD = "secret123";
+    // Shown by user-form.html only when the submitted edit was rejected.
+    private static final String FORM_ERROR = "alert alert-danger text-center";
+
+    private static final ObjectMapper JSON = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private RoleRegistry roleRegistry;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    // Ids of the users each client edits and changes the password of, known from the seed.
+    private final long[] editIds = new long[CLIENTS];
+    private final long[] passwordIds = new long[CLIENTS];
+
+    private LoadHarness harness;
+    private String adminSession;
+    private String roleIds;
+
+    /**
+     * Share of the mix, out of 100, and the call it makes. Each client owns its own user to edit and its own
+     * user whose password it changes, so that concurrent clients never write the same row.
+     */
+    private enum Endpoint {
+        LOGIN(20), LIST(50), EDIT(20), CHANGE_PASSWORD(10);
+
+        final int weight;
+
+        Endpoint(int weight) {
+            this.weight = weight;
+        }
+
+        static Endpoint pick() {
+            int roll = ThreadLocalRandom.current().nextInt(100);
+            for (Endpoint endpoint : values()) {
+                roll -= endpoint.weight;
+                if (roll < 0) {
+                    return endpoint;
+                }
+            }
+            return LIST;
+        }
+    }
+
+    @Test
+    void adminFlowMix() throws Exception {
+        harness = new LoadHarness(port);
+        seed();
+        adminSession = harness.login("admin", PASSWORD);
+
+        run(Duration.ofSeconds(WARMUP_SECONDS), new Stats());
+        Stats stats = new Stats();
+        long elapsed = run(Duration.ofSeconds(DURATION_SECONDS), stats);
+
+        Map<String, Object> results = stats.report(elapsed);
+        Files.createDirectories(RESULTS.toAbsolutePath().getParent());
+        JSON.writeValue(RESULTS.toFile(), results);
+        System.out.println(JSON.writeValueAsString(results));
+
+        assertEquals(0L, stats.totalErrors(), "requests failed, see " + RESULTS);
+        if (UPDATE_BASELINE || !Files.exists(BASELINE)) {
+            Files.createDirectories(BASELINE.toAbsolutePath().getParent());
+            JSON.writeValue(BASELINE.toFile(), results);
+            System.out.println("Baseline written to " + BASELINE.toAbsolutePath());
+            return;
+        }
+        Map<String, Object> baseline = JSON.readValue(BASELINE.toFile(), new TypeReference<Map<String, Object>>() {
+        });
+        List<String> regressions = regressions(results, baseline);
+        regressions.forEach(System.out::println);
+        assertTrue(regressions.isEmpty(), regressions.size() + " regression(s) beyond " + THRESHOLD * 100
+                + "% against " + BASELINE.toAbsolutePath() + ": " + regressions);
+    }
+
+    private long run(Duration duration, Stats stats) {
+        long started = System.nanoTime();
+        long deadline = started + duration.toNanos();
+        LoadHarness.closedLoop(CLIENTS, clientId -> {
+            while (System.nanoTime() < deadline) {
+                Endpoint endpoint = Endpoint.pick();
+                HttpRequest request;
+                try {
+                    request = request(endpoint, clientId);
+                } catch (Exception e) {
+                    stats.fail(endpoint);
+                    continue;
+                }
+                LoadHarness.Exchange<String> exchange = harness.exchange(request, HttpResponse.BodyHandlers.ofString());
+                stats.record(endpoint, exchange.nanos(), succeeded(endpoint, exchange));
+            }
+        });
+        return System.nanoTime() - started;
+    }
+
+    /**
+     * The next request of {@code endpoint} for this client, prepared before the clock starts.
+     */
+    private HttpRequest request(Endpoint endpoint, int clientId) throws Exception {
+        return switch (endpoint) {
+            case LOGIN -> harness.loginRequest("user" + ThreadLocalRandom.current().nextInt(USERS), PASSWORD);
+            case LIST -> harness.get("/userForm").header("Cookie", adminSession).build();
+            case EDIT -> {
+                Map<String, String> form = new LinkedHashMap<>();
+                form.put("id", String.valueOf(editIds[clientId]));
+                form.put("firstName", ThreadLocalRandom.current().nextBoolean() ? "Edited" : "Again");
+                form.put("lastName", "Load");
+                form.put("email", "edit" + clientId + "@example.com");
+                form.put("username", "edit" + clientId);
+                form.put("password", "xxxx");
+                form.put("confirmPassword", "xxxx");
+                form.put("roles", roleIds);
+                yield harness.form("/editUser", form).header("Cookie", adminSession).build();
+            }
+            case CHANGE_PASSWORD -> {
+                // The endpoint compares currentPassword with the stored value as is, so send the stored value,
+                // which the previous change replaced.
+                String stored = userRepository.findById(passwordIds[clientId]).orElseThrow().getPassword();
+                String newPassword = "changed" + System.nanoTime();
+                String body = JSON.writeValueAsString(Map.of("id", passwordIds[clientId],
+                        "currentPassword", stored,
+                        "newPassword", newPassword,
+                        "confirmPassword", newPassword));
+                yield harness.json("/editUser/changePassword", body).header("Cookie", adminSession).build();
+            }
+        };
+    }
+
+    private static boolean succeeded(Endpoint endpoint, LoadHarness.Exchange<String> exchange) {
+        if (exchange.failed()) {
+            return false;
+        }
+        HttpResponse<String> response = exchange.response();
+        return switch (endpoint) {
+            case LOGIN -> response.statusCode() == 302;
+            case LIST, CHANGE_PASSWORD -> response.statusCode() == 200;
+            case EDIT -> response.statusCode() == 200 && !response.body().contains(FORM_ERROR);
+        };
+    }
+
+    private void seed() {
+        Role user = roleRegistry.findByName("USER");
+        Role admin = roleRegistry.findByName("ADMIN");
+        roleIds = String.valueOf(user.getId());
+        String hash = passwordEncoder.encode(PASSWORD);
+        List<User> users = new ArrayList<>();
+        users.add(LoadHarness.newUser("admin", hash, Set.of(admin, user)));
+        for (int i = 0; i < USERS; i++) {
+            users.add(LoadHarness.newUser("user" + i, hash, Set.of(user)));
+        }
+        for (int c = 0; c < CLIENTS; c++) {
+            users.add(LoadHarness.newUser("edit" + c, hash, Set.of(user)));
+            users.add(LoadHarness.newUser("pwd" + c, hash, Set.of(user)));
+        }
+        Map<String, Long> ids = new HashMap<>();
+        userRepository.saveAll(users).forEach(saved -> ids.put(saved.getUsername(), saved.getId()));
+        for (int c = 0; c < CLIENTS; c++) {
+            editIds[c] = ids.get("edit" + c);
+            passwordIds[c] = ids.get("pwd" + c);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<String> regressions(Map<String, Object> results, Map<String, Object> baseline) {
+        Map<String, Map<String, Number>> current = (Map<String, Map<String, Number>>) results.get("endpoints");
+        Map<String, Map<String, Number>> reference = (Map<String, Map<String, Number>>) baseline.get("endpoints");
+        List<String> regressions = new ArrayList<>();
+        reference.forEach((endpoint, base) -> {
+            Map<String, Number> now = current.get(endpoint);
+            if (now == null) {
+                return;
+            }
+            double throughput = now.get("throughput").doubleValue();
+            double baseThroughput = base.get("throughput").doubleValue();
+            if (throughput < baseThroughput * (1 - THRESHOLD)) {
+                regressions.add(String.format("%s throughput %.1f req/s, baseline %.1f", endpoint, throughput,
+                        baseThroughput));
+            }
+            double p99 = now.get("p99Ms").doubleValue();
+            double baseP99 = base.get("p99Ms").doubleValue();
+            if (p99 > baseP99 * (1 + THRESHOLD)) {
+                regressions.add(String.format("%s p99 %.2f ms, baseline %.2f", endpoint, p99, baseP99));
+            }
+        });
+        return regressions;
+    }
+
+    /**
+     * One histogram of latencies, in microseconds, per endpoint.
+     */
+    private static final class Stats {
+
+        private final Map<Endpoint, Histogram> latencies = new LinkedHashMap<>();
+        private final Map<Endpoint, AtomicLong> errors = new LinkedHashMap<>();
+
+        Stats() {
+            for (Endpoint endpoint : Endpoint.values()) {
+                latencies.put(endpoint, new ConcurrentHistogram(TimeUnit.MINUTES.toMicros(1), 3));
+                errors.put(endpoint, new AtomicLong());
+            }
+        }
+
+        // A request that could not even be prepared: an error without a latency.
+        void fail(Endpoint endpoint) {
+            errors.get(endpoint).incrementAndGet();
+        }
+
+        void record(Endpoint endpoint, long nanos, boolean ok) {
+            latencies.get(endpoint).recordValue(Math.min(TimeUnit.NANOSECONDS.toMicros(nanos),
+                    TimeUnit.MINUTES.toMicros(1)));
+            if (!ok) {
+                errors.get(endpoint).incrementAndGet();
+            }
+        }
+
+        long totalErrors() {
+            return errors.values().stream().mapToLong(AtomicLong::get).sum();
+        }
+
+        Map<String, Object> report(long elapsedNanos) {
+            double seconds = elapsedNanos / 1e9;
+            Map<String, Object> endpoints = new LinkedHashMap<>();
+            latencies.forEach((endpoint, histogram) -> {
+                Map<String, Object> row = new LinkedHashMap<>();
+                row.put("requests", histogram.getTotalCount());
+                row.put("errors", errors.get(endpoint).get());
+                row.put("throughput", round(histogram.getTotalCount() / seconds));
+                row.put("p50Ms", millis(histogram.getValueAtPercentile(50)));
+                row.put("p90Ms", millis(histogram.getValueAtPercentile(90)));
+                row.put("p99Ms", millis(histogram.getValueAtPercentile(99)));
+                row.put("p999Ms", millis(histogram.getValueAtPercentile(99.9)));
+                row.put("maxMs", millis(histogram.getMaxValue()));
+                endpoints.put(endpoint.name().toLowerCase(), row);
+            });
+            Map<String, Object> report = new LinkedHashMap<>();
+            report.put("recordedAt", Instant.now().toString());
+            report.put("clients", CLIENTS);
+            report.put("durationSeconds", round(seconds));
+            report.put("endpoints", endpoints);
+            return report;
+        }
+
+        private static double millis(long micros) {
+            return round(micros / 1000.0);
+        }
+
+        private static double round(double value) {
+            return Math.round(value * 100) / 100.0;
+        }
+    }
+}
@@ -0,0 +1,133 @@
+package com.hendisantika.usermanagement.benchmark;
+
+import com.hendisantika.usermanagement.entity.Role;
+import com.hendisantika.usermanagement.entity.User;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.IntConsumer;
+import java.util.stream.Collectors;
+
+/**
+ * Outillage commun aux benchmarks de charge HTTP : client sans suivi des redirections (pour voir le résultat
+ * d'une connexion), requêtes de formulaire, connexion, utilisateurs de test et boucle fermée de clients.
+ * <p>
+ * Les requêtes sont préparées avant d'être envoyées par {@link #exchange}, qui ne chronomètre que l'envoi et
+ * la réponse : aucun accès à la base ni sérialisation ne s'ajoute aux latences mesurées.
+ */
+final class LoadHarness {
+
+    private final HttpClient client = HttpClient.newBuilder()
+            .followRedirects(HttpClient.Redirect.NEVER)
+            .executor(Executors.newVirtualThreadPerTaskExecutor())
+            .build();
+
+    private final int port;
+
+    LoadHarness(int port) {
+        this.port = port;
+    }
+
+    /**
+     * Runs {@code clients} clients, each on its own virtual thread and given its index, and waits for all.
+     */
+    static void closedLoop(int clients, IntConsumer client) {
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int c = 0; c < clients; c++) {
+                int clientId = c;
+                executor.execute(() -> client.accept(clientId));
+            }
+        }
+    }
+
+    static User newUser(String username, String hash, Set<Role> roles) {
+        User user = new User();
+        user.setFirstName("Load");
+        user.setLastName("Test");
+        user.setEmail(username + "@example.com");
+        user.setUsername(username);
+        user.setPassword(hash);
+        user.setRoles(roles);
+        return user;
+    }
+
+    /**
+     * Sends a prepared request, timing only the exchange itself. A request that could not be sent comes back
+     * with a null response.
+     */
+    <T> Exchange<T> exchange(HttpRequest request, HttpResponse.BodyHandler<T> handler) {
+        long sent = System.nanoTime();
+        HttpResponse<T> response;
+        try {
+            response = client.send(request, handler);
+        } catch (IOException e) {
+            response = null;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            response = null;
+        }
+        return new Exchange<>(response, System.nanoTime() - sent);
+    }
+
+    /**
+     * @return the session cookie of a successful form login, or null
+     */
+    String login(String username, String password) {
+        HttpResponse<Void> response = exchange(loginRequest(username, password),
+                HttpResponse.BodyHandlers.discarding()).response();
+        boolean success = response != null && response.statusCode() == 302 && !redirectsToLogin(response);
+        return success ? response.headers().firstValue("Set-Cookie").map(cookie -> cookie.split(";", 2)[0]).orElse(null)
+                : null;
+    }
+
+    HttpRequest loginRequest(String username, String password) {
+        return form("/login", Map.of("username", username, "password", password)).build();
+    }
+
+    HttpRequest.Builder get(String path) {
+        return HttpRequest.newBuilder(uri(path)).GET();
+    }
+
+    HttpRequest.Builder form(String path, Map<String, String> form) {
+        String body = form.entrySet().stream()
+                .map(e -> e.getKey() + "=" + URLEncoder.encode(e.getValue(), StandardCharsets.UTF_8))
+                .collect(Collectors.joining("&"));
+        return HttpRequest.newBuilder(uri(path))
+                .header("Content-Type", "application/x-www-form-urlencoded")
+                .POST(HttpRequest.BodyPublishers.ofString(body));
+    }
+
+    HttpRequest.Builder json(String path, String body) {
+        return HttpRequest.newBuilder(uri(path))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body));
+    }
+
+    private URI uri(String path) {
+        return URI.create("http://localhost:" + port + path);
+    }
+
+    // A refused form login is still a 302, to /login?error=true, and a lost session redirects to /login too.
+    private static boolean redirectsToLogin(HttpResponse<?> response) {
+        return response.headers().firstValue("Location").filter(location -> location.contains("/login")).isPresent();
+    }
+
+    /**
+     * A response, null when the request could not be sent, and the time the exchange took.
+     */
+    record Exchange<T>(HttpResponse<T> response, long nanos) {
+
+        boolean failed() {
+            return response == null || response.statusCode() >= 400 || redirectsToLogin(response);
+        }
+    }
+}
@@ -0,0 +1,12 @@
+package com.hendisantika.usermanagement.benchmark;
+
+import org.junit.jupiter.api.DisplayName;
+import org.springframework.test.context.TestPropertySource;
+
+/**
+ * Charge HTTP avec le pool de threads plateforme de Tomcat (200 threads par défaut).
+ */
+@TestPropertySource(properties = "spring.threads.virtual.enabled=false")
+@DisplayName("Benchmark charge HTTP - threads plateforme")
+class PlatformThreadLoadBenchmark extends AbstractLoadBenchmark {
+}
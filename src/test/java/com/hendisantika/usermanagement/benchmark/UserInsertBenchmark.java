@@ -0,0 +1,88 @@
+package com.hendisantika.usermanagement.benchmark;
+
+import com.hendisantika.usermanagement.entity.Role;
+import com.hendisantika.usermanagement.entity.User;
+import com.hendisantika.usermanagement.repository.RoleRepository;
+import com.hendisantika.usermanagement.repository.UserRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Débit d'insertion des utilisateurs par lots de {@value #CHUNK} (saveAll puis commit), avec le nombre
+ * d'instructions JDBC préparées. Exclu du build par défaut, à lancer avec :
+ * {@code mvn test -Dgroups=benchmark -DexcludedGroups= -Dtest=UserInsertBenchmark}
+ */
+@Tag("benchmark")
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@DisplayName("Benchmark insertion utilisateurs")
+class UserInsertBenchmark {
+
+    private static final int WARMUP = 5_000;
+    private static final int MEASURED = 20_000;
+    private static final int CHUNK = 500;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private RoleRepository roleRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    void insertThroughput() {
+        Role role = roleRepository.save(new Role(null, "USER", "ROLE USER"));
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        insert("warmup", WARMUP, role);
+        statistics.clear();
+
+        long started = System.nanoTime();
+        insert("measured", MEASURED, role);
+        long elapsed = System.nanoTime() - started;
+
+        System.out.printf("%d users in %d ms: %.0f inserts/s, %d prepared statements%n", MEASURED,
+                elapsed / 1_000_000, MEASURED * 1e9 / elapsed, statistics.getPrepareStatementCount());
+        assertEquals(WARMUP + MEASURED, userRepository.count());
+
+        userRepository.deleteAll();
+        roleRepository.deleteAll();
+    }
+
+    private void insert(String prefix, int count, Role role) {
+        for (int from = 0; from < count; from += CHUNK) {
+            List<User> chunk = new ArrayList<>(CHUNK);
+            for (int i = from; i < from + CHUNK; i++) {
+                User user = new User();
+                user.setFirstName("First");
+                user.setLastName("Last");
+                user.setEmail(prefix + i + "@example.com");
+                user.setUsername(prefix + i);
+                user.setPassword("{bcrypt}hash");
+                user.setRoles(Set.of(role));
+                chunk.add(user);
+            }
+            transactionTemplate.executeWithoutResult(status -> userRepository.saveAll(chunk));
+        }
+    }
+}
@@ -0,0 +1,12 @@
+package com.hendisantika.usermanagement.benchmark;
+
+import org.junit.jupiter.api.DisplayName;
+import org.springframework.test.context.TestPropertySource;
+
+/**
+ * Charge HTTP avec un thread virtuel par requête et le sémaphore devant le pool de connexions.
+ */
+@TestPropertySource(properties = "spring.threads.virtual.enabled=true")
+@DisplayName("Benchmark charge HTTP - threads virtuels")
+class VirtualThreadLoadBenchmark extends AbstractLoadBenchmark {
+}
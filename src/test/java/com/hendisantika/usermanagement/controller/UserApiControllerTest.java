@@ -0,0 +1,170 @@
+package com.hendisantika.usermanagement.controller;
+
+import com.hendisantika.usermanagement.dto.UserPage;
+import com.hendisantika.usermanagement.dto.UserSummary;
+import com.hendisantika.usermanagement.entity.Role;
+import com.hendisantika.usermanagement.entity.User;
+import com.hendisantika.usermanagement.service.RoleRegistry;
+import com.hendisantika.usermanagement.service.UserService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.MediaType;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@ExtendWith(MockitoExtension.class)
+public class UserApiControllerTest {
+
+    private static final String BODY = """
+            {"firstName":"Alice","lastName":"Martin","email":"alice@example.com","username":"alice",
+             "password":"secret","roles":["USER"]}""";
+
+    @InjectMocks
+    UserApiController sut;
+
+    @Mock
+    UserService userService;
+
+    @Mock
+    RoleRegistry roleRegistry;
+
+    MockMvc mockMvc;
+
+    Role userRole = new Role(3L, "USER", "ROLE USER");
+
+    @BeforeEach
+    public void setUpBefore() {
+        mockMvc = MockMvcBuilders.standaloneSetup(sut).build();
+    }
+
+    @Test
+    void testGetUser() throws Exception {
+        when(userService.getUserWithRolesById(1L)).thenReturn(user(1L, 4L));
+
+        mockMvc.perform(get("/api/users/1"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"4\""))
+                .andExpect(jsonPath("$.username").value("alice"))
+                .andExpect(jsonPath("$.roles[0]").value("USER"))
+                .andExpect(jsonPath("$.password").doesNotExist());
+    }
+
+    @Test
+    void testGetUser_NotModified() throws Exception {
+        when(userService.getUserVersion(1L)).thenReturn(4L);
+
+        mockMvc.perform(get("/api/users/1").header("If-None-Match", "\"4\""))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string("ETag", "\"4\""));
+
+        verify(userService, never()).getUserWithRolesById(1L);
+    }
+
+    @Test
+    void testListUsers_NotModified() throws Exception {
+        when(userService.getUserPage(UserPage.SortKey.ID, null, null, UserService.DEFAULT_PAGE_SIZE)).thenReturn(
+                new UserPage(List.of(new UserSummary(1L, "Alice", "Martin", "alice", "alice@example.com", null, null)),
+                        UserPage.SortKey.ID, UserService.DEFAULT_PAGE_SIZE, null, null));
+
+        String etag = mockMvc.perform(get("/api/users"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.users[0].username").value("alice"))
+                .andReturn().getResponse().getHeader("ETag");
+
+        mockMvc.perform(get("/api/users").header("If-None-Match", etag))
+                .andExpect(status().isNotModified());
+    }
+
+    @Test
+    void testCreateUser() throws Exception {
+        when(roleRegistry.findByName("USER")).thenReturn(userRole);
+        when(userService.createUser(any(User.class))).thenAnswer(invocation -> {
+            User user = invocation.getArgument(0);
+            user.setId(7L);
+            user.setVersion(0L);
+            return user;
+        });
+
+        mockMvc.perform(post("/api/users").contentType(MediaType.APPLICATION_JSON).content(BODY))
+                .andExpect(status().isCreated())
+                .andExpect(header().string("Location", "/api/users/7"))
+                .andExpect(header().string("ETag", "\"0\""));
+
+        ArgumentCaptor<User> captor = ArgumentCaptor.forClass(User.class);
+        verify(userService).createUser(captor.capture());
+        assertEquals("secret", captor.getValue().getConfirmPassword());
+        assertEquals(Set.of(userRole), captor.getValue().getRoles());
+    }
+
+    @Test
+    void testUpdateUser_PreconditionFailed() throws Exception {
+        when(roleRegistry.findByName("USER")).thenReturn(userRole);
+        when(userService.updateUser(any(User.class), eq(Set.of(3L))))
+                .thenThrow(new ObjectOptimisticLockingFailureException(User.class, 1L));
+
+        mockMvc.perform(put("/api/users/1").header("If-Match", "\"3\"")
+                        .contentType(MediaType.APPLICATION_JSON).content(BODY))
+                .andExpect(status().isPreconditionFailed());
+    }
+
+    @Test
+    void testUpdateUser_UnknownRole() throws Exception {
+        mockMvc.perform(put("/api/users/1").contentType(MediaType.APPLICATION_JSON).content(BODY))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.field").value("roles"));
+
+        verify(userService, never()).updateUser(any(User.class), any());
+    }
+
+    @Test
+    void testDeleteUser() throws Exception {
+        mockMvc.perform(delete("/api/users/1").header("If-Match", "\"2\""))
+                .andExpect(status().isNoContent());
+
+        verify(userService).deleteUser(1L, Set.of(2L));
+    }
+
+    @Test
+    void testExpectedVersions() {
+        assertNull(UserApiController.expectedVersions(null));
+        assertNull(UserApiController.expectedVersions("*"));
+        assertEquals(Set.of(5L), UserApiController.expectedVersions("\"5\""));
+        assertEquals(Set.of(3L, 4L), UserApiController.expectedVersions("\"3\", \"4\""));
+        assertEquals(Set.of(4L), UserApiController.expectedVersions("W/\"3\", \"4\", \"x\""));
+        assertEquals(Set.of(), UserApiController.expectedVersions("W/\"5\""));
+    }
+
+    private User user(Long id, Long version) {
+        User user = new User();
+        user.setId(id);
+        user.setUsername("alice");
+        user.setPassword("hash");
+        user.setRoles(Set.of(userRole));
+        user.setVersion(version);
+        return user;
+    }
+}
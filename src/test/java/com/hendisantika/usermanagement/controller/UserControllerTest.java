@@ -2,9 +2,12 @@ package com.hendisantika.usermanagement.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.hendisantika.usermanagement.dto.ChangePasswordForm;
+import com.hendisantika.usermanagement.dto.UserPage;
+import com.hendisantika.usermanagement.dto.UserSummary;
 import com.hendisantika.usermanagement.entity.Role;
 import com.hendisantika.usermanagement.entity.User;
-import com.hendisantika.usermanagement.repository.RoleRepository;
+import com.hendisantika.usermanagement.exception.PasswordHashingRejectedException;
+import com.hendisantika.usermanagement.service.RoleRegistry;
 import com.hendisantika.usermanagement.service.UserService;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.BeforeEach;
@@ -20,13 +23,22 @@ import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 import java.util.Collections;
 
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.doNothing;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.model;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.redirectedUrl;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -42,7 +54,7 @@ class UserControllerTest {
     private UserService userService;
 
     @Mock
-    private RoleRepository roleRepository;
+    private RoleRegistry roleRegistry;
 
 
     private static User user;
@@ -66,7 +78,13 @@ class UserControllerTest {
 
     @BeforeEach
     public void setUpBefore() {
-        mockMvc = MockMvcBuilders.standaloneSetup(sut).build();
+        mockMvc = MockMvcBuilders.standaloneSetup(sut)
+                .setControllerAdvice(new PasswordHashingExceptionHandler())
+                .build();
+        lenient().when(userService.getUserPage(any(UserPage.SortKey.class), any(), any(), anyInt()))
+                .thenReturn(new UserPage(Collections.singletonList(new UserSummary(user.getId(), user.getFirstName(),
+                        user.getLastName(), user.getUsername(), user.getEmail(), null, null)),
+                        UserPage.SortKey.ID, UserService.DEFAULT_PAGE_SIZE, null, null));
     }
 
     @Test
@@ -81,7 +99,7 @@ class UserControllerTest {
 
     @Test
     void testGetEditUserForm() throws Exception {
-        when(userService.getUserById(anyLong())).thenReturn(user);
+        when(userService.getUserWithRolesById(anyLong())).thenReturn(user);
 
         mockMvc.perform(get("/editUser/{id}", 1L))
                 .andDo(print())
@@ -105,18 +123,18 @@ class UserControllerTest {
         role1.setId(1L);
         role1.setName("SUPER ADMIN");
         role1.setDescription("ROLE SUPER ADMIN");
-        when(roleRepository.findAll()).thenReturn(Collections.emptyList());
-        when(roleRepository.save(any(Role.class))).thenReturn(role1);
-        when(roleRepository.findByName(anyString())).thenReturn(role1);
+        when(roleRegistry.findByName("USER")).thenReturn(role1);
 
         mockMvc.perform(get("/signup"))
                 .andDo(print())
                 .andExpect(status().isOk());
+
+        verify(roleRegistry, never()).saveAll(any());
     }
 
     @Test
     void testSignUpAction() throws Exception {
-        when(roleRepository.findByName(anyString())).thenReturn(role1);
+        when(roleRegistry.findByName(anyString())).thenReturn(role1);
         when(userService.createUser(any(User.class))).thenReturn(user);
 
         mockMvc.perform(post("/signup")
@@ -125,6 +143,16 @@ class UserControllerTest {
                 .andExpect(status().isOk());
     }
 
+    @Test
+    void testUsernameAvailable() throws Exception {
+        when(userService.isUsernameAvailable("alice")).thenReturn(false);
+
+        mockMvc.perform(get("/signup/username-available").param("username", "alice"))
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.available").value(false));
+    }
+
     @Test
     void testUserForm() throws Exception {
         mockMvc.perform(get("/userForm"))
@@ -132,6 +160,19 @@ class UserControllerTest {
                 .andExpect(status().isOk());
     }
 
+    @Test
+    void testUserFormWithCursor() throws Exception {
+        mockMvc.perform(get("/userForm")
+                        .param("sort", "CREATED_ON")
+                        .param("after", "2024-01-01T10:00_5")
+                        .param("size", "20"))
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(model().attributeExists("userPage"));
+
+        verify(userService).getUserPage(eq(UserPage.SortKey.CREATED_ON), eq("2024-01-01T10:00_5"), isNull(), eq(20));
+    }
+
     @Test
     void testPostEditUserForm() throws Exception {
         when(userService.updateUser(any(User.class))).thenReturn(user);
@@ -178,4 +219,32 @@ class UserControllerTest {
                 .andExpect(status().isOk());
     }
 
+    @Test
+    void testPostEditUseChangePasswordWhenHashingSaturated() throws Exception {
+        ChangePasswordForm form = new ChangePasswordForm(1L, "dasd", "awsd", "awsd");
+
+        when(userService.changePassword(any(ChangePasswordForm.class)))
+                .thenThrow(new PasswordHashingRejectedException("Server busy, please retry shortly.", 2));
+
+        mockMvc.perform(post("/editUser/changePassword")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(new ObjectMapper().writeValueAsString(form)))
+                .andDo(print())
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(header().string("Retry-After", "2"));
+    }
+
+    @Test
+    void testSignUpActionWhenHashingSaturated() throws Exception {
+        when(roleRegistry.findByName(anyString())).thenReturn(role1);
+        when(userService.createUser(any(User.class)))
+                .thenThrow(new PasswordHashingRejectedException("Server busy, please retry shortly.", 1));
+
+        mockMvc.perform(post("/signup")
+                        .flashAttr("userForm", user))
+                .andDo(print())
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(header().string("Retry-After", "1"));
+    }
+
 }
@@ -0,0 +1,83 @@
+package com.hendisantika.usermanagement.controller;
+
+import com.hendisantika.usermanagement.service.UserExportService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.io.ByteArrayInputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@ExtendWith(MockitoExtension.class)
+public class UserExportControllerTest {
+
+    @InjectMocks
+    UserExportController sut;
+
+    @Mock
+    UserExportService userExportService;
+
+    MockMvc mockMvc;
+
+    @BeforeEach
+    public void setUpBefore() {
+        mockMvc = MockMvcBuilders.standaloneSetup(sut).build();
+    }
+
+    @Test
+    void testExportCsv() throws Exception {
+        when(userExportService.exportCsv(any())).thenAnswer(invocation -> {
+            invocation.<OutputStream>getArgument(0).write("id\r\n1\r\n".getBytes(StandardCharsets.UTF_8));
+            return 1L;
+        });
+
+        MvcResult result = mockMvc.perform(get("/users/export.csv"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Type", "text/csv;charset=UTF-8"))
+                .andExpect(header().string("Content-Disposition", "attachment; filename=\"users.csv\""))
+                .andExpect(content().string("id\r\n1\r\n"));
+    }
+
+    @Test
+    void testExportNdjson_Gzip() throws Exception {
+        when(userExportService.exportNdjson(any())).thenAnswer(invocation -> {
+            invocation.<OutputStream>getArgument(0).write("{\"id\":1}\n".getBytes(StandardCharsets.UTF_8));
+            return 1L;
+        });
+
+        MvcResult result = mockMvc.perform(get("/users/export.ndjson").param("gzip", "true"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        byte[] body = mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Encoding", "gzip"))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(body))) {
+            assertEquals("{\"id\":1}\n", new String(in.readAllBytes(), StandardCharsets.UTF_8));
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package com.hendisantika.usermanagement.controller;
+
+import com.hendisantika.usermanagement.dto.UserImportReport;
+import com.hendisantika.usermanagement.service.UserImportService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.multipart;
+import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@ExtendWith(MockitoExtension.class)
+public class UserImportControllerTest {
+
+    @InjectMocks
+    UserImportController sut;
+
+    @Mock
+    UserImportService userImportService;
+
+    MockMvc mockMvc;
+
+    @BeforeEach
+    public void setUpBefore() {
+        mockMvc = MockMvcBuilders.standaloneSetup(sut).build();
+    }
+
+    @Test
+    void testImportCsv() throws Exception {
+        UserImportReport report = new UserImportReport(2, 1, 5,
+                List.of(new UserImportReport.RowError(2, "username", "Username not available")));
+        when(userImportService.importUsers(any(), eq(UserImportService.Format.CSV))).thenReturn(report);
+
+        mockMvc.perform(multipart("/users/import")
+                        .file(new MockMultipartFile("file", "users.csv", "text/csv", "header\n".getBytes())))
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.imported").value(1))
+                .andExpect(jsonPath("$.errors[0].row").value(2));
+    }
+
+    @Test
+    void testImportNdjson() throws Exception {
+        when(userImportService.importUsers(any(), eq(UserImportService.Format.NDJSON)))
+                .thenReturn(new UserImportReport());
+
+        mockMvc.perform(multipart("/users/import")
+                        .file(new MockMultipartFile("file", "users.ndjson", null, "{}\n".getBytes())))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void testImportUnsupportedFormat() throws Exception {
+        mockMvc.perform(multipart("/users/import")
+                        .file(new MockMultipartFile("file", "users.xlsx", "application/octet-stream", new byte[1])))
+                .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(userImportService);
+    }
+}
@@ -0,0 +1,64 @@
+package com.hendisantika.usermanagement.controller;
+
+import com.hendisantika.usermanagement.dto.UserSummary;
+import com.hendisantika.usermanagement.service.UserSearchIndex;
+import com.hendisantika.usermanagement.service.UserSuggestIndex;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.util.List;
+
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@ExtendWith(MockitoExtension.class)
+public class UserSearchControllerTest {
+
+    @InjectMocks
+    UserSearchController sut;
+
+    @Mock
+    UserSearchIndex userSearchIndex;
+
+    @Mock
+    UserSuggestIndex userSuggestIndex;
+
+    MockMvc mockMvc;
+
+    @BeforeEach
+    public void setUpBefore() {
+        mockMvc = MockMvcBuilders.standaloneSetup(sut).build();
+    }
+
+    @Test
+    void testSuggest() throws Exception {
+        when(userSuggestIndex.suggest("al", UserSuggestIndex.MAX_SUGGESTIONS))
+                .thenReturn(List.of("alice", "alice@example.com"));
+
+        mockMvc.perform(get("/users/suggest").param("prefix", "al"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Cache-Control", "max-age=30, private"))
+                .andExpect(jsonPath("$[1]").value("alice@example.com"));
+    }
+
+    @Test
+    void testSearch() throws Exception {
+        when(userSearchIndex.search("ali", UserSearchController.DEFAULT_LIMIT)).thenReturn(
+                List.of(new UserSummary(1L, "Alice", "Martin", "alice", "alice@example.com", null, null)));
+
+        mockMvc.perform(get("/users/search").param("q", "ali"))
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].username").value("alice"));
+    }
+}
@@ -0,0 +1,132 @@
+package com.hendisantika.usermanagement.repository;
+
+import com.hendisantika.usermanagement.entity.Role;
+import com.hendisantika.usermanagement.entity.User;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Tests d'intégration du cache de second niveau (Role, User.roles et RoleRepository.findByName) sur H2.
+ * Le nombre de requêtes SQL est vérifié via les statistiques Hibernate. Le cache n'est alimenté qu'à partir
+ * de données validées, d'où des transactions réelles plutôt que le rollback habituel de @DataJpaTest.
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@DisplayName("Second-level cache Tests")
+class SecondLevelCacheTest {
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private RoleRepository roleRepository;
+
+    private TransactionTemplate transaction;
+    private Statistics statistics;
+    private Role admin;
+    private Role user;
+    private Long aliceId;
+
+    @BeforeEach
+    void setUp() {
+        transaction = new TransactionTemplate(transactionManager);
+        admin = roleRepository.save(new Role(null, "ADMIN", "ROLE_ADMIN"));
+        user = roleRepository.save(new Role(null, "USER", "ROLE_USER"));
+        User alice = new User();
+        alice.setRoles(new HashSet<>(Set.of(admin, user)));
+        alice.setFirstName("alice");
+        alice.setLastName("alice");
+        alice.setEmail("alice@example.com");
+        alice.setUsername("alice");
+        alice.setPassword("secret");
+        aliceId = userRepository.save(alice).getId();
+
+        // Chaque test part d'un cache froid ; les régions sont aussi partagées par les autres contextes de la JVM
+        SessionFactory sessionFactory = entityManagerFactory.unwrap(SessionFactory.class);
+        sessionFactory.getCache().evictAllRegions();
+        statistics = sessionFactory.getStatistics();
+        statistics.clear();
+    }
+
+    @AfterEach
+    void tearDown() {
+        userRepository.deleteAll();
+        roleRepository.deleteAll();
+    }
+
+    @Test
+    @DisplayName("Un rôle déjà chargé est relu depuis le cache sans requête")
+    void testRoleById_Cached() {
+        roleRepository.findById(admin.getId()).orElseThrow();
+        Role cached = roleRepository.findById(admin.getId()).orElseThrow();
+
+        assertEquals("ADMIN", cached.getName());
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertEquals(1, statistics.getSecondLevelCacheHitCount());
+    }
+
+    @Test
+    @DisplayName("findByName est servi par le cache de requêtes")
+    void testFindByName_QueryCache() {
+        roleRepository.findByName("USER");
+        Role cached = roleRepository.findByName("USER");
+
+        assertEquals(user.getId(), cached.getId());
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertEquals(1, statistics.getQueryCacheHitCount());
+    }
+
+    @Test
+    @DisplayName("Parcourir User.roles une seconde fois ne coûte que la requête sur users")
+    void testUserRoles_Cached() {
+        // Premier passage : users, puis la collection avec ses rôles
+        assertEquals(2, roleCount(aliceId));
+        long cold = statistics.getPrepareStatementCount();
+        statistics.clear();
+
+        assertEquals(2, roleCount(aliceId));
+
+        assertEquals(2, cold);
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    @DisplayName("Modifier les rôles d'un utilisateur invalide sa collection en cache")
+    void testUserRoles_EvictedOnUpdate() {
+        assertEquals(2, roleCount(aliceId));
+
+        transaction.executeWithoutResult(status ->
+                userRepository.findById(aliceId).orElseThrow().setRoles(new HashSet<>(Set.of(user))));
+
+        List<String> names = transaction.execute(status -> userRepository.findById(aliceId).orElseThrow()
+                .getRoles().stream().map(Role::getName).toList());
+        assertEquals(List.of("USER"), names);
+    }
+
+    private int roleCount(Long id) {
+        return transaction.execute(status -> userRepository.findById(id).orElseThrow().getRoles().size());
+    }
+}
@@ -0,0 +1,250 @@
+package com.hendisantika.usermanagement.repository;
+
+import com.hendisantika.usermanagement.dto.UserSummary;
+import com.hendisantika.usermanagement.entity.Role;
+import com.hendisantika.usermanagement.entity.User;
+import com.hendisantika.usermanagement.service.UserDetailsServiceImpl;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.exception.ConstraintViolationException;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Limit;
+import org.springframework.security.core.userdetails.UserCache;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests d'intégration des requêtes de UserRepository sur H2 : pagination keyset et chargement des rôles.
+ * Le nombre de requêtes SQL est vérifié via les statistiques Hibernate pour éviter toute régression N+1.
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@Import(UserDetailsServiceImpl.class)
+@DisplayName("UserRepository Tests")
+class UserRepositoryTest {
+
+    private static final LocalDateTime T0 = LocalDateTime.of(2024, 1, 1, 10, 0);
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private UserDetailsServiceImpl userDetailsService;
+
+    @MockBean
+    private UserCache userCache;
+
+    private Statistics statistics;
+    private Long[] ids;
+    private Long userRoleId;
+
+    @BeforeEach
+    void setUp() {
+        Role admin = entityManager.persist(new Role(null, "ADMIN", "ROLE_ADMIN"));
+        Role user = entityManager.persist(new Role(null, "USER", "ROLE_USER"));
+        userRoleId = user.getId();
+        // Deux utilisateurs partagent le même createdOn pour vérifier le départage par id
+        ids = new Long[]{
+                persist("alice", T0.plusMinutes(2), Set.of(admin, user)),
+                persist("bob", T0, Set.of(user)),
+                persist("carol", T0, Set.of(user)),
+                persist("dave", T0.plusMinutes(1), Set.of(admin))
+        };
+        entityManager.flush();
+        entityManager.clear();
+
+        statistics = entityManager.getEntityManager().getEntityManagerFactory()
+                .unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    @DisplayName("Pagination par id dans les deux sens")
+    void testPageById() {
+        List<UserSummary> first = userRepository.findSummariesOrderById(Limit.of(2));
+        assertEquals(List.of(ids[0], ids[1]), idsOf(first));
+
+        List<UserSummary> second = userRepository.findSummariesAfterId(ids[1], Limit.of(2));
+        assertEquals(List.of(ids[2], ids[3]), idsOf(second));
+
+        List<UserSummary> back = userRepository.findSummariesBeforeId(ids[2], Limit.of(2));
+        assertEquals(List.of(ids[1], ids[0]), idsOf(back));
+    }
+
+    @Test
+    @DisplayName("Pagination par (createdOn, id) avec départage sur id")
+    void testPageByCreatedOn() {
+        List<UserSummary> first = userRepository.findSummariesOrderByCreatedOn(Limit.of(1));
+        assertEquals(List.of(ids[1]), idsOf(first));
+
+        List<UserSummary> next = userRepository.findSummariesAfterCreatedOn(T0, ids[1], Limit.of(2));
+        assertEquals(List.of(ids[2], ids[3]), idsOf(next));
+
+        List<UserSummary> back = userRepository.findSummariesBeforeCreatedOn(T0.plusMinutes(2), ids[0], Limit.of(10));
+        assertEquals(List.of(ids[3], ids[2], ids[1]), idsOf(back));
+    }
+
+    @Test
+    @DisplayName("Pagination par (createdOn, id) : les utilisateurs sans createdOn viennent en dernier, par id")
+    void testPageByCreatedOn_Undated() {
+        Role user = entityManager.find(Role.class, userRoleId);
+        Long erin = persist("erin", null, Set.of(user));
+        Long frank = persist("frank", null, Set.of(user));
+
+        List<UserSummary> all = userRepository.findSummariesOrderByCreatedOn(Limit.of(10));
+        assertEquals(List.of(ids[1], ids[2], ids[3], ids[0], erin, frank), idsOf(all));
+
+        List<UserSummary> afterDated = userRepository.findSummariesAfterCreatedOn(T0.plusMinutes(2), ids[0],
+                Limit.of(10));
+        assertEquals(List.of(erin, frank), idsOf(afterDated));
+
+        List<UserSummary> afterUndated = userRepository.findSummariesAfterUndated(erin, Limit.of(10));
+        assertEquals(List.of(frank), idsOf(afterUndated));
+
+        List<UserSummary> back = userRepository.findSummariesBeforeUndated(frank, Limit.of(10));
+        assertEquals(List.of(erin, ids[0], ids[3], ids[2], ids[1]), idsOf(back));
+    }
+
+    @Test
+    @DisplayName("Projection : une page ne charge aucune entité dans le contexte de persistance")
+    void testSummaries_NoManagedEntities() {
+        List<UserSummary> page = userRepository.findSummariesOrderById(Limit.of(10));
+
+        assertEquals(4, page.size());
+        assertEquals("alice@example.com", page.get(0).getEmail());
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertEquals(0, statistics.getEntityLoadCount());
+    }
+
+    @Test
+    @DisplayName("Export : le flux de projections ne charge aucune entité")
+    void testStreamSummaries_NoManagedEntities() {
+        try (Stream<UserSummary> users = userRepository.streamSummaries()) {
+            assertEquals(List.of(ids[0], ids[1], ids[2], ids[3]), users.map(UserSummary::getId).toList());
+        }
+
+        assertEquals(0, statistics.getEntityLoadCount());
+        assertEquals(0, entityManager.getEntityManager().unwrap(Session.class).getStatistics().getEntityCount());
+    }
+
+    @Test
+    @DisplayName("Un utilisateur et ses rôles en une seule requête")
+    void testFindWithRolesByUsername_SingleStatement() {
+        User alice = userRepository.findWithRolesByUsername("alice").orElseThrow();
+        assertEquals(2, alice.getRoles().size());
+
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    @DisplayName("Édition : utilisateur et rôles par id en une seule requête")
+    void testFindWithRolesById_SingleStatement() {
+        User dave = userRepository.findWithRolesById(ids[3]).orElseThrow();
+        assertEquals("ADMIN", dave.getRoles().iterator().next().getName());
+
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    @DisplayName("Version : lue seule en une requête et incrémentée à chaque mise à jour")
+    void testFindVersionById() {
+        long before = userRepository.findVersionById(ids[0]).orElseThrow();
+        assertEquals(1, statistics.getPrepareStatementCount());
+
+        User alice = userRepository.findById(ids[0]).orElseThrow();
+        alice.setFirstName("Alicia");
+        entityManager.flush();
+        entityManager.clear();
+
+        assertEquals(before + 1, userRepository.findVersionById(ids[0]).orElseThrow());
+        assertTrue(userRepository.findVersionById(-1L).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Login : loadUserByUsername n'émet qu'une requête")
+    void testLoadUserByUsername_SingleStatement() {
+        UserDetails details = userDetailsService.loadUserByUsername("alice");
+        assertEquals(2, details.getAuthorities().size());
+
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    @DisplayName("Un username déjà pris est rejeté par la contrainte uk_users_username")
+    void testDuplicateUsername_RejectedByConstraint() {
+        User duplicate = new User();
+        duplicate.setFirstName("alice");
+        duplicate.setLastName("alice");
+        duplicate.setEmail("alice2@example.com");
+        duplicate.setUsername("alice");
+        duplicate.setPassword("secret");
+
+        ConstraintViolationException e = assertThrows(ConstraintViolationException.class,
+                () -> entityManager.persistAndFlush(duplicate));
+        assertTrue(e.getConstraintName().toLowerCase(Locale.ROOT).contains("uk_users_username"));
+    }
+
+    @Test
+    @DisplayName("Insertion en masse : ids par séquence poolée et instructions JDBC regroupées par lots")
+    void testSaveAll_BatchedInserts() {
+        Role user = entityManager.find(Role.class, userRoleId);
+
+        List<User> users = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            User u = new User();
+            u.setRoles(Set.of(user));
+            u.setFirstName("bulk");
+            u.setLastName("bulk");
+            u.setEmail("bulk" + i + "@example.com");
+            u.setUsername("bulk" + i);
+            u.setPassword("secret");
+            users.add(u);
+        }
+        statistics.clear();
+        userRepository.saveAll(users);
+        entityManager.flush();
+
+        // Sans lots : une instruction par ligne insérée, soit 200
+        assertTrue(statistics.getPrepareStatementCount() < 10, "statements: " + statistics.getPrepareStatementCount());
+        assertEquals(104, userRepository.count());
+    }
+
+    private Long persist(String username, LocalDateTime createdOn, Set<Role> roles) {
+        User user = new User();
+        user.setRoles(roles);
+        user.setFirstName(username);
+        user.setLastName(username);
+        user.setEmail(username + "@example.com");
+        user.setUsername(username);
+        user.setPassword("secret");
+        user = entityManager.persistAndFlush(user);
+        // @CreatedDate est posé par l'auditing, on le force ensuite pour contrôler l'ordre
+        user.setCreatedOn(createdOn);
+        entityManager.flush();
+        return user.getId();
+    }
+
+    private List<Long> idsOf(List<UserSummary> users) {
+        return users.stream().map(UserSummary::getId).toList();
+    }
+}